@@ -17,17 +17,32 @@
 package com.io7m.jwhere.cmdline;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 import com.io7m.jwhere.core.CatalogCompress;
+import com.io7m.jwhere.core.CatalogDisk;
 import com.io7m.jwhere.core.CatalogDiskDuplicateIDException;
 import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogDiskName;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
 import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogIOThrottle;
+import com.io7m.jwhere.core.CatalogJSONStreamWriter;
+import com.io7m.jwhere.core.CatalogSaveSpecification;
+import com.io7m.jwhere.core.CatalogScanSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
 
 /**
  * A command to add a disk to a catalog.
@@ -100,6 +115,132 @@ public final class CommandAddDisk extends CommandRoot
     required = true)
   BigInteger disk_index;
 
+  /**
+   * The hash algorithm.
+   */
+
+  @Parameter(
+    names = "--hash-algorithm",
+    description = "The algorithm used to hash files (such as SHA-256, CRC32C, XXH64, or TREE-67108864-SHA-256 for a tree hash of 64MiB chunks digested in parallel)")
+  String hash_algorithm = CatalogHashAlgorithms.SHA_256.name();
+
+  /**
+   * Additional hash algorithms.
+   */
+
+  @Parameter(
+    names = "--additional-hash-algorithm",
+    description = "An algorithm used to produce an additional hash of each file, such as SAMPLED-1048576-4-XXH64 for a sampled hash (may be repeated)")
+  List<String> additional_hash_algorithms = new ArrayList<>();
+
+  /**
+   * The number of threads used to hash files.
+   */
+
+  @Parameter(
+    names = "--hash-threads",
+    description = "The number of threads used to hash files while the filesystem is walked")
+  int hash_threads = 1;
+
+  /**
+   * The maximum number of files waiting to be hashed.
+   */
+
+  @Parameter(
+    names = "--hash-queue-capacity",
+    description = "The maximum number of files waiting to be hashed when --hash-threads is greater than 1")
+  int hash_queue_capacity = 256;
+
+  /**
+   * The number of threads used to walk the filesystem.
+   */
+
+  @Parameter(
+    names = "--traversal-threads",
+    description = "The number of threads used to walk sibling directories concurrently")
+  int traversal_threads = 1;
+
+  /**
+   * The maximum number of scanned directories waiting to be added.
+   */
+
+  @Parameter(
+    names = "--traversal-queue-capacity",
+    description = "The maximum number of directories queued for, or held after, scanning when --traversal-threads is greater than 1")
+  int traversal_queue_capacity = 64;
+
+  /**
+   * The size of the buffer used to read files.
+   */
+
+  @Parameter(
+    names = "--hash-buffer-size",
+    description = "The size in bytes of the buffer each hashing thread reads files into")
+  int hash_buffer_size = 1024 * 1024;
+
+  /**
+   * The size at which files are mapped rather than read.
+   */
+
+  @Parameter(
+    names = "--hash-map-threshold",
+    description = "The size in bytes at or above which files are hashed by mapping them into memory")
+  long hash_map_threshold = 64L * 1024L * 1024L;
+
+  /**
+   * The maximum rate at which files are read.
+   */
+
+  @Parameter(
+    names = "--max-read-rate",
+    description = "The maximum number of bytes per second read when hashing files (0 for no limit)")
+  long max_read_rate;
+
+  /**
+   * The maximum rate of filesystem operations.
+   */
+
+  @Parameter(
+    names = "--max-operation-rate",
+    description = "The maximum number of filesystem operations (attribute reads and directory listings) per second (0 for no limit)")
+  long max_operation_rate;
+
+  /**
+   * The scan journal.
+   */
+
+  @Parameter(
+    names = "--journal",
+    description = "A file to which the hashes of scanned files are journaled, so that an interrupted scan can be resumed with --resume (deleted when the catalog is saved)")
+  Path journal;
+
+  /**
+   * Resume an interrupted scan.
+   */
+
+  @Parameter(
+    names = "--resume",
+    description = "Resume an interrupted scan from the file given by --journal, rather than hashing journaled files again")
+  boolean resume;
+
+  /**
+   * Write the disk to the catalog as it is scanned.
+   */
+
+  @Parameter(
+    names = "--stream",
+    description = "Write the disk to the output catalog as it is scanned, rather than holding the entire disk in memory")
+  boolean stream;
+
+  /**
+   * Log the progress of the scan.
+   */
+
+  @Parameter(
+    names = "--progress",
+    description = "Count the files on the disk before scanning, and log the progress of the scan every second")
+  boolean show_progress;
+
   // CHECKSTYLE:ON
 
   /**
@@ -126,12 +267,151 @@ public final class CommandAddDisk extends CommandRoot
         String.format("Catalog already contains a disk with index %s", id));
     }
 
-    final var disk =
-      CatalogFilesystemReader.newDisk(CatalogDiskName.of(this.disk_name), id, this.root);
-    final var meta = disk.getMeta();
-    disks.put(meta.getDiskID(), disk);
+    final var settings =
+      scanSettings(
+        this.hash_algorithm,
+        this.additional_hash_algorithms,
+        this.hash_threads,
+        this.hash_queue_capacity,
+        this.traversal_threads,
+        this.traversal_queue_capacity,
+        hashEngineSettings(this.hash_buffer_size, this.hash_map_threshold),
+        this.journal,
+        this.resume);
+
+    final var throttle =
+      CatalogIOThrottle.create(this.max_read_rate, this.max_operation_rate);
+
+    if (this.stream) {
+      this.streamCatalog(disks, id, settings, throttle);
+    } else {
+      final CatalogDisk disk;
+      try (var progress =
+             ProgressLogger.start(this.show_progress, this.root, throttle)) {
+        disk = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of(this.disk_name),
+          id,
+          this.root,
+          settings,
+          progress.context());
+      }
+      final var meta = disk.getMeta();
+      disks.put(meta.getDiskID(), disk);
 
-    Catalogs.saveCatalog(catalog, this.catalog_compress, this.catalog_out);
+      Catalogs.saveCatalog(catalog, this.catalog_compress, this.catalog_out);
+    }
+
+    if (this.journal != null) {
+      Files.deleteIfExists(this.journal);
+    }
     return null;
   }
+
+  /*
+   * The new disk is written to a temporary file along with the existing
+   * disks, in order of their IDs, and the temporary file replaces the
+   * output only once the scan has succeeded. The output may be the same
+   * file as the input.
+   */
+
+  private void streamCatalog(
+    final SortedMap<CatalogDiskID, CatalogDisk> disks,
+    final CatalogDiskID id,
+    final CatalogScanSettings settings,
+    final CatalogIOThrottle throttle)
+    throws Exception
+  {
+    final var temporary =
+      this.catalog_out.resolveSibling(this.catalog_out.getFileName() + ".tmp");
+
+    try {
+      final var save_spec =
+        CatalogSaveSpecification.builder()
+          .setCompress(this.catalog_compress)
+          .setPath(temporary)
+          .build();
+
+      try (var writer = CatalogJSONStreamWriter.open(save_spec);
+           var progress =
+             ProgressLogger.start(this.show_progress, this.root, throttle)) {
+        for (final var disk : disks.headMap(id).values()) {
+          writer.writeDisk(disk);
+        }
+        CatalogFilesystemReader.streamDisk(
+          CatalogDiskName.of(this.disk_name),
+          id,
+          this.root,
+          settings,
+          progress.context(),
+          writer);
+        for (final var disk : disks.tailMap(id).values()) {
+          writer.writeDisk(disk);
+        }
+      }
+
+      Files.move(
+        temporary,
+        this.catalog_out,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  static CatalogScanSettings scanSettings(
+    final String hash_algorithm,
+    final List<String> additional_hash_algorithms,
+    final int hash_threads,
+    final int hash_queue_capacity,
+    final int traversal_threads,
+    final int traversal_queue_capacity,
+    final CatalogFileHashEngineSettings hash_engine,
+    final Path journal,
+    final boolean resume)
+    throws NoSuchAlgorithmException
+  {
+    if (resume && journal == null) {
+      throw new ParameterException("--resume requires --journal");
+    }
+
+    checkHashAlgorithm(hash_algorithm);
+    for (final var algorithm : additional_hash_algorithms) {
+      checkHashAlgorithm(algorithm);
+    }
+
+    return CatalogScanSettings.builder()
+      .setHashAlgorithm(hash_algorithm)
+      .setAdditionalHashAlgorithms(additional_hash_algorithms)
+      .setHashThreads(hash_threads)
+      .setHashQueueCapacity(hash_queue_capacity)
+      .setTraversalThreads(traversal_threads)
+      .setTraversalQueueCapacity(traversal_queue_capacity)
+      .setHashEngine(hash_engine)
+      .setJournal(Optional.ofNullable(journal))
+      .setResume(resume)
+      .build();
+  }
+
+  static CatalogFileHashEngineSettings hashEngineSettings(
+    final int buffer_size,
+    final long map_threshold)
+  {
+    return CatalogFileHashEngineSettings.builder()
+      .setBufferSize(buffer_size)
+      .setMapThreshold(map_threshold)
+      .build();
+  }
+
+  private static void checkHashAlgorithm(final String hash_algorithm)
+    throws NoSuchAlgorithmException
+  {
+    if (CatalogHashAlgorithms.forName(hash_algorithm).isEmpty()) {
+      throw new NoSuchAlgorithmException(
+        String.format(
+          "Unsupported hash algorithm %s (available: %s)",
+          hash_algorithm,
+          String.join(", ", CatalogHashAlgorithms.names())));
+    }
+  }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2015 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jwhere.cmdline;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.io7m.jwhere.core.CatalogCompress;
+import com.io7m.jwhere.core.CatalogDiskID;
+import com.io7m.jwhere.core.CatalogDiskNonexistentException;
+import com.io7m.jwhere.core.CatalogDiskUpdate;
+import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogIOThrottle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A command to rescan an existing disk in a catalog, reusing the hashes of
+ * unchanged files.
+ */
+
+@Parameters(commandDescription = "Rescan an existing disk in a catalog")
+public final class CommandUpdateDisk extends CommandRoot
+{
+  private static final Logger LOG = LoggerFactory.getLogger(CommandUpdateDisk.class);
+
+  // CHECKSTYLE:OFF
+
+  /**
+   * The compression scheme to use for the catalog
+   */
+
+  @Parameter(
+    names = "--catalog-compress",
+    description = "The compression scheme to use for the catalog")
+  CatalogCompress catalog_compress = CatalogCompress.COMPRESS_GZIP;
+
+  /**
+   * The path to the input catalog.
+   */
+
+  @Parameter(
+    names = "--catalog-input",
+    description = "The path to the input catalog file",
+    required = true)
+  Path catalog_in;
+
+  /**
+   * The path to the output catalog.
+   */
+
+  @Parameter(
+    names = "--catalog-output",
+    description = "The path to the output catalog file",
+    required = true)
+  Path catalog_out;
+
+  /**
+   * The filesystem root.
+   */
+
+  @Parameter(
+    names = "--disk-root",
+    description = "The path to a filesystem root",
+    required = true)
+  Path root;
+
+  /**
+   * The ID of the disk to be updated.
+   */
+
+  @Parameter(
+    names = "--disk-id",
+    description = "The ID of the disk",
+    converter = BigIntegerConverter.class,
+    required = true)
+  BigInteger disk_index;
+
+  /**
+   * The hash algorithm.
+   */
+
+  @Parameter(
+    names = "--hash-algorithm",
+    description = "The algorithm used to hash files (such as SHA-256, CRC32C, XXH64, or TREE-67108864-SHA-256 for a tree hash of 64MiB chunks digested in parallel)")
+  String hash_algorithm = CatalogHashAlgorithms.SHA_256.name();
+
+  /**
+   * Additional hash algorithms.
+   */
+
+  @Parameter(
+    names = "--additional-hash-algorithm",
+    description = "An algorithm used to produce an additional hash of each file, such as SAMPLED-1048576-4-XXH64 for a sampled hash (may be repeated)")
+  List<String> additional_hash_algorithms = new ArrayList<>();
+
+  /**
+   * The number of threads used to hash files.
+   */
+
+  @Parameter(
+    names = "--hash-threads",
+    description = "The number of threads used to hash files while the filesystem is walked")
+  int hash_threads = 1;
+
+  /**
+   * The maximum number of files waiting to be hashed.
+   */
+
+  @Parameter(
+    names = "--hash-queue-capacity",
+    description = "The maximum number of files waiting to be hashed when --hash-threads is greater than 1")
+  int hash_queue_capacity = 256;
+
+  /**
+   * The number of threads used to walk the filesystem.
+   */
+
+  @Parameter(
+    names = "--traversal-threads",
+    description = "The number of threads used to walk sibling directories concurrently")
+  int traversal_threads = 1;
+
+  /**
+   * The maximum number of scanned directories waiting to be added.
+   */
+
+  @Parameter(
+    names = "--traversal-queue-capacity",
+    description = "The maximum number of directories queued for, or held after, scanning when --traversal-threads is greater than 1")
+  int traversal_queue_capacity = 64;
+
+  /**
+   * The size of the buffer used to read files.
+   */
+
+  @Parameter(
+    names = "--hash-buffer-size",
+    description = "The size in bytes of the buffer each hashing thread reads files into")
+  int hash_buffer_size = 1024 * 1024;
+
+  /**
+   * The size at which files are mapped rather than read.
+   */
+
+  @Parameter(
+    names = "--hash-map-threshold",
+    description = "The size in bytes at or above which files are hashed by mapping them into memory")
+  long hash_map_threshold = 64L * 1024L * 1024L;
+
+  /**
+   * The maximum rate at which files are read.
+   */
+
+  @Parameter(
+    names = "--max-read-rate",
+    description = "The maximum number of bytes per second read when hashing files (0 for no limit)")
+  long max_read_rate;
+
+  /**
+   * The maximum rate of filesystem operations.
+   */
+
+  @Parameter(
+    names = "--max-operation-rate",
+    description = "The maximum number of filesystem operations (attribute reads and directory listings) per second (0 for no limit)")
+  long max_operation_rate;
+
+  /**
+   * The scan journal.
+   */
+
+  @Parameter(
+    names = "--journal",
+    description = "A file to which the hashes of scanned files are journaled, so that an interrupted scan can be resumed with --resume (deleted when the catalog is saved)")
+  Path journal;
+
+  /**
+   * Resume an interrupted scan.
+   */
+
+  @Parameter(
+    names = "--resume",
+    description = "Resume an interrupted scan from the file given by --journal, rather than hashing journaled files again")
+  boolean resume;
+
+  /**
+   * Log the progress of the scan.
+   */
+
+  @Parameter(
+    names = "--progress",
+    description = "Count the files on the disk before scanning, and log the progress of the scan every second")
+  boolean show_progress;
+
+  // CHECKSTYLE:ON
+
+  /**
+   * Construct a command.
+   */
+
+  public CommandUpdateDisk()
+  {
+
+  }
+
+  @Override
+  public Void call()
+    throws Exception
+  {
+    super.call();
+
+    final var catalog = Catalogs.loadCatalog(this.catalog_in);
+
+    final var disks = catalog.getDisks();
+    final var id = CatalogDiskID.of(this.disk_index);
+    if (!disks.containsKey(id)) {
+      throw new CatalogDiskNonexistentException(
+        String.format("Catalog does not contain a disk with index %s", id));
+    }
+
+    final var settings =
+      CommandAddDisk.scanSettings(
+        this.hash_algorithm,
+        this.additional_hash_algorithms,
+        this.hash_threads,
+        this.hash_queue_capacity,
+        this.traversal_threads,
+        this.traversal_queue_capacity,
+        CommandAddDisk.hashEngineSettings(this.hash_buffer_size, this.hash_map_threshold),
+        this.journal,
+        this.resume);
+
+    final var throttle =
+      CatalogIOThrottle.create(this.max_read_rate, this.max_operation_rate);
+    final CatalogDiskUpdate update;
+    try (var progress =
+           ProgressLogger.start(this.show_progress, this.root, throttle)) {
+      update = CatalogFilesystemReader.updateDisk(
+        disks.get(id), this.root, settings, progress.context());
+    }
+
+    LOG.info(
+      "hashes reused: {}, hashes computed: {}",
+      Long.valueOf(update.hashesReused()),
+      Long.valueOf(update.hashesComputed()));
+
+    disks.put(id, update.disk());
+    Catalogs.saveCatalog(catalog, this.catalog_compress, this.catalog_out);
+    if (this.journal != null) {
+      Files.deleteIfExists(this.journal);
+    }
+    return null;
+  }
+}
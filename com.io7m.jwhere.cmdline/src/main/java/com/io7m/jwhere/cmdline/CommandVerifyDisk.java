@@ -18,13 +18,21 @@ package com.io7m.jwhere.cmdline;
 
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
+import com.io7m.jwhere.core.CatalogDisk;
 import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogIOThrottle;
 import com.io7m.jwhere.core.CatalogIgnoreAccessTime;
+import com.io7m.jwhere.core.CatalogScanContext;
+import com.io7m.jwhere.core.CatalogVerificationBatchListenerType;
+import com.io7m.jwhere.core.CatalogVerificationBatchSettings;
+import com.io7m.jwhere.core.CatalogVerificationBatchingListener;
+import com.io7m.jwhere.core.CatalogVerificationHashMode;
 import com.io7m.jwhere.core.CatalogVerificationListenerType;
 import com.io7m.jwhere.core.CatalogVerificationReportItemErrorType;
-import com.io7m.jwhere.core.CatalogVerificationReportItemOKType;
+import com.io7m.jwhere.core.CatalogVerificationReportItemType;
 import com.io7m.jwhere.core.CatalogVerificationReportSettings;
+import com.io7m.jwhere.core.CatalogVerificationReportWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +40,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * A command to list disks in a catalog.
@@ -80,6 +89,79 @@ public final class CommandVerifyDisk extends CommandRoot
     description = "Only show errors")
   private boolean only_errors;
 
+  /**
+   * The kind of hash recomputed for each file.
+   */
+
+  @Parameter(
+    names = "--hash-mode",
+    description = "Whether to prefer full or sampled hashes when verifying files, or to compare only file metadata (METADATA_ONLY)")
+  private CatalogVerificationHashMode hash_mode =
+    CatalogVerificationHashMode.PREFER_FULL_HASH;
+
+  /**
+   * The number of threads used to verify files.
+   */
+
+  @Parameter(
+    names = "--threads",
+    description = "The number of threads used to hash and compare files")
+  private int threads = 1;
+
+  /**
+   * The size of the buffer used to read files.
+   */
+
+  @Parameter(
+    names = "--hash-buffer-size",
+    description = "The size in bytes of the buffer each hashing thread reads files into")
+  private int hash_buffer_size = 1024 * 1024;
+
+  /**
+   * The size at which files are mapped rather than read.
+   */
+
+  @Parameter(
+    names = "--hash-map-threshold",
+    description = "The size in bytes at or above which files are hashed by mapping them into memory")
+  private long hash_map_threshold = 64L * 1024L * 1024L;
+
+  /**
+   * The file to which the report is written.
+   */
+
+  @Parameter(
+    names = "--report",
+    description = "Write all results to the given file (as NDJSON) instead of the terminal, and show only errors")
+  private Path report;
+
+  /**
+   * The maximum rate at which files are read.
+   */
+
+  @Parameter(
+    names = "--max-read-rate",
+    description = "The maximum number of bytes per second read when hashing files (0 for no limit)")
+  private long max_read_rate;
+
+  /**
+   * The maximum rate of filesystem operations.
+   */
+
+  @Parameter(
+    names = "--max-operation-rate",
+    description = "The maximum number of filesystem operations (attribute reads and directory listings) per second (0 for no limit)")
+  private long max_operation_rate;
+
+  /**
+   * Log the progress of the verification.
+   */
+
+  @Parameter(
+    names = "--progress",
+    description = "Count the files on the disk before verifying, and log the progress of the verification every second")
+  private boolean show_progress;
+
   // CHECKSTYLE:ON
 
   /**
@@ -108,10 +190,32 @@ public final class CommandVerifyDisk extends CommandRoot
     final var settings =
       CatalogVerificationReportSettings.builder()
         .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .setHashMode(this.hash_mode)
+        .setVerificationThreads(this.threads)
+        .setHashEngine(
+          CommandAddDisk.hashEngineSettings(this.hash_buffer_size, this.hash_map_threshold))
         .build();
 
-    final var verifier = new VerificationListener();
-    CatalogFilesystemReader.verifyDisk(disk, settings, this.root, verifier);
+    final var verifier = new VerificationListener(this.only_errors || this.report != null);
+    final var batch_settings = CatalogVerificationBatchSettings.builder().build();
+    final var throttle =
+      CatalogIOThrottle.create(this.max_read_rate, this.max_operation_rate);
+    try (var progress =
+           ProgressLogger.start(this.show_progress, this.root, throttle)) {
+      if (this.report != null) {
+        try (var writer = CatalogVerificationReportWriter.open(this.report)) {
+          verify(
+            disk,
+            settings,
+            this.root,
+            progress.context(),
+            batch_settings,
+            new TeeListener(writer, verifier));
+        }
+      } else {
+        verify(disk, settings, this.root, progress.context(), batch_settings, verifier);
+      }
+    }
 
     if (verifier.failed) {
       throw new IOException("One or more files failed verification");
@@ -120,37 +224,87 @@ public final class CommandVerifyDisk extends CommandRoot
     return null;
   }
 
-  private static final class VerificationListener implements CatalogVerificationListenerType
+  private static void verify(
+    final CatalogDisk disk,
+    final CatalogVerificationReportSettings settings,
+    final Path root,
+    final CatalogScanContext context,
+    final CatalogVerificationBatchSettings batch_settings,
+    final CatalogVerificationBatchListenerType listener)
+    throws IOException
   {
+    try (var batching = CatalogVerificationBatchingListener.create(batch_settings, listener)) {
+      CatalogFilesystemReader.verifyDisk(
+        disk,
+        settings,
+        root,
+        batching,
+        context);
+    }
+  }
+
+  private static final class VerificationListener implements CatalogVerificationBatchListenerType
+  {
+    private final boolean errors_only;
+    private final StringBuilder text;
     private boolean failed;
 
-    VerificationListener()
+    VerificationListener(
+      final boolean in_errors_only)
     {
+      this.errors_only = in_errors_only;
+      this.text = new StringBuilder(1024);
+    }
 
+    @Override
+    public void onItems(
+      final List<CatalogVerificationReportItemType> items)
+    {
+      this.text.setLength(0);
+      for (final var item : items) {
+        if (item instanceof CatalogVerificationReportItemErrorType) {
+          this.text.append(String.format("%s | FAILED | %s\n", item.path(), item.show()));
+          this.failed = true;
+        } else if (!this.errors_only) {
+          this.text.append(String.format("%s | OK | %s\n", item.path(), item.show()));
+        }
+      }
+      System.out.print(this.text);
     }
 
     @Override
-    public void onItemVerified(
-      final CatalogVerificationReportItemOKType ok)
+    public void onCompleted()
+    {
+      System.out.flush();
+    }
+  }
+
+  private static final class TeeListener implements CatalogVerificationBatchListenerType
+  {
+    private final CatalogVerificationBatchListenerType first;
+    private final CatalogVerificationBatchListenerType second;
+
+    TeeListener(
+      final CatalogVerificationListenerType in_first,
+      final CatalogVerificationBatchListenerType in_second)
     {
-      System.out.printf("%s | OK | %s\n", ok.path(), ok.show());
+      this.first = CatalogVerificationBatchingListener.unbatched(in_first);
+      this.second = in_second;
     }
 
     @Override
-    public void onItemError(
-      final CatalogVerificationReportItemErrorType error)
+    public void onItems(
+      final List<CatalogVerificationReportItemType> items)
     {
-      System.out.printf(
-        "%s | FAILED | %s\n",
-        error.path(),
-        error.show());
-      this.failed = true;
+      this.first.onItems(items);
+      this.second.onItems(items);
     }
 
     @Override
     public void onCompleted()
     {
-      // Nothing
+      this.first.onCompleted();
+      this.second.onCompleted();
     }
   }
 }
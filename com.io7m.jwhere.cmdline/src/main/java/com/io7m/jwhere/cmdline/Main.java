@@ -55,6 +55,7 @@ public final class Main implements Runnable
     final var cmd_import_gwhere = new CommandImportGWhere();
     final var cmd_add_disk = new CommandAddDisk();
     final var cmd_remove_disk = new CommandRemoveDisk();
+    final var cmd_update_disk = new CommandUpdateDisk();
     final var cmd_search = new CommandSearch();
 
     this.commands = new HashMap<>(8);
@@ -64,6 +65,7 @@ public final class Main implements Runnable
     this.commands.put("import-gwhere", cmd_import_gwhere);
     this.commands.put("add-disk", cmd_add_disk);
     this.commands.put("remove-disk", cmd_remove_disk);
+    this.commands.put("update-disk", cmd_update_disk);
     this.commands.put("search", cmd_search);
 
     this.commander = new JCommander(r);
@@ -74,6 +76,7 @@ public final class Main implements Runnable
     this.commander.addCommand("import-gwhere", cmd_import_gwhere);
     this.commander.addCommand("add-disk", cmd_add_disk);
     this.commander.addCommand("remove-disk", cmd_remove_disk);
+    this.commander.addCommand("update-disk", cmd_update_disk);
     this.commander.addCommand("search", cmd_search);
   }
 
@@ -108,7 +111,7 @@ public final class Main implements Runnable
       final var cmd = this.commander.getParsedCommand();
       if (cmd == null) {
         final var sb = new StringBuilder(128);
-        this.commander.usage(sb);
+        this.commander.getUsageFormatter().usage(sb);
         LOG.info("Arguments required.\n{}", sb.toString());
         this.exit_code = 1;
         return;
@@ -118,7 +121,7 @@ public final class Main implements Runnable
       command.call();
     } catch (final ParameterException e) {
       final var sb = new StringBuilder(128);
-      this.commander.usage(sb);
+      this.commander.getUsageFormatter().usage(sb);
       LOG.error("{}\n{}", e.getMessage(), sb.toString());
       this.exit_code = 1;
     } catch (final Exception e) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.cmdline;
+
+import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogIOThrottle;
+import com.io7m.jwhere.core.CatalogIOThroughput;
+import com.io7m.jwhere.core.CatalogScanContext;
+import com.io7m.jwhere.core.CatalogScanProgress;
+import com.io7m.jwhere.core.CatalogScanStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the progress of a scan or verification, and logs its
+ * throughput once it has finished.
+ */
+
+final class ProgressLogger implements AutoCloseable
+{
+  private static final Logger LOG = LoggerFactory.getLogger(ProgressLogger.class);
+
+  private final CatalogIOThrottle throttle;
+  private final CatalogIOThroughput throughput_start;
+  private final CatalogScanProgress progress;
+  private final ScheduledExecutorService executor;
+  private CatalogScanStatus previous;
+
+  private ProgressLogger(
+    final CatalogIOThrottle in_throttle,
+    final CatalogScanProgress in_progress,
+    final ScheduledExecutorService in_executor)
+  {
+    this.throttle = Objects.requireNonNull(in_throttle, "throttle");
+    this.progress = Objects.requireNonNull(in_progress, "progress");
+    this.executor = in_executor;
+    this.throughput_start = in_throttle.throughput();
+    this.previous = in_progress.status();
+  }
+
+  /**
+   * Start logging progress, if {@code enabled} is {@code true}. The tree at
+   * {@code root} is first counted so that the log can show the fraction of
+   * the scan completed and the time remaining. The progress and throughput
+   * of the scan are measured from the point at which counting finishes.
+   *
+   * @param enabled  {@code true} if progress should be logged
+   * @param root     The root of the tree that will be scanned
+   * @param throttle The throttle applied to filesystem operations
+   *
+   * @return A logger that stops when closed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static ProgressLogger start(
+    final boolean enabled,
+    final Path root,
+    final CatalogIOThrottle throttle)
+    throws IOException
+  {
+    if (!enabled) {
+      return new ProgressLogger(throttle, CatalogScanProgress.create(), null);
+    }
+
+    LOG.info("counting files in {}", root);
+    final var estimate = CatalogFilesystemReader.estimate(root, throttle);
+    LOG.info(
+      "found {} directories, {} files, {} bytes",
+      Long.valueOf(estimate.directories()),
+      Long.valueOf(estimate.files()),
+      Long.valueOf(estimate.bytes()));
+
+    final var progress = CatalogScanProgress.create();
+    progress.setEstimate(estimate);
+
+    final var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      final var thread = new Thread(r, "com.io7m.jwhere.cmdline.progress");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    final var logger = new ProgressLogger(throttle, progress, executor);
+    executor.scheduleAtFixedRate(logger::log, 1L, 1L, TimeUnit.SECONDS);
+    return logger;
+  }
+
+  /**
+   * @return The context with which the scan should be run
+   */
+
+  CatalogScanContext context()
+  {
+    return CatalogScanContext.builder()
+      .setThrottle(this.throttle)
+      .setProgress(this.progress)
+      .build();
+  }
+
+  private void log()
+  {
+    final var current = this.progress.status();
+    final var recent = current.since(this.previous);
+    this.previous = current;
+
+    LOG.info(
+      "progress: {} (now {} files/s, {} MiB/s)",
+      current.show(),
+      String.format("%.1f", Double.valueOf(recent.filesPerSecond())),
+      String.format("%.2f", Double.valueOf(recent.bytesReadPerSecond() / (1024.0 * 1024.0))));
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+    LOG.info("progress: {}", this.progress.status().show());
+    LOG.info(
+      "throughput: {}",
+      this.throttle.throughput().since(this.throughput_start).show());
+  }
+}
@@ -23,6 +23,7 @@ import org.immutables.value.Value;
 import java.math.BigInteger;
 import java.nio.file.attribute.PosixFilePermission;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -55,11 +56,18 @@ public interface CatalogDirectoryNodeType extends CatalogNodeType
   String group();
 
   /**
-   * @return The filesystem ID value
+   * @return The low 64 bits of the filesystem ID value
    */
 
   @Override
-  BigInteger id();
+  long idValue();
+
+  /**
+   * @return The filesystem ID value, if it cannot be represented as a {@code long}
+   */
+
+  @Override
+  Optional<BigInteger> idLarge();
 
   /**
    * @return The last modification time of the directory
@@ -105,5 +113,9 @@ public interface CatalogDirectoryNodeType extends CatalogNodeType
       this.owner(),
       !this.owner().isEmpty(),
       g -> "Owner name cannot be empty");
+    Preconditions.checkPrecondition(
+      this.idLarge(),
+      CatalogNodeType.isCanonicalValue(this.idValue(), this.idLarge()),
+      i -> "Large ID values must not fit into a long, and must match idValue()");
   }
 }
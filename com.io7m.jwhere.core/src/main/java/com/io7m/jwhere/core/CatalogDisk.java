@@ -19,20 +19,24 @@ package com.io7m.jwhere.core;
 import com.io7m.jaffirm.core.Preconditions;
 import net.jcip.annotations.Immutable;
 import org.jgrapht.Graph;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
 import org.jgrapht.graph.AsUnmodifiableGraph;
-import org.jgrapht.graph.DirectedAcyclicGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
 import java.nio.file.NotDirectoryException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
 /**
  * A catalogued disk.
@@ -50,15 +54,21 @@ public final class CatalogDisk
   private final AsUnmodifiableGraph<CatalogNodeType, CatalogDirectoryEntry> graph;
   private final CatalogDirectoryNode root;
   private final CatalogDiskMetadata meta;
+  private final Map<CatalogNodeType, CatalogDirectoryEntry> parents;
+  private final Map<CatalogNodeType, Map<String, CatalogDirectoryEntry>> entries;
 
   private CatalogDisk(
     final AsUnmodifiableGraph<CatalogNodeType, CatalogDirectoryEntry> in_g,
     final CatalogDirectoryNode in_root,
-    final CatalogDiskMetadata in_meta)
+    final CatalogDiskMetadata in_meta,
+    final Map<CatalogNodeType, CatalogDirectoryEntry> in_parents,
+    final Map<CatalogNodeType, Map<String, CatalogDirectoryEntry>> in_entries)
   {
     this.graph = Objects.requireNonNull(in_g, "in_g");
     this.root = Objects.requireNonNull(in_root, "in_root");
     this.meta = Objects.requireNonNull(in_meta, "in_meta");
+    this.parents = Objects.requireNonNull(in_parents, "in_parents");
+    this.entries = Objects.requireNonNull(in_entries, "in_entries");
 
     Preconditions.checkPreconditionV(
       this.graph.containsVertex(this.root),
@@ -89,13 +99,15 @@ public final class CatalogDisk
         .setPermissions(d_root.permissions())
         .setOwner(d_root.owner())
         .setGroup(d_root.group())
-        .setId(d_root.id())
+        .setIdValue(d_root.idValue())
+        .setIdLarge(d_root.idLarge())
         .setAccessTime(d_root.accessTime())
         .setCreationTime(d_root.creationTime())
         .setModificationTime(d_root.modificationTime())
         .build();
 
-    return new CatalogDisk(d.getFilesystemGraph(), in_root, d.getMeta());
+    return new CatalogDisk(
+      d.getFilesystemGraph(), in_root, d.getMeta(), d.parents, d.entries);
   }
 
   /**
@@ -122,47 +134,50 @@ public final class CatalogDisk
   }
 
   private static Optional<CatalogNodeType> getNodeForPathIterator(
-    final Graph<CatalogNodeType, CatalogDirectoryEntry> g,
+    final Map<CatalogNodeType, Map<String, CatalogDirectoryEntry>> entries,
     final CatalogDirectoryNodeType node,
     final Iterator<String> iter)
     throws NotDirectoryException
   {
     final var name = iter.next();
-    final var edges = g.outgoingEdgesOf(node);
-    for (final var e : edges) {
-      if (e.getName().equals(name)) {
-        return e.getTarget().matchNode(
-          new CatalogNodeMatcherType<Optional<CatalogNodeType>, NotDirectoryException>()
-          {
-            @Override
-            public Optional<CatalogNodeType> onFile(final CatalogFileNodeType f)
-              throws NotDirectoryException
-            {
-              return getNodeForPathIteratorFile(f, iter, name);
-            }
-
-            @Override
-            public Optional<CatalogNodeType> onDirectory(
-              final CatalogDirectoryNodeType d)
-              throws NotDirectoryException
-            {
-              return getNodeForPathIteratorDirectory(d, iter, g);
-            }
-          });
-      }
+    final var named = entries.get(node);
+    if (named == null) {
+      return Optional.empty();
+    }
+
+    final var e = named.get(name);
+    if (e == null) {
+      return Optional.empty();
     }
 
-    return Optional.empty();
+    return e.getTarget().matchNode(
+      new CatalogNodeMatcherType<Optional<CatalogNodeType>, NotDirectoryException>()
+      {
+        @Override
+        public Optional<CatalogNodeType> onFile(final CatalogFileNodeType f)
+          throws NotDirectoryException
+        {
+          return getNodeForPathIteratorFile(f, iter, name);
+        }
+
+        @Override
+        public Optional<CatalogNodeType> onDirectory(
+          final CatalogDirectoryNodeType d)
+          throws NotDirectoryException
+        {
+          return getNodeForPathIteratorDirectory(d, iter, entries);
+        }
+      });
   }
 
   private static Optional<CatalogNodeType> getNodeForPathIteratorDirectory(
     final CatalogDirectoryNodeType d,
     final Iterator<String> iter,
-    final Graph<CatalogNodeType, CatalogDirectoryEntry> g)
+    final Map<CatalogNodeType, Map<String, CatalogDirectoryEntry>> entries)
     throws NotDirectoryException
   {
     if (iter.hasNext()) {
-      return getNodeForPathIterator(g, d, iter);
+      return getNodeForPathIterator(entries, d, iter);
     }
     return Optional.of(d);
   }
@@ -239,16 +254,98 @@ public final class CatalogDisk
   {
     Objects.requireNonNull(node, "node");
 
-    if (this.graph.containsVertex(node)) {
-      final var dsp = new DijkstraShortestPath<>(this.graph);
-      final var path = dsp.getPath(this.root, node);
+    final var names = new ArrayList<String>(16);
+    CatalogNodeType current = node;
+    while (true) {
+      final var entry = this.parents.get(current);
+      if (entry == null) {
+        break;
+      }
+      names.add(entry.getName());
+      current = entry.getSource();
+    }
 
-      final var edge_stream = path.getEdgeList().stream();
-      return edge_stream.map(CatalogDirectoryEntry::getName)
-        .collect(Collectors.toList());
-    } else {
+    if (!this.root.equals(current)) {
       throw new NoSuchElementException();
     }
+
+    Collections.reverse(names);
+    return names;
+  }
+
+  /**
+   * <p>Traverse the filesystem depth-first from the root, passing each node
+   * and the path from the root to that node to {@code consumer}. The root
+   * directory is passed first, with an empty path.</p>
+   *
+   * <p>The path passed to {@code consumer} is a read-only view that is
+   * updated as the traversal proceeds; it must be copied if it is to be
+   * retained after the call returns.</p>
+   *
+   * @param consumer The receiver of nodes and paths
+   *
+   * @see #forEachPathWhile(BiPredicate)
+   */
+
+  public void forEachPath(
+    final BiConsumer<CatalogNodeType, List<String>> consumer)
+  {
+    Objects.requireNonNull(consumer, "consumer");
+
+    this.forEachPathWhile((node, path) -> {
+      consumer.accept(node, path);
+      return true;
+    });
+  }
+
+  /**
+   * Traverse the filesystem as with {@link #forEachPath(BiConsumer)}, stopping
+   * as soon as {@code consumer} returns {@code false}. The traversal uses an
+   * explicit stack, and so is not limited by the depth of the filesystem.
+   *
+   * @param consumer The receiver of nodes and paths
+   *
+   * @return {@code true} iff every node was passed to {@code consumer}
+   */
+
+  public boolean forEachPathWhile(
+    final BiPredicate<CatalogNodeType, List<String>> consumer)
+  {
+    Objects.requireNonNull(consumer, "consumer");
+
+    final var path = new ArrayList<String>(16);
+    final var path_view = Collections.unmodifiableList(path);
+    if (!consumer.test(this.root, path_view)) {
+      return false;
+    }
+
+    /*
+     * The stack holds the remaining entries of each directory on the
+     * current path. The name of a node is removed from the path when the
+     * entries of that node have been exhausted.
+     */
+
+    final var stack = new ArrayDeque<Iterator<CatalogDirectoryEntry>>(16);
+    stack.push(this.graph.outgoingEdgesOf(this.root).iterator());
+    while (!stack.isEmpty()) {
+      final var entries = stack.peek();
+      if (!entries.hasNext()) {
+        stack.pop();
+        if (!path.isEmpty()) {
+          path.remove(path.size() - 1);
+        }
+        continue;
+      }
+
+      final var e = entries.next();
+      final var target = e.getTarget();
+      path.add(e.getName());
+      if (!consumer.test(target, path_view)) {
+        return false;
+      }
+      stack.push(this.graph.outgoingEdgesOf(target).iterator());
+    }
+    return true;
   }
 
   /**
@@ -269,6 +366,35 @@ public final class CatalogDisk
     return this.root;
   }
 
+  /**
+   * Look up a single entry in a directory. This is the cheapest way to find
+   * a node when the parent directory is already known.
+   *
+   * @param directory The directory
+   * @param name      The name of the entry
+   *
+   * @return The node named by the entry, if one exists
+   */
+
+  public Optional<CatalogNodeType> getNodeForEntry(
+    final CatalogDirectoryNodeType directory,
+    final String name)
+  {
+    Objects.requireNonNull(directory, "directory");
+    Objects.requireNonNull(name, "name");
+
+    final var named = this.entries.get(directory);
+    if (named == null) {
+      return Optional.empty();
+    }
+
+    final var e = named.get(name);
+    if (e == null) {
+      return Optional.empty();
+    }
+    return Optional.of(e.getTarget());
+  }
+
   /**
    * Look up a node in the filesystem graph.
    *
@@ -285,7 +411,7 @@ public final class CatalogDisk
   {
     Objects.requireNonNull(p, "p");
     final var iter = p.iterator();
-    return getNodeForPathIterator(this.graph, this.root, iter);
+    return getNodeForPathIterator(this.entries, this.root, iter);
   }
 
   private static final class Builder implements CatalogDiskBuilderType
@@ -296,6 +422,8 @@ public final class CatalogDisk
     private final CatalogDiskID index;
     private final BigInteger size;
     private final CatalogDiskName disk_name;
+    private final Map<CatalogNodeType, CatalogDirectoryEntry> parents;
+    private final Map<CatalogNodeType, Map<String, CatalogDirectoryEntry>> entries;
     private boolean finished;
 
     private Builder(
@@ -311,8 +439,10 @@ public final class CatalogDisk
       this.index = Objects.requireNonNull(in_index, "in_index");
       this.size = Objects.requireNonNull(in_size, "in_size");
 
-      this.graph = new DirectedAcyclicGraph<>(CatalogDirectoryEntry.class);
+      this.graph = new CatalogTreeGraph();
       this.graph.addVertex(in_root);
+      this.parents = new HashMap<>(128);
+      this.entries = new HashMap<>(128);
     }
 
     @Override
@@ -326,9 +456,9 @@ public final class CatalogDisk
 
       LOG.debug("adding {}: {} → {}", name, parent, node);
 
-      if (this.graph.containsVertex(parent)) {
-        this.checkNoDuplicateEntry(parent, name);
-      }
+      final var parent_entries =
+        this.entries.computeIfAbsent(parent, k -> new HashMap<>(8));
+      checkNoDuplicateEntry(parent, parent_entries, name);
 
       if (this.graph.containsVertex(node)) {
         final var sb = new StringBuilder(256);
@@ -347,32 +477,33 @@ public final class CatalogDisk
       this.graph.addVertex(parent);
       this.graph.addVertex(node);
       this.graph.addEdge(parent, node, edge);
+      this.parents.put(node, edge);
+      parent_entries.put(name, edge);
     }
 
-    private void checkNoDuplicateEntry(
+    private static void checkNoDuplicateEntry(
       final CatalogDirectoryNode parent,
+      final Map<String, CatalogDirectoryEntry> parent_entries,
       final String name)
       throws CatalogNodeDuplicateDirectoryEntryException
     {
-      final var out = this.graph.outgoingEdgesOf(parent);
-      for (final var e : out) {
-        if (e.getName().equals(name)) {
-          final var sb = new StringBuilder(256);
-          sb.append(
-            "Directory already contains an entry for the given name.");
-          sb.append(System.lineSeparator());
-          sb.append("  Directory: ");
-          sb.append(parent);
-          sb.append(System.lineSeparator());
-          sb.append("  Name: ");
-          sb.append(name);
-          sb.append(System.lineSeparator());
-          sb.append("  Node: ");
-          sb.append(e.getTarget());
-          sb.append(System.lineSeparator());
-          final var m = sb.toString();
-          throw new CatalogNodeDuplicateDirectoryEntryException(m);
-        }
+      final var e = parent_entries.get(name);
+      if (e != null) {
+        final var sb = new StringBuilder(256);
+        sb.append(
+          "Directory already contains an entry for the given name.");
+        sb.append(System.lineSeparator());
+        sb.append("  Directory: ");
+        sb.append(parent);
+        sb.append(System.lineSeparator());
+        sb.append("  Name: ");
+        sb.append(name);
+        sb.append(System.lineSeparator());
+        sb.append("  Node: ");
+        sb.append(e.getTarget());
+        sb.append(System.lineSeparator());
+        final var m = sb.toString();
+        throw new CatalogNodeDuplicateDirectoryEntryException(m);
       }
     }
 
@@ -386,7 +517,9 @@ public final class CatalogDisk
           new AsUnmodifiableGraph<>(this.graph),
           this.root,
           new CatalogDiskMetadata(
-            this.disk_name, this.type, this.index, this.size));
+            this.disk_name, this.type, this.index, this.size),
+          Collections.unmodifiableMap(this.parents),
+          Collections.unmodifiableMap(this.entries));
       } finally {
         this.finished = true;
       }
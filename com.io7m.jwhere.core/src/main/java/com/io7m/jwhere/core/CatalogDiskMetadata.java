@@ -20,7 +20,10 @@ import java.math.BigInteger;
 import java.util.Objects;
 
 /**
- * Disk metadata.
+ * <p>Disk metadata.</p>
+ *
+ * <p>The disk size is held as a {@code long}, falling back to a
+ * {@link BigInteger} only for sizes that do not fit.</p>
  */
 
 public final class CatalogDiskMetadata
@@ -28,7 +31,8 @@ public final class CatalogDiskMetadata
   private final CatalogDiskName disk_name;
   private final String fs_type;
   private final CatalogDiskID index;
-  private final BigInteger size;
+  private final long size_value;
+  private final BigInteger size_large;
 
   /**
    * Disk metadata.
@@ -48,7 +52,37 @@ public final class CatalogDiskMetadata
     this.disk_name = Objects.requireNonNull(in_disk_name, "in_disk_name");
     this.fs_type = Objects.requireNonNull(in_fs_type, "in_fs_type");
     this.index = Objects.requireNonNull(in_index, "in_index");
-    this.size = Objects.requireNonNull(in_size, "in_size");
+    Objects.requireNonNull(in_size, "in_size");
+
+    if (in_size.bitLength() < 64) {
+      this.size_value = in_size.longValue();
+      this.size_large = null;
+    } else {
+      this.size_value = 0L;
+      this.size_large = in_size;
+    }
+  }
+
+  /**
+   * Disk metadata.
+   *
+   * @param in_disk_name The disk name
+   * @param in_fs_type   The disk filesystem type
+   * @param in_index     The disk ID
+   * @param in_size      The disk size
+   */
+
+  public CatalogDiskMetadata(
+    final CatalogDiskName in_disk_name,
+    final String in_fs_type,
+    final CatalogDiskID in_index,
+    final long in_size)
+  {
+    this.disk_name = Objects.requireNonNull(in_disk_name, "in_disk_name");
+    this.fs_type = Objects.requireNonNull(in_fs_type, "in_fs_type");
+    this.index = Objects.requireNonNull(in_index, "in_index");
+    this.size_value = in_size;
+    this.size_large = null;
   }
 
   /**
@@ -83,7 +117,8 @@ public final class CatalogDiskMetadata
     return this.disk_name.equals(that.disk_name)
       && this.fs_type.equals(that.fs_type)
       && this.index.equals(that.index)
-      && this.getSize().equals(that.getSize());
+      && this.size_value == that.size_value
+      && Objects.equals(this.size_large, that.size_large);
   }
 
   @Override
@@ -93,7 +128,7 @@ public final class CatalogDiskMetadata
     sb.append("disk_name=").append(this.disk_name);
     sb.append(", fs_type='").append(this.fs_type).append('\'');
     sb.append(", index=").append(this.index);
-    sb.append(", size=").append(this.size);
+    sb.append(", size=").append(this.getSize());
     sb.append('}');
     return sb.toString();
   }
@@ -104,7 +139,8 @@ public final class CatalogDiskMetadata
     var result = this.disk_name.hashCode();
     result = 31 * result + this.fs_type.hashCode();
     result = 31 * result + this.index.hashCode();
-    result = 31 * result + this.getSize().hashCode();
+    result = 31 * result + Long.hashCode(this.size_value);
+    result = 31 * result + Objects.hashCode(this.size_large);
     return result;
   }
 
@@ -123,6 +159,23 @@ public final class CatalogDiskMetadata
 
   public BigInteger getSize()
   {
-    return this.size;
+    if (this.size_large != null) {
+      return this.size_large;
+    }
+    return BigInteger.valueOf(this.size_value);
+  }
+
+  /**
+   * @return The disk size
+   *
+   * @throws ArithmeticException If the size cannot be represented as a {@code long}
+   */
+
+  public long getSizeLongExact()
+  {
+    if (this.size_large != null) {
+      throw new ArithmeticException("Disk size does not fit into a long");
+    }
+    return this.size_value;
   }
 }
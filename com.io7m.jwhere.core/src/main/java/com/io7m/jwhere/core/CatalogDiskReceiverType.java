@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import java.io.IOException;
+
+/**
+ * <p>The type of receivers of the nodes of a disk, delivered in depth-first
+ * order as the disk is scanned.</p>
+ *
+ * <p>A disk is delivered as a call to {@link #onDiskStarted(CatalogDiskMetadata)}, followed by
+ * the events for the root directory, followed by a call to {@link #onDiskFinished()}. The events
+ * for a directory are a call to {@link #onDirectoryEntered(String, CatalogDirectoryNode)},
+ * followed by the events for each of its entries in order, followed by a call to
+ * {@link #onDirectoryLeft(CatalogDirectoryNode)}. The events for a file are a single call to
+ * {@link #onFile(String, CatalogFileNode)}. Methods are called on a single thread.</p>
+ *
+ * @see CatalogFilesystemReader#streamDisk(CatalogDiskName, CatalogDiskID, java.nio.file.Path,
+ * CatalogScanSettings, CatalogScanContext, CatalogDiskReceiverType)
+ */
+
+public interface CatalogDiskReceiverType
+{
+  /**
+   * A disk has started.
+   *
+   * @param meta The disk metadata
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void onDiskStarted(CatalogDiskMetadata meta)
+    throws IOException;
+
+  /**
+   * A directory has been entered.
+   *
+   * @param name      The name of the directory entry, or {@code /} for the root directory
+   * @param directory The directory
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void onDirectoryEntered(
+    String name,
+    CatalogDirectoryNode directory)
+    throws IOException;
+
+  /**
+   * A file has been scanned.
+   *
+   * @param name The name of the directory entry
+   * @param file The file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void onFile(
+    String name,
+    CatalogFileNode file)
+    throws IOException;
+
+  /**
+   * All entries of a directory have been delivered.
+   *
+   * @param directory The directory
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void onDirectoryLeft(CatalogDirectoryNode directory)
+    throws IOException;
+
+  /**
+   * The disk has finished.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void onDiskFinished()
+    throws IOException;
+}
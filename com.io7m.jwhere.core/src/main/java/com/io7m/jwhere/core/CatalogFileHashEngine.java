@@ -0,0 +1,637 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>A file hashing engine that reads files through {@link FileChannel}
+ * instances.</p>
+ *
+ * <p>Each thread that uses an engine is given its own direct buffer and
+ * hash functions, which are reused for every file that the thread hashes.
+ * Files at or above {@link CatalogFileHashEngineSettings#mapThreshold()} bytes
+ * are mapped into memory in windows of at most
+ * {@link CatalogFileHashEngineSettings#mapWindowSize()} bytes instead of being
+ * copied through the buffer. Files on filesystems that cannot map files are
+ * always read through the buffer. Any number of hashes may be produced from
+ * a single read of a file with {@link #hashAll(List, Path)}.</p>
+ *
+ * <p>Every block of data read, whether through the buffer or through a
+ * mapping, is first accounted for by the engine's {@link CatalogIOThrottle},
+ * so that the rate at which files are read can be limited. The time spent
+ * reading each block, and the time spent digesting it, are recorded in the
+ * engine's {@link CatalogScanProgress}. Mapped blocks are paged in before
+ * they are digested so that the two can be told apart.</p>
+ *
+ * <p>The chunks of tree-structured algorithms are digested in parallel. When
+ * called from within a {@link java.util.concurrent.ForkJoinPool}, the chunks
+ * are digested on that pool; otherwise they are digested on the common
+ * pool.</p>
+ *
+ * <p>The SHA-256 hashes produced are identical to those produced by
+ * {@link CatalogFileHashes#fromFileWithDigest(java.security.MessageDigest, Path)}.</p>
+ */
+
+@ThreadSafe
+public final class CatalogFileHashEngine
+{
+  private static final int PAGE_SIZE = 4096;
+
+  private final CatalogFileHashEngineSettings settings;
+  private final CatalogIOThrottle throttle;
+  private final CatalogScanProgress progress;
+  private final ThreadLocal<State> states;
+
+  private CatalogFileHashEngine(
+    final CatalogFileHashEngineSettings in_settings,
+    final CatalogIOThrottle in_throttle,
+    final CatalogScanProgress in_progress)
+  {
+    this.settings = Objects.requireNonNull(in_settings, "settings");
+    this.throttle = Objects.requireNonNull(in_throttle, "throttle");
+    this.progress = Objects.requireNonNull(in_progress, "progress");
+    this.states = ThreadLocal.withInitial(
+      () -> new State(this.settings.bufferSize()));
+  }
+
+  /**
+   * @return A new engine with default settings
+   */
+
+  public static CatalogFileHashEngine create()
+  {
+    return create(CatalogFileHashEngineSettings.builder().build());
+  }
+
+  /**
+   * @param settings The engine settings
+   *
+   * @return A new engine
+   */
+
+  public static CatalogFileHashEngine create(
+    final CatalogFileHashEngineSettings settings)
+  {
+    return create(settings, CatalogIOThrottle.unlimited());
+  }
+
+  /**
+   * @param settings The engine settings
+   * @param throttle The throttle through which all reads are made
+   *
+   * @return A new engine
+   */
+
+  public static CatalogFileHashEngine create(
+    final CatalogFileHashEngineSettings settings,
+    final CatalogIOThrottle throttle)
+  {
+    return create(settings, throttle, CatalogScanProgress.create());
+  }
+
+  /**
+   * @param settings The engine settings
+   * @param throttle The throttle through which all reads are made
+   * @param progress The progress in which reads are recorded
+   *
+   * @return A new engine
+   */
+
+  public static CatalogFileHashEngine create(
+    final CatalogFileHashEngineSettings settings,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress)
+  {
+    return new CatalogFileHashEngine(settings, throttle, progress);
+  }
+
+  /**
+   * @return The engine settings
+   */
+
+  public CatalogFileHashEngineSettings settings()
+  {
+    return this.settings;
+  }
+
+  /**
+   * @return The throttle through which all reads are made
+   */
+
+  public CatalogIOThrottle throttle()
+  {
+    return this.throttle;
+  }
+
+  /**
+   * @return The progress in which reads are recorded
+   */
+
+  public CatalogScanProgress progress()
+  {
+    return this.progress;
+  }
+
+  /**
+   * Produce a SHA-256 hash from the given file.
+   *
+   * @param file The file
+   *
+   * @return A hash value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public CatalogFileHash hash(final Path file)
+    throws IOException
+  {
+    return this.hash(CatalogHashAlgorithms.SHA_256, file);
+  }
+
+  /**
+   * Produce a hash from the given file using the given algorithm.
+   *
+   * @param algorithm The hash algorithm
+   * @param file      The file
+   *
+   * @return A hash value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public CatalogFileHash hash(
+    final CatalogHashAlgorithmType algorithm,
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(algorithm, "algorithm");
+    return this.hashAll(List.of(algorithm), file).get(0);
+  }
+
+  /**
+   * Produce hashes from the given file using each of the given algorithms.
+   * The file is read once, and each block of data read is passed to every
+   * algorithm in turn. Sampled algorithms instead read only the blocks of the
+   * file that they sample, and tree-structured algorithms read each of their
+   * chunks separately and in parallel.
+   *
+   * @param algorithms The hash algorithms, which must be distinct
+   * @param file       The file
+   *
+   * @return A hash value for each algorithm, in the order given
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public List<CatalogFileHash> hashAll(
+    final List<CatalogHashAlgorithmType> algorithms,
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(algorithms, "algorithms");
+    Objects.requireNonNull(file, "file");
+
+    Preconditions.checkPreconditionV(
+      !algorithms.isEmpty(), "At least one algorithm must be specified");
+
+    final var state = this.states.get();
+    final var functions = new CatalogHashFunctionType[algorithms.size()];
+    for (var index = 0; index < functions.length; ++index) {
+      final var function = state.function(algorithms.get(index));
+      for (var previous = 0; previous < index; ++previous) {
+        Preconditions.checkPreconditionV(
+          functions[previous] != function,
+          "Algorithm %s must not be specified more than once",
+          algorithms.get(index).name());
+      }
+      functions[index] = function;
+      function.reset();
+    }
+
+    final var full = new ArrayList<CatalogHashFunctionType>(functions.length);
+    for (var index = 0; index < functions.length; ++index) {
+      if (isReadInFull(algorithms.get(index))) {
+        full.add(functions[index]);
+      }
+    }
+    final var full_functions = full.toArray(new CatalogHashFunctionType[0]);
+
+    /*
+     * Each digest is taken as soon as its function is complete. Digesting the
+     * chunks of a tree-structured algorithm may cause this thread to execute
+     * other tasks in the same pool, and those tasks may use this thread's
+     * functions.
+     */
+
+    final var digests = new byte[functions.length][];
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final var size = channel.size();
+      if (full_functions.length > 0) {
+        if (size < this.settings.mapThreshold()
+          || !this.hashMapped(full_functions, channel, size)) {
+          resetAll(full_functions);
+          channel.position(0L);
+          hashBuffered(
+            full_functions, channel, state.buffer, this.throttle, this.progress);
+        }
+        for (var index = 0; index < functions.length; ++index) {
+          if (isReadInFull(algorithms.get(index))) {
+            digests[index] = functions[index].digest();
+          }
+        }
+      }
+
+      for (var index = 0; index < functions.length; ++index) {
+        final var sampling_opt = algorithms.get(index).sampling();
+        if (sampling_opt.isPresent()) {
+          hashSampled(
+            functions[index],
+            sampling_opt.get(),
+            channel,
+            size,
+            state.buffer,
+            this.throttle,
+            this.progress);
+          digests[index] = functions[index].digest();
+        }
+      }
+
+      for (var index = 0; index < functions.length; ++index) {
+        final var algorithm = algorithms.get(index);
+        final var tree_opt = algorithm.tree();
+        if (tree_opt.isPresent()) {
+          digests[index] =
+            this.hashTree(algorithm, tree_opt.get(), channel, size);
+        }
+      }
+    } catch (final IOException e) {
+      resetAll(functions);
+      throw e;
+    }
+
+    final var results = new ArrayList<CatalogFileHash>(functions.length);
+    for (var index = 0; index < functions.length; ++index) {
+      results.add(
+        CatalogFileHash.builder()
+          .setAlgorithm(algorithms.get(index).name())
+          .setBytes(digests[index])
+          .build());
+    }
+    return results;
+  }
+
+  private static boolean isReadInFull(
+    final CatalogHashAlgorithmType algorithm)
+  {
+    return algorithm.sampling().isEmpty() && algorithm.tree().isEmpty();
+  }
+
+  /*
+   * A tree hash is the digest of the size of the file followed by the digest
+   * of each chunk in order. The chunks are digested with fresh functions and
+   * positional reads, so any number of chunks of the same channel may be
+   * digested at once.
+   */
+
+  private byte[] hashTree(
+    final CatalogHashAlgorithmType algorithm,
+    final CatalogHashTree tree,
+    final FileChannel channel,
+    final long size)
+    throws IOException
+  {
+    final var count = tree.chunkCount(size);
+    if (count > (long) (Integer.MAX_VALUE - 8)) {
+      throw new IOException(
+        String.format(
+          "File of size %d has too many chunks for algorithm %s",
+          Long.valueOf(size),
+          algorithm.name()));
+    }
+
+    final var chunks = new byte[(int) count][];
+    try {
+      ForkJoinTask.invokeAll(
+        new ChunkTask(algorithm, tree, channel, size, chunks, 0, chunks.length));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    final var function = algorithm.create();
+    function.update(ByteBuffer.allocate(8).putLong(0, size));
+    for (final var chunk : chunks) {
+      function.update(ByteBuffer.wrap(chunk));
+    }
+    return function.digest();
+  }
+
+  /*
+   * A sampled hash is keyed on the size of the file, so that files that
+   * differ only in size (such as truncated copies) produce different hashes.
+   */
+
+  private static void hashSampled(
+    final CatalogHashFunctionType function,
+    final CatalogHashSampling sampling,
+    final FileChannel channel,
+    final long size,
+    final ByteBuffer buffer,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress)
+    throws IOException
+  {
+    function.update(ByteBuffer.allocate(8).putLong(0, size));
+
+    if (sampling.isDigestedInFull(size)) {
+      channel.position(0L);
+      hashBuffered(
+        new CatalogHashFunctionType[]{function},
+        channel,
+        buffer,
+        throttle,
+        progress);
+      return;
+    }
+
+    final var blocks = sampling.interiorBlocks() + 2;
+    for (var block = 0; block < blocks; ++block) {
+      hashRegion(
+        function,
+        channel,
+        sampling.blockOffset(size, block),
+        sampling.blockSize(),
+        buffer,
+        throttle,
+        progress);
+    }
+  }
+
+  private static void hashRegion(
+    final CatalogHashFunctionType function,
+    final FileChannel channel,
+    final long offset,
+    final long length,
+    final ByteBuffer buffer,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress)
+    throws IOException
+  {
+    final var end = offset + length;
+    var position = offset;
+    while (position < end) {
+      buffer.clear();
+      buffer.limit((int) Math.min((long) buffer.capacity(), end - position));
+      final var time_read = System.nanoTime();
+      final var r = channel.read(buffer, position);
+      if (r == -1) {
+        break;
+      }
+      progress.onRead((long) r, System.nanoTime() - time_read);
+      throttle.acquireBytes((long) r);
+      buffer.flip();
+      final var time_digest = System.nanoTime();
+      function.update(buffer);
+      progress.onDigest(System.nanoTime() - time_digest);
+      position += (long) r;
+    }
+  }
+
+  private static void resetAll(final CatalogHashFunctionType[] functions)
+  {
+    for (final var function : functions) {
+      function.reset();
+    }
+  }
+
+  private static void updateAll(
+    final CatalogHashFunctionType[] functions,
+    final ByteBuffer data)
+  {
+    final var start = data.position();
+    for (final var function : functions) {
+      data.position(start);
+      function.update(data);
+    }
+  }
+
+  private static void hashBuffered(
+    final CatalogHashFunctionType[] functions,
+    final FileChannel channel,
+    final ByteBuffer buffer,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress)
+    throws IOException
+  {
+    while (true) {
+      buffer.clear();
+      final var time_read = System.nanoTime();
+      final var r = channel.read(buffer);
+      if (r == -1) {
+        break;
+      }
+      progress.onRead((long) r, System.nanoTime() - time_read);
+      throttle.acquireBytes((long) r);
+      buffer.flip();
+      final var time_digest = System.nanoTime();
+      updateAll(functions, buffer);
+      progress.onDigest(System.nanoTime() - time_digest);
+    }
+  }
+
+  private boolean hashMapped(
+    final CatalogHashFunctionType[] functions,
+    final FileChannel channel,
+    final long size)
+    throws IOException
+  {
+    final var window = this.settings.mapWindowSize();
+
+    var position = 0L;
+    while (position < size) {
+      final var length = Math.min(window, size - position);
+      final ByteBuffer mapped;
+      try {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      } catch (final UnsupportedOperationException e) {
+        return false;
+      }
+      this.updateMapped(functions, mapped);
+      position += length;
+    }
+
+    /*
+     * The file may have grown since its size was taken; hash the remainder
+     * so that the result matches a read to the end of the file.
+     */
+
+    channel.position(size);
+    final var state = this.states.get();
+    hashBuffered(
+      functions, channel, state.buffer, this.throttle, this.progress);
+    return true;
+  }
+
+  /*
+   * Mapped data is read from the file as it is digested, so the mapping is
+   * digested in slices no larger than the buffer in order that each slice
+   * can be accounted for by the throttle before it is read. Each slice is
+   * paged in by touching one byte of each page before it is digested, so
+   * that the time spent reading it is not mistaken for time spent digesting
+   * it.
+   */
+
+  private void updateMapped(
+    final CatalogHashFunctionType[] functions,
+    final ByteBuffer mapped)
+    throws IOException
+  {
+    final var state = this.states.get();
+    final var limit = mapped.limit();
+    final var step = (long) this.settings.bufferSize();
+    var offset = 0;
+    while (offset < limit) {
+      final var end = (int) Math.min((long) limit, (long) offset + step);
+      this.throttle.acquireBytes((long) (end - offset));
+      mapped.limit(end);
+
+      final var time_read = System.nanoTime();
+      for (var page = offset; page < end; page += PAGE_SIZE) {
+        state.touched += mapped.get(page);
+      }
+      final var time_digest = System.nanoTime();
+      this.progress.onRead((long) (end - offset), time_digest - time_read);
+
+      mapped.position(offset);
+      updateAll(functions, mapped);
+      this.progress.onDigest(System.nanoTime() - time_digest);
+      offset = end;
+    }
+  }
+
+  private final class ChunkTask extends RecursiveAction
+  {
+    private final CatalogHashAlgorithmType algorithm;
+    private final CatalogHashTree tree;
+    private final FileChannel channel;
+    private final long size;
+    private final byte[][] chunks;
+    private final int lower;
+    private final int upper;
+
+    ChunkTask(
+      final CatalogHashAlgorithmType in_algorithm,
+      final CatalogHashTree in_tree,
+      final FileChannel in_channel,
+      final long in_size,
+      final byte[][] in_chunks,
+      final int in_lower,
+      final int in_upper)
+    {
+      this.algorithm = in_algorithm;
+      this.tree = in_tree;
+      this.channel = in_channel;
+      this.size = in_size;
+      this.chunks = in_chunks;
+      this.lower = in_lower;
+      this.upper = in_upper;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.upper - this.lower > 1) {
+        final var middle = (this.lower + this.upper) >>> 1;
+        ForkJoinTask.invokeAll(
+          new ChunkTask(
+            this.algorithm,
+            this.tree,
+            this.channel,
+            this.size,
+            this.chunks,
+            this.lower,
+            middle),
+          new ChunkTask(
+            this.algorithm,
+            this.tree,
+            this.channel,
+            this.size,
+            this.chunks,
+            middle,
+            this.upper));
+        return;
+      }
+
+      if (this.upper == this.lower) {
+        return;
+      }
+
+      final var chunk_size = this.tree.chunkSize();
+      final var offset = (long) this.lower * chunk_size;
+      final var function = this.algorithm.create();
+      try {
+        hashRegion(
+          function,
+          this.channel,
+          offset,
+          Math.min(chunk_size, this.size - offset),
+          CatalogFileHashEngine.this.states.get().buffer,
+          CatalogFileHashEngine.this.throttle,
+          CatalogFileHashEngine.this.progress);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      this.chunks[this.lower] = function.digest();
+    }
+  }
+
+  private static final class State
+  {
+    private final ByteBuffer buffer;
+    private final Map<String, CatalogHashFunctionType> functions;
+    private int touched;
+
+    State(final int size)
+    {
+      this.buffer = ByteBuffer.allocateDirect(size);
+      this.functions = new HashMap<>(4);
+    }
+
+    CatalogHashFunctionType function(
+      final CatalogHashAlgorithmType algorithm)
+    {
+      return this.functions.computeIfAbsent(
+        algorithm.name(), name -> algorithm.create());
+    }
+  }
+}
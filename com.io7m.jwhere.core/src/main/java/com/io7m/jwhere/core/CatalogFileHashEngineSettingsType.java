@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * Settings for a file hashing engine.
+ *
+ * @see CatalogFileHashEngine
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogFileHashEngineSettingsType
+{
+  /**
+   * @return The size in bytes of the direct buffer allocated for each hashing
+   * thread
+   */
+
+  @Value.Default
+  default int bufferSize()
+  {
+    return 1024 * 1024;
+  }
+
+  /**
+   * @return The size in bytes at or above which files are hashed by mapping
+   * them into memory rather than reading them into a buffer
+   */
+
+  @Value.Default
+  default long mapThreshold()
+  {
+    return 64L * 1024L * 1024L;
+  }
+
+  /**
+   * @return The maximum size in bytes of each region of a file mapped into
+   * memory at any one time
+   */
+
+  @Value.Default
+  default long mapWindowSize()
+  {
+    return 64L * 1024L * 1024L;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionI(
+      this.bufferSize(),
+      this.bufferSize() >= 1,
+      i -> "Buffer size must be positive");
+    Preconditions.checkPreconditionL(
+      this.mapThreshold(),
+      this.mapThreshold() >= 1L,
+      x -> "Map threshold must be positive");
+    Preconditions.checkPreconditionL(
+      this.mapWindowSize(),
+      this.mapWindowSize() >= 1L && this.mapWindowSize() <= (long) Integer.MAX_VALUE,
+      x -> "Map window size must be in the range [1, 2147483647]");
+  }
+}
@@ -18,10 +18,14 @@
 package com.io7m.jwhere.core;
 
 import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.apache.commons.codec.binary.Hex;
 import org.immutables.value.Value;
 
 /**
- * A hash value.
+ * <p>A hash value.</p>
+ *
+ * <p>The digest is held as raw bytes; the hexadecimal form is produced only
+ * on request for serialization and display.</p>
  */
 
 @ImmutablesStyleType
@@ -35,8 +39,26 @@ public interface CatalogFileHashType
   String algorithm();
 
   /**
-   * @return The hash value
+   * @return The raw hash value
+   */
+
+  byte[] bytes();
+
+  /**
+   * @return The hash value as an uppercase hexadecimal string
+   */
+
+  default String value()
+  {
+    return Hex.encodeHexString(this.bytes(), false);
+  }
+
+  /**
+   * @return A humanly-readable form of the hash, such as {@code SHA-256:9F86D0...}
    */
 
-  String value();
+  default String show()
+  {
+    return this.algorithm() + ":" + this.value();
+  }
 }
@@ -16,14 +16,14 @@
 
 package com.io7m.jwhere.core;
 
-import com.io7m.junreachable.UnreachableCodeException;
+import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /**
  * Functions to construct file hashes.
@@ -31,13 +31,17 @@ import java.security.NoSuchAlgorithmException;
 
 public final class CatalogFileHashes
 {
+  private static final CatalogFileHashEngine ENGINE =
+    CatalogFileHashEngine.create();
+
   private CatalogFileHashes()
   {
 
   }
 
   /**
-   * Produce a hash from the given file.
+   * Produce a hash from the given file using a shared
+   * {@link CatalogFileHashEngine} with default settings.
    *
    * @param file The file
    *
@@ -49,11 +53,48 @@ public final class CatalogFileHashes
   public static CatalogFileHash fromFile(final Path file)
     throws IOException
   {
-    try {
-      return fromFileWithDigest(MessageDigest.getInstance("SHA-256"), file);
-    } catch (final NoSuchAlgorithmException e) {
-      throw new UnreachableCodeException(e);
-    }
+    return ENGINE.hash(file);
+  }
+
+  /**
+   * Produce a hash from the given file with the given algorithm, using a
+   * shared {@link CatalogFileHashEngine} with default settings.
+   *
+   * @param algorithm The hash algorithm
+   * @param file      The file
+   *
+   * @return A hash value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CatalogFileHash fromFile(
+    final CatalogHashAlgorithmType algorithm,
+    final Path file)
+    throws IOException
+  {
+    return ENGINE.hash(algorithm, file);
+  }
+
+  /**
+   * Produce hashes from the given file with each of the given algorithms in a
+   * single read of the file, using a shared {@link CatalogFileHashEngine} with
+   * default settings.
+   *
+   * @param algorithms The hash algorithms, which must be distinct
+   * @param file       The file
+   *
+   * @return A hash value for each algorithm, in the order given
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static List<CatalogFileHash> fromFile(
+    final List<CatalogHashAlgorithmType> algorithms,
+    final Path file)
+    throws IOException
+  {
+    return ENGINE.hashAll(algorithms, file);
   }
 
   /**
@@ -84,10 +125,34 @@ public final class CatalogFileHashes
       }
     }
 
-    final var hex = Hex.encodeHexString(md.digest()).toUpperCase();
     return CatalogFileHash.builder()
       .setAlgorithm(md.getAlgorithm())
-      .setValue(hex)
+      .setBytes(md.digest())
       .build();
   }
+
+  /**
+   * Produce a hash from a hexadecimal string.
+   *
+   * @param algorithm The hash algorithm
+   * @param hex       The hexadecimal hash value
+   *
+   * @return A hash value
+   *
+   * @throws IllegalArgumentException If {@code hex} is not a valid hexadecimal string
+   */
+
+  public static CatalogFileHash fromHex(
+    final String algorithm,
+    final String hex)
+  {
+    try {
+      return CatalogFileHash.builder()
+        .setAlgorithm(algorithm)
+        .setBytes(Hex.decodeHex(hex))
+        .build();
+    } catch (final DecoderException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
 }
@@ -23,6 +23,10 @@ import org.immutables.value.Value;
 import java.math.BigInteger;
 import java.nio.file.attribute.PosixFilePermission;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -38,7 +42,42 @@ public interface CatalogFileNodeType extends CatalogNodeType
    * @return The size of the file in bytes
    */
 
-  BigInteger size();
+  default BigInteger size()
+  {
+    final var large = this.sizeLarge();
+    if (large.isPresent()) {
+      return large.get();
+    }
+    return BigInteger.valueOf(this.sizeValue());
+  }
+
+  /**
+   * @return The low 64 bits of the size of the file in bytes; the entire
+   * size unless {@link #sizeLarge()} is present
+   */
+
+  long sizeValue();
+
+  /**
+   * @return The size of the file in bytes, if it cannot be represented as a
+   * {@code long}
+   */
+
+  Optional<BigInteger> sizeLarge();
+
+  /**
+   * @return The size of the file in bytes as a {@code long}
+   *
+   * @throws ArithmeticException If the size cannot be represented as a {@code long}
+   */
+
+  default long sizeLongExact()
+  {
+    if (this.sizeLarge().isPresent()) {
+      throw new ArithmeticException("File size does not fit into a long");
+    }
+    return this.sizeValue();
+  }
 
   /**
    * @return The last access time of the directory
@@ -62,11 +101,18 @@ public interface CatalogFileNodeType extends CatalogNodeType
   String group();
 
   /**
-   * @return The filesystem ID value
+   * @return The low 64 bits of the filesystem ID value
+   */
+
+  @Override
+  long idValue();
+
+  /**
+   * @return The filesystem ID value, if it cannot be represented as a {@code long}
    */
 
   @Override
-  BigInteger id();
+  Optional<BigInteger> idLarge();
 
   /**
    * @return The last modification time of the directory
@@ -95,6 +141,49 @@ public interface CatalogFileNodeType extends CatalogNodeType
 
   Optional<CatalogFileHash> hash();
 
+  /**
+   * @return Hashes of the file made with algorithms other than that of
+   * {@link #hash()}
+   */
+
+  List<CatalogFileHash> additionalHashes();
+
+  /**
+   * @return The file hash followed by any additional hashes
+   */
+
+  default List<CatalogFileHash> hashes()
+  {
+    final var hash_opt = this.hash();
+    if (hash_opt.isEmpty()) {
+      return List.of();
+    }
+
+    final var additional = this.additionalHashes();
+    final var results = new ArrayList<CatalogFileHash>(1 + additional.size());
+    results.add(hash_opt.get());
+    results.addAll(additional);
+    return results;
+  }
+
+  /**
+   * @param algorithm The name of a hash algorithm
+   *
+   * @return The hash of the file made with the given algorithm, if any
+   */
+
+  default Optional<CatalogFileHash> hashFor(final String algorithm)
+  {
+    Objects.requireNonNull(algorithm, "algorithm");
+
+    for (final var hash : this.hashes()) {
+      if (hash.algorithm().equals(algorithm)) {
+        return Optional.of(hash);
+      }
+    }
+    return Optional.empty();
+  }
+
   @Override
   default <A, E extends Exception> A matchNode(
     final CatalogNodeMatcherType<A, E> m)
@@ -118,5 +207,27 @@ public interface CatalogFileNodeType extends CatalogNodeType
       this.owner(),
       !this.owner().isEmpty(),
       g -> "Owner name cannot be empty");
+    Preconditions.checkPrecondition(
+      this.idLarge(),
+      CatalogNodeType.isCanonicalValue(this.idValue(), this.idLarge()),
+      i -> "Large ID values must not fit into a long, and must match idValue()");
+    Preconditions.checkPrecondition(
+      this.sizeLarge(),
+      CatalogNodeType.isCanonicalValue(this.sizeValue(), this.sizeLarge()),
+      i -> "Large sizes must not fit into a long, and must match sizeValue()");
+
+    final var additional = this.additionalHashes();
+    Preconditions.checkPrecondition(
+      additional,
+      additional.isEmpty() || this.hash().isPresent(),
+      h -> "Additional hashes require a file hash");
+
+    final var algorithms = new HashSet<String>(additional.size() + 1);
+    for (final var hash : this.hashes()) {
+      Preconditions.checkPrecondition(
+        hash.algorithm(),
+        algorithms.add(hash.algorithm()),
+        a -> "Hash algorithms must be unique");
+    }
   }
 }
@@ -22,29 +22,42 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.math.BigInteger;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
-import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Functions for producing {@link CatalogDisk} values from existing directories.
@@ -82,49 +95,591 @@ public final class CatalogFilesystemReader
     final CatalogDiskID index,
     final Path root)
     throws IOException, CatalogException
+  {
+    return newDisk(
+      disk_name,
+      index,
+      root,
+      CatalogScanSettings.builder().build(),
+      CatalogScanContext.builder().build());
+  }
+
+  /**
+   * <p>Construct a new disk from the given directory. The directory is assumed to represent a
+   * single mounted filesystem. Names, owners, and groups are deduplicated using the string pool
+   * of the given context, every file read and every filesystem operation is made through the
+   * throttle of the given context, and the progress of the scan is recorded in the progress
+   * record of the given context.</p>
+   *
+   * <p>Files are hashed with the algorithm named by {@link CatalogScanSettings#hashAlgorithm()}.
+   * If {@link CatalogScanSettings#additionalHashAlgorithms()} is not empty, the additional hashes
+   * are produced from the same read of each file.</p>
+   *
+   * <p>If {@link CatalogScanSettings#hashThreads()} is greater than {@code 1}, files are hashed
+   * on a pool of threads while the filesystem walk continues. At most
+   * {@link CatalogScanSettings#hashQueueCapacity()} files may be waiting to be hashed at any one
+   * time. Nodes are added to the disk in the order in which they were walked, so the resulting
+   * disk is identical to one produced with a single thread.</p>
+   *
+   * <p>If {@link CatalogScanSettings#traversalThreads()} is greater than {@code 1}, sibling
+   * directories are scanned concurrently on a fork/join pool. Scanned directories are added to
+   * the disk as they complete, and at most {@link CatalogScanSettings#traversalQueueCapacity()}
+   * directories may be waiting to be added at any one time. The resulting disk is, again,
+   * identical to one produced by the sequential walker.</p>
+   *
+   * @param disk_name The disk name
+   * @param index     The disk ID
+   * @param root      The root directory
+   * @param settings  The scan settings
+   * @param context   The scan context
+   *
+   * @return A new disk
+   *
+   * @throws IOException      On I/O errors
+   * @throws CatalogException On other catalog-related errors
+   */
+
+  public static CatalogDisk newDisk(
+    final CatalogDiskName disk_name,
+    final CatalogDiskID index,
+    final Path root,
+    final CatalogScanSettings settings,
+    final CatalogScanContext context)
+    throws IOException, CatalogException
   {
     Objects.requireNonNull(disk_name, "disk_name");
     Objects.requireNonNull(index, "index");
     Objects.requireNonNull(root, "root");
+    Objects.requireNonNull(settings, "settings");
+    Objects.requireNonNull(context, "context");
+
+    final var strings = context.strings();
+    final var throttle = context.throttle();
+    final var progress = context.progress();
+    progress.onStarted();
 
     LOG.debug(
       "creating new disk \"{}\" index {} for root {}", disk_name, index, root);
 
+    final var engine =
+      CatalogFileHashEngine.create(settings.hashEngine(), throttle, progress);
+    final var algorithms = hashAlgorithms(settings);
+    return scan(
+      disk_name,
+      index,
+      root,
+      strings,
+      settings,
+      throttle,
+      progress,
+      (file, attrs) -> hashFile(engine, algorithms, file));
+  }
+
+  /**
+   * <p>Count the directories, files, and bytes in the given directory without reading any
+   * files. This is much cheaper than a scan, and allows the progress of a subsequent scan or
+   * verification of the same directory to be estimated.</p>
+   *
+   * <p>Filesystem operations wait for the operation budget of the given throttle, but are not
+   * recorded in its {@link CatalogIOThrottle#throughput() throughput}, so that the throughput
+   * reported for the subsequent scan describes the scan alone.</p>
+   *
+   * @param root     The root directory
+   * @param throttle The I/O throttle
+   *
+   * @return The estimated size of the directory
+   *
+   * @throws IOException On I/O errors
+   * @see CatalogScanProgress#setEstimate(CatalogScanEstimate)
+   */
+
+  public static CatalogScanEstimate estimate(
+    final Path root,
+    final CatalogIOThrottle throttle)
+    throws IOException
+  {
+    Objects.requireNonNull(root, "root");
+    Objects.requireNonNull(throttle, "throttle");
+
+    final var directories = new AtomicLong(0L);
+    final var files = new AtomicLong(0L);
+    final var bytes = new AtomicLong(0L);
+
+    Files.walkFileTree(
+      root,
+      EnumSet.noneOf(FileVisitOption.class),
+      Integer.MAX_VALUE,
+      new SimpleFileVisitor<>()
+      {
+        @Override
+        public FileVisitResult preVisitDirectory(
+          final Path dir,
+          final BasicFileAttributes attrs)
+          throws IOException
+        {
+          throttle.acquireOperationsUnrecorded(2L);
+          directories.incrementAndGet();
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(
+          final Path file,
+          final BasicFileAttributes attrs)
+          throws IOException
+        {
+          throttle.acquireOperationsUnrecorded(1L);
+          if (attrs.isRegularFile()) {
+            files.incrementAndGet();
+            bytes.addAndGet(attrs.size());
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+
+    return CatalogScanEstimate.builder()
+      .setDirectories(directories.get())
+      .setFiles(files.get())
+      .setBytes(bytes.get())
+      .build();
+  }
+
+  /**
+   * <p>Scan the given directory as with
+   * {@link #newDisk(CatalogDiskName, CatalogDiskID, Path, CatalogScanSettings,
+   * CatalogScanContext)}, but rather than constructing a disk, deliver each node to the given
+   * receiver in depth-first order as soon as it has been scanned and hashed. The nodes delivered
+   * are identical (including their IDs) to those of the disk that {@code newDisk} would have
+   * produced, and arrive in the same order in which a serializer would visit that disk.</p>
+   *
+   * <p>Nodes are not retained once they have been delivered, so memory use does not grow with
+   * the size of the disk. When {@link CatalogScanSettings#traversalThreads()} is greater than
+   * {@code 1}, at most {@link CatalogScanSettings#traversalQueueCapacity()} scanned directories
+   * are held waiting to be delivered at any one time.</p>
+   *
+   * @param disk_name The disk name
+   * @param index     The disk ID
+   * @param root      The root directory
+   * @param settings  The scan settings
+   * @param context   The scan context
+   * @param receiver  The receiver of scanned nodes
+   *
+   * @throws IOException      On I/O errors
+   * @throws CatalogException On other catalog-related errors
+   * @see CatalogJSONStreamWriter
+   */
+
+  public static void streamDisk(
+    final CatalogDiskName disk_name,
+    final CatalogDiskID index,
+    final Path root,
+    final CatalogScanSettings settings,
+    final CatalogScanContext context,
+    final CatalogDiskReceiverType receiver)
+    throws IOException, CatalogException
+  {
+    Objects.requireNonNull(disk_name, "disk_name");
+    Objects.requireNonNull(index, "index");
+    Objects.requireNonNull(root, "root");
+    Objects.requireNonNull(settings, "settings");
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var strings = context.strings();
+    final var throttle = context.throttle();
+    final var progress = context.progress();
+    progress.onStarted();
+
+    LOG.debug(
+      "streaming new disk \"{}\" index {} for root {}", disk_name, index, root);
+
+    final var engine =
+      CatalogFileHashEngine.create(settings.hashEngine(), throttle, progress);
+    final var algorithms = hashAlgorithms(settings);
+
+    final var store = Files.getFileStore(root);
+    receiver.onDiskStarted(
+      new CatalogDiskMetadata(
+        disk_name,
+        store.type(),
+        index,
+        BigInteger.valueOf(store.getTotalSpace())));
+
+    final var id_pool = new AtomicLong(0L);
+    throttle.acquireOperations(1L);
+    final var root_dir =
+      onDirectory(strings, id_pool, root);
+
+    final var sink = new StreamingSink(receiver, root_dir);
+    walk(
+      root,
+      strings,
+      settings,
+      throttle,
+      progress,
+      (file, attrs) -> hashFile(engine, algorithms, file),
+      id_pool,
+      root_dir,
+      sink);
+    sink.finish();
+    receiver.onDiskFinished();
+  }
+
+  /**
+   * Rescan the given directory, producing a new version of an existing disk.
+   *
+   * @param previous The existing disk
+   * @param root     The root directory
+   *
+   * @return The updated disk and hash statistics
+   *
+   * @throws IOException      On I/O errors
+   * @throws CatalogException On other catalog-related errors
+   * @see #updateDisk(CatalogDisk, Path, CatalogScanSettings, CatalogScanContext)
+   */
+
+  public static CatalogDiskUpdate updateDisk(
+    final CatalogDisk previous,
+    final Path root)
+    throws IOException, CatalogException
+  {
+    return updateDisk(
+      previous,
+      root,
+      CatalogScanSettings.builder().build(),
+      CatalogScanContext.builder().build());
+  }
+
+  /**
+   * <p>Rescan the given directory, producing a new version of an existing disk. The new disk
+   * has the same name and ID as the existing disk.</p>
+   *
+   * <p>A file that appears at the same path in the existing disk, and whose size, modification
+   * time, and creation time are unchanged, is assumed to have unchanged contents and is given the
+   * hashes recorded in the existing disk instead of being read, provided that the existing disk
+   * holds a hash for every algorithm named by {@link CatalogScanSettings#hashAlgorithms()}. All
+   * other files are hashed as they would be by
+   * {@link #newDisk(CatalogDiskName, CatalogDiskID, Path, CatalogScanSettings,
+   * CatalogScanContext)}.</p>
+   *
+   * @param previous The existing disk
+   * @param root     The root directory
+   * @param settings The scan settings
+   * @param context  The scan context
+   *
+   * @return The updated disk and hash statistics
+   *
+   * @throws IOException      On I/O errors
+   * @throws CatalogException On other catalog-related errors
+   */
+
+  public static CatalogDiskUpdate updateDisk(
+    final CatalogDisk previous,
+    final Path root,
+    final CatalogScanSettings settings,
+    final CatalogScanContext context)
+    throws IOException, CatalogException
+  {
+    Objects.requireNonNull(previous, "previous");
+    Objects.requireNonNull(root, "root");
+    Objects.requireNonNull(settings, "settings");
+    Objects.requireNonNull(context, "context");
+
+    final var strings = context.strings();
+    final var throttle = context.throttle();
+    final var progress = context.progress();
+    progress.onStarted();
+
+    final var meta = previous.getMeta();
+    LOG.debug(
+      "updating disk \"{}\" index {} for root {}",
+      meta.getDiskName(),
+      meta.getDiskID(),
+      root);
+
+    final var engine =
+      CatalogFileHashEngine.create(settings.hashEngine(), throttle, progress);
+    final var hasher =
+      new ReusingHasher(previous, root, engine, hashAlgorithms(settings));
+    final var disk = scan(
+      meta.getDiskName(),
+      meta.getDiskID(),
+      root,
+      strings,
+      settings,
+      throttle,
+      progress,
+      hasher);
+
+    return CatalogDiskUpdate.builder()
+      .setDisk(disk)
+      .setHashesReused(hasher.reused.sum())
+      .setHashesComputed(hasher.computed.sum())
+      .build();
+  }
+
+  private static List<CatalogHashAlgorithmType> hashAlgorithms(
+    final CatalogScanSettings settings)
+  {
+    final var names = settings.hashAlgorithms();
+    final var results = new ArrayList<CatalogHashAlgorithmType>(names.size());
+    for (final var name : names) {
+      results.add(
+        CatalogHashAlgorithms.forName(name)
+          .orElseThrow(UnreachableCodeException::new));
+    }
+    return results;
+  }
+
+  private static List<CatalogFileHash> hashFile(
+    final CatalogFileHashEngine engine,
+    final List<CatalogHashAlgorithmType> algorithms,
+    final Path file)
+    throws IOException
+  {
+    LOG.debug("hashing {}", file);
+    return engine.hashAll(algorithms, file);
+  }
+
+  /*
+   * The first hash produced by a hasher is the file hash; the rest are
+   * additional hashes.
+   */
+
+  private static CatalogFileNode.Builder setHashes(
+    final CatalogFileNode.Builder builder,
+    final List<CatalogFileHash> hashes)
+  {
+    return builder
+      .setHash(hashes.get(0))
+      .setAdditionalHashes(hashes.subList(1, hashes.size()));
+  }
+
+  private static CatalogDisk scan(
+    final CatalogDiskName disk_name,
+    final CatalogDiskID index,
+    final Path root,
+    final CatalogStringPool strings,
+    final CatalogScanSettings settings,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress,
+    final FileHasherType hasher)
+    throws IOException, CatalogException
+  {
     final var store = Files.getFileStore(root);
     final var size = BigInteger.valueOf(store.getTotalSpace());
     final var fs_type = store.type();
 
-    final var id_pool =
-      new AtomicReference<>(BigInteger.ZERO);
+    final var id_pool = new AtomicLong(0L);
+    throttle.acquireOperations(1L);
     final var root_dir =
-      onDirectory(id_pool, root);
+      onDirectory(strings, id_pool, root);
 
     final var db =
       CatalogDisk.newDiskBuilder(root_dir, disk_name, fs_type, index, size);
 
+    walk(
+      root,
+      strings,
+      settings,
+      throttle,
+      progress,
+      hasher,
+      id_pool,
+      root_dir,
+      db::addNode);
+    return db.build();
+  }
+
+  private static void walk(
+    final Path root,
+    final CatalogStringPool strings,
+    final CatalogScanSettings settings,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress,
+    final FileHasherType hasher,
+    final AtomicLong id_pool,
+    final CatalogDirectoryNode root_dir,
+    final NodeSinkType sink)
+    throws IOException, CatalogException
+  {
+    final var journal_opt = settings.journal();
+    if (journal_opt.isEmpty()) {
+      walkWith(
+        root,
+        strings,
+        settings,
+        throttle,
+        progress,
+        hasher,
+        id_pool,
+        root_dir,
+        sink);
+      return;
+    }
+
+    try (var journal = CatalogScanJournal.open(
+      journal_opt.get(), settings.checkpointInterval(), settings.resume())) {
+      LOG.debug(
+        "journaling to {} ({} files resumed)",
+        journal_opt.get(),
+        Long.valueOf(journal.resumedCount()));
+      walkWith(
+        root,
+        strings,
+        settings,
+        throttle,
+        progress,
+        new JournalingHasher(root, journal, settings.hashAlgorithms(), hasher),
+        id_pool,
+        root_dir,
+        sink);
+    }
+  }
+
+  private static void walkWith(
+    final Path root,
+    final CatalogStringPool strings,
+    final CatalogScanSettings settings,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress,
+    final FileHasherType hasher,
+    final AtomicLong id_pool,
+    final CatalogDirectoryNode root_dir,
+    final NodeSinkType sink)
+    throws IOException, CatalogException
+  {
+    if (settings.traversalThreads() > 1) {
+      scanParallel(
+        root,
+        strings,
+        throttle,
+        progress,
+        hasher,
+        id_pool,
+        sink,
+        root_dir,
+        settings);
+      return;
+    }
+
     final Deque<CatalogDirectoryNode> dirs = new LinkedList<>();
     dirs.push(root_dir);
 
+    final ExecutorService hash_exec;
+    if (settings.hashThreads() > 1) {
+      hash_exec = Executors.newFixedThreadPool(
+        settings.hashThreads(), CatalogFilesystemReader::newHashThread);
+    } else {
+      hash_exec = null;
+    }
+
+    final var creator =
+      new DiskCreator(
+        root,
+        dirs,
+        strings,
+        throttle,
+        progress,
+        hasher,
+        id_pool,
+        sink,
+        hash_exec,
+        settings.hashQueueCapacity());
+
     try {
       Files.walkFileTree(
         root,
         EnumSet.noneOf(FileVisitOption.class),
         Integer.MAX_VALUE,
-        new DiskCreator(root, dirs, id_pool, db));
+        creator);
 
-      return db.build();
+      creator.finish();
     } catch (final IOException e) {
       if (e.getCause() instanceof CatalogException) {
         throw (CatalogException) e.getCause();
       } else {
         throw e;
       }
+    } finally {
+      creator.cancel();
+      if (hash_exec != null) {
+        hash_exec.shutdownNow();
+      }
     }
   }
 
+  /*
+   * Each directory is listed, and its files examined and hashed, by a task
+   * running on a fork/join pool. The calling thread delivers the results to
+   * the sink as they complete, in the same depth-first order (and therefore
+   * with the same node IDs) as the sequential walker. When the
+   * calling thread enters a directory, scans of that directory's
+   * subdirectories are queued ahead of everything else so that they are
+   * scanned in the order in which they will be attached. At most
+   * traversalQueueCapacity() scans are submitted but not yet attached at any
+   * one time, so memory use does not grow with the size of the tree.
+   */
+
+  private static void scanParallel(
+    final Path root,
+    final CatalogStringPool strings,
+    final CatalogIOThrottle throttle,
+    final CatalogScanProgress progress,
+    final FileHasherType hasher,
+    final AtomicLong id_pool,
+    final NodeSinkType sink,
+    final CatalogDirectoryNode root_dir,
+    final CatalogScanSettings settings)
+    throws IOException, CatalogException
+  {
+    final var pool = new ForkJoinPool(settings.traversalThreads());
+    try {
+      new ParallelScan(
+        pool,
+        strings,
+        throttle,
+        progress,
+        hasher,
+        id_pool,
+        sink,
+        settings.traversalQueueCapacity())
+        .run(root, root_dir);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static Thread newHashThread(final Runnable r)
+  {
+    final var th = new Thread(r);
+    th.setName("com.io7m.jwhere.hash-" + th.getId());
+    th.setDaemon(true);
+    return th;
+  }
+
+  private static Thread newVerifyThread(final Runnable r)
+  {
+    final var th = new Thread(r);
+    th.setName("com.io7m.jwhere.verify-" + th.getId());
+    th.setDaemon(true);
+    return th;
+  }
+
   /**
-   * Verify a disk by walking a filesystem and checking that all files exist, no extra files exist,
-   * and that each file matches that given in the given disk catalog.
+   * <p>Verify a disk by walking a filesystem and checking that all files exist, no extra files
+   * exist, and that each file matches that given in the given disk catalog. Each file is hashed
+   * with the cheapest of the algorithms recorded for it in the catalog; sampled algorithms are
+   * preferred or avoided according to {@link CatalogVerificationReportSettings#hashMode()}. If
+   * the hash mode is {@link CatalogVerificationHashMode#METADATA_ONLY}, files are not hashed
+   * at all, and are compared only by size, timestamps, ownership, and permissions.</p>
+   *
+   * <p>If {@link CatalogVerificationReportSettings#verificationThreads()} is greater than
+   * {@code 1}, files are hashed and compared on a pool of threads while the filesystem walk
+   * continues. At most {@link CatalogVerificationReportSettings#verificationQueueCapacity()} files
+   * may be waiting to be verified at any one time. Results are delivered to the listener under
+   * the contract described by {@link CatalogVerificationListenerType}. Vanished items are
+   * reported only once every file has been verified.</p>
    *
    * @param d        The disk to be verified
    * @param settings The report settings
@@ -140,11 +695,43 @@ public final class CatalogFilesystemReader
     final Path root,
     final CatalogVerificationListenerType listener)
     throws IOException
+  {
+    verifyDisk(d, settings, root, listener, CatalogScanContext.builder().build());
+  }
+
+  /**
+   * Verify a disk, as with
+   * {@link #verifyDisk(CatalogDisk, CatalogVerificationReportSettings, Path,
+   * CatalogVerificationListenerType)}. Every file read and every filesystem operation is made
+   * through the throttle of the given context, and the progress of the verification is recorded
+   * in the progress record of the given context.
+   *
+   * @param d        The disk
+   * @param settings The verification settings
+   * @param root     The root directory
+   * @param listener The verification listener
+   * @param context  The scan context
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void verifyDisk(
+    final CatalogDisk d,
+    final CatalogVerificationReportSettings settings,
+    final Path root,
+    final CatalogVerificationListenerType listener,
+    final CatalogScanContext context)
+    throws IOException
   {
     Objects.requireNonNull(d, "disk");
     Objects.requireNonNull(settings, "settings");
     Objects.requireNonNull(root, "root");
     Objects.requireNonNull(listener, "listener");
+    Objects.requireNonNull(context, "context");
+
+    final var throttle = context.throttle();
+    final var progress = context.progress();
+    progress.onStarted();
 
     final var meta = d.getMeta();
     LOG.debug(
@@ -153,28 +740,53 @@ public final class CatalogFilesystemReader
       meta.getDiskID(),
       root);
 
-    final var id_pool =
-      new AtomicReference<>(BigInteger.ZERO);
+    final var id_pool = new AtomicLong(0L);
 
-    final var logging_listener = new LoggingListener(d, listener);
+    final var logging_listener = new LoggingListener(listener);
 
-    Files.walkFileTree(
-      root,
-      EnumSet.noneOf(FileVisitOption.class),
-      Integer.MAX_VALUE,
-      new VerifyingPathVisitor(root, d, logging_listener, id_pool, settings));
+    final ExecutorService verify_exec;
+    if (settings.verificationThreads() > 1) {
+      verify_exec = Executors.newFixedThreadPool(
+        settings.verificationThreads(), CatalogFilesystemReader::newVerifyThread);
+    } else {
+      verify_exec = null;
+    }
+
+    final var visitor =
+      new VerifyingPathVisitor(
+        root,
+        d,
+        logging_listener,
+        context.strings(),
+        id_pool,
+        settings,
+        CatalogFileHashEngine.create(settings.hashEngine(), throttle, progress),
+        verify_exec);
 
-    final var g =
-      d.getFilesystemGraph();
-    for (final var v : g.vertexSet()) {
-      final var p = d.getPathForNode(v);
-      final var q = stringListToPath(root, p);
+    try {
+      Files.walkFileTree(
+        root,
+        EnumSet.noneOf(FileVisitOption.class),
+        Integer.MAX_VALUE,
+        visitor);
 
-      if (!logging_listener.pathIsReferenced(q)) {
-        listener.onItemError(CatalogVerificationVanishedItem.builder().setPath(q).build());
+      visitor.finish();
+    } finally {
+      visitor.cancel();
+      if (verify_exec != null) {
+        verify_exec.shutdownNow();
       }
     }
 
+    d.forEachPath((v, p) -> {
+      if (!visitor.visited.contains(v)) {
+        listener.onItemError(
+          CatalogVerificationVanishedItem.builder()
+            .setPath(stringListToPath(root, p))
+            .build());
+      }
+    });
+
     listener.onCompleted();
   }
 
@@ -183,8 +795,9 @@ public final class CatalogFilesystemReader
     final Path path,
     final CatalogNodeType node,
     final CatalogNodeType node_now,
-    final LoggingListener rb)
+    final LoggingListener listener)
   {
+    final var rb = new ItemResults(path);
     if (!node.getClass().equals(node_now.getClass())) {
       rb.onItemError(new CatalogVerificationChangedType(path, node, node_now));
     }
@@ -192,10 +805,30 @@ public final class CatalogFilesystemReader
     compareNodeOwnership(path, node, node_now, rb);
     compareNodeTimes(
       settings, path, node, node_now, rb);
+    compareNodeSizes(path, node, node_now, rb);
     compareNodeHashes(path, node, node_now, rb);
 
-    if (!rb.pathIsReferenced(path)) {
-      rb.onItemVerified(CatalogVerificationOKItem.builder().setPath(path).build());
+    listener.deliver(rb);
+  }
+
+  private static void compareNodeSizes(
+    final Path path,
+    final CatalogNodeType node,
+    final CatalogNodeType node_now,
+    final ItemResults rb)
+  {
+    if (node instanceof CatalogFileNodeType && node_now instanceof CatalogFileNodeType) {
+      final var then_size = ((CatalogFileNodeType) node).size();
+      final var curr_size = ((CatalogFileNodeType) node_now).size();
+      if (!then_size.equals(curr_size)) {
+        rb.onItemError(
+          CatalogVerificationChangedMetadata.builder()
+            .setField(CatalogVerificationMetadataField.SIZE)
+            .setPath(path)
+            .setValueThen(then_size.toString())
+            .setValueNow(curr_size.toString())
+            .build());
+      }
     }
   }
 
@@ -203,7 +836,7 @@ public final class CatalogFilesystemReader
     final Path path,
     final CatalogNodeType node,
     final CatalogNodeType node_now,
-    final LoggingListener rb)
+    final ItemResults rb)
   {
     node.matchNode(new CompareNodeHashesMatcher(node_now, rb, path));
   }
@@ -213,7 +846,7 @@ public final class CatalogFilesystemReader
     final Path path,
     final CatalogNodeType node,
     final CatalogNodeType node_now,
-    final LoggingListener rb)
+    final ItemResults rb)
   {
     if (settings.ignoreAccessTime() == CatalogIgnoreAccessTime.DO_NOT_IGNORE_ACCESS_TIME) {
       final var then_atime = node.accessTime();
@@ -258,7 +891,7 @@ public final class CatalogFilesystemReader
     final Path path,
     final CatalogNodeType node,
     final CatalogNodeType node_now,
-    final LoggingListener rb)
+    final ItemResults rb)
   {
     if (!node.owner().equals(node_now.owner())) {
       rb.onItemError(
@@ -283,7 +916,7 @@ public final class CatalogFilesystemReader
     if (!node.permissions().equals(node_now.permissions())) {
       rb.onItemError(
         CatalogVerificationChangedMetadata.builder()
-          .setField(CatalogVerificationMetadataField.OWNER)
+          .setField(CatalogVerificationMetadataField.PERMISSIONS)
           .setPath(path)
           .setValueThen(PosixFilePermissions.toString(node.permissions()))
           .setValueNow(PosixFilePermissions.toString(node_now.permissions()))
@@ -291,16 +924,6 @@ public final class CatalogFilesystemReader
     }
   }
 
-  private static List<String> pathToStringList(final Path file)
-  {
-    final List<String> xs = new ArrayList<>(16);
-    final var iter = file.iterator();
-    while (iter.hasNext()) {
-      xs.add(iter.next().toString());
-    }
-    return xs;
-  }
-
   private static Path stringListToPath(
     final Path root,
     final List<String> file)
@@ -314,154 +937,245 @@ public final class CatalogFilesystemReader
   }
 
   private static CatalogFileNode onFile(
-    final AtomicReference<BigInteger> id_pool,
+    final CatalogStringPool strings,
+    final AtomicLong id_pool,
+    final CatalogFileHashEngine engine,
+    final CatalogHashAlgorithmType algorithm,
     final Path file)
     throws IOException
   {
-    final BigInteger size;
-    final Set<PosixFilePermission> perms;
-    final String owner;
-    final String group;
-    final Instant a_time;
-    final Instant c_time;
-    final Instant m_time;
+    final var builder = onFileMetadata(strings, file);
+    LOG.debug("hashing {}", file);
+    return builder
+      .setIdValue(id_pool.incrementAndGet())
+      .setHash(engine.hash(algorithm, file))
+      .build();
+  }
+
+  /*
+   * Files are verified using the cheapest of the algorithms with which they
+   * were originally hashed, considering only the sampled or only the full
+   * hashes where the file has both.
+   */
+
+  private static CatalogHashAlgorithmType recordedHashAlgorithm(
+    final CatalogVerificationHashMode mode,
+    final CatalogNodeType node)
+    throws IOException
+  {
+    if (node instanceof CatalogFileNodeType) {
+      final var hashes = ((CatalogFileNodeType) node).hashes();
+      if (!hashes.isEmpty()) {
+        final var sampled = new ArrayList<CatalogFileHash>(hashes.size());
+        final var full = new ArrayList<CatalogFileHash>(hashes.size());
+        for (final var hash : hashes) {
+          final var algorithm_opt = CatalogHashAlgorithms.forName(hash.algorithm());
+          if (algorithm_opt.isPresent() && algorithm_opt.get().sampling().isPresent()) {
+            sampled.add(hash);
+          } else {
+            full.add(hash);
+          }
+        }
+
+        final List<CatalogFileHash> preferred;
+        final List<CatalogFileHash> fallback;
+        switch (mode) {
+          case PREFER_SAMPLED_HASH: {
+            preferred = sampled;
+            fallback = full;
+            break;
+          }
+          case PREFER_FULL_HASH: {
+            preferred = full;
+            fallback = sampled;
+            break;
+          }
+          case METADATA_ONLY:
+          default: {
+            throw new UnreachableCodeException();
+          }
+        }
+
+        var hash_opt = CatalogHashAlgorithms.cheapest(preferred);
+        if (hash_opt.isEmpty()) {
+          hash_opt = CatalogHashAlgorithms.cheapest(fallback);
+        }
+        if (hash_opt.isEmpty()) {
+          throw new IOException(
+            "Unsupported hash algorithm: " + hashes.get(0).algorithm());
+        }
+        return CatalogHashAlgorithms.forName(hash_opt.get().algorithm())
+          .orElseThrow(UnreachableCodeException::new);
+      }
+    }
+    return CatalogHashAlgorithms.SHA_256;
+  }
 
+  private static BasicFileAttributes readAttributes(
+    final Path path)
+    throws IOException
+  {
     final var posix_view = Files.getFileAttributeView(
-      file, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+      path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
 
     if (posix_view != null) {
-      final var attribs = posix_view.readAttributes();
-      size = BigInteger.valueOf(attribs.size());
-      owner = attribs.owner().getName();
-      group = attribs.group().getName();
-      perms = attribs.permissions();
-      a_time = attribs.lastAccessTime().toInstant();
-      m_time = attribs.lastModifiedTime().toInstant();
-      c_time = attribs.creationTime().toInstant();
-    } else {
-      final var basic_view = Files.getFileAttributeView(
-        file, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
-
-      if (basic_view != null) {
-        final var attribs = basic_view.readAttributes();
-        owner = "nobody";
-        group = "nobody";
-        size = BigInteger.valueOf(attribs.size());
-        perms = EnumSet.noneOf(PosixFilePermission.class);
-        a_time = attribs.lastAccessTime().toInstant();
-        m_time = attribs.lastModifiedTime().toInstant();
-        c_time = attribs.creationTime().toInstant();
-      } else {
-        throw new UnreachableCodeException();
-      }
+      return posix_view.readAttributes();
     }
 
-    LOG.debug("hashing {}", file);
-    final var hash = CatalogFileHashes.fromFile(file);
+    final var basic_view = Files.getFileAttributeView(
+      path, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+
+    if (basic_view != null) {
+      return basic_view.readAttributes();
+    }
+
+    throw new UnreachableCodeException();
+  }
+
+  private static CatalogFileNode.Builder onFileMetadata(
+    final CatalogStringPool strings,
+    final Path file)
+    throws IOException
+  {
+    return onFileMetadata(strings, readAttributes(file));
+  }
+
+  private static CatalogFileNode.Builder onFileMetadata(
+    final CatalogStringPool strings,
+    final BasicFileAttributes attribs)
+  {
+    final String owner;
+    final String group;
+    final Set<PosixFilePermission> perms;
+
+    if (attribs instanceof PosixFileAttributes) {
+      final var posix = (PosixFileAttributes) attribs;
+      owner = strings.intern(posix.owner().getName());
+      group = strings.intern(posix.group().getName());
+      perms = posix.permissions();
+    } else {
+      owner = "nobody";
+      group = "nobody";
+      perms = EnumSet.noneOf(PosixFilePermission.class);
+    }
 
     return CatalogFileNode.builder()
       .setPermissions(perms)
       .setOwner(owner)
       .setGroup(group)
-      .setId(id_pool.updateAndGet(x -> x.add(BigInteger.ONE)))
-      .setAccessTime(a_time)
-      .setCreationTime(c_time)
-      .setModificationTime(m_time)
-      .setSize(size)
-      .setHash(hash)
-      .build();
+      .setAccessTime(attribs.lastAccessTime().toInstant())
+      .setCreationTime(attribs.creationTime().toInstant())
+      .setModificationTime(attribs.lastModifiedTime().toInstant())
+      .setSizeValue(attribs.size());
   }
 
   private static CatalogDirectoryNode onDirectory(
-    final AtomicReference<BigInteger> id_pool,
+    final CatalogStringPool strings,
+    final AtomicLong id_pool,
     final Path root)
     throws IOException
   {
-    final Set<PosixFilePermission> perms;
+    return onDirectoryMetadata(strings, readAttributes(root))
+      .setIdValue(id_pool.incrementAndGet())
+      .build();
+  }
+
+  private static CatalogDirectoryNode.Builder onDirectoryMetadata(
+    final CatalogStringPool strings,
+    final BasicFileAttributes attribs)
+  {
     final String owner;
     final String group;
-    final Instant a_time;
-    final Instant c_time;
-    final Instant m_time;
-
-    final var posix_view = Files.getFileAttributeView(
-      root, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+    final Set<PosixFilePermission> perms;
 
-    if (posix_view != null) {
-      final var attribs = posix_view.readAttributes();
-      owner = attribs.owner().getName();
-      group = attribs.group().getName();
-      perms = attribs.permissions();
-      a_time = attribs.lastAccessTime().toInstant();
-      m_time = attribs.lastModifiedTime().toInstant();
-      c_time = attribs.creationTime().toInstant();
+    if (attribs instanceof PosixFileAttributes) {
+      final var posix = (PosixFileAttributes) attribs;
+      owner = strings.intern(posix.owner().getName());
+      group = strings.intern(posix.group().getName());
+      perms = posix.permissions();
     } else {
-      final var basic_view = Files.getFileAttributeView(
-        root, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
-
-      if (basic_view != null) {
-        final var attribs = basic_view.readAttributes();
-        owner = "nobody";
-        group = "nobody";
-        perms = EnumSet.noneOf(PosixFilePermission.class);
-        a_time = attribs.lastAccessTime().toInstant();
-        m_time = attribs.lastModifiedTime().toInstant();
-        c_time = attribs.creationTime().toInstant();
-      } else {
-        throw new UnreachableCodeException();
-      }
+      owner = "nobody";
+      group = "nobody";
+      perms = EnumSet.noneOf(PosixFilePermission.class);
     }
 
     return CatalogDirectoryNode.builder()
       .setPermissions(perms)
       .setOwner(owner)
       .setGroup(group)
-      .setId(id_pool.updateAndGet(x -> x.add(BigInteger.ONE)))
-      .setAccessTime(a_time)
-      .setCreationTime(c_time)
-      .setModificationTime(m_time)
-      .build();
+      .setAccessTime(attribs.lastAccessTime().toInstant())
+      .setCreationTime(attribs.creationTime().toInstant())
+      .setModificationTime(attribs.lastModifiedTime().toInstant());
   }
 
+  /**
+   * A listener whose methods are all synchronized, so that results produced
+   * on verification threads are delivered to the delegate one at a time.
+   */
+
   private static final class LoggingListener
     implements CatalogVerificationListenerType
   {
-    private final Set<Path> reported_paths;
     private final CatalogVerificationListenerType delegate;
 
     LoggingListener(
-      final CatalogDisk in_disk,
       final CatalogVerificationListenerType in_delegate)
     {
-      Objects.requireNonNull(in_disk, "in_disk");
       this.delegate = Objects.requireNonNull(in_delegate, "in_delegate");
-      this.reported_paths =
-        new HashSet<>(in_disk.getFilesystemGraph().vertexSet().size());
     }
 
     @Override
-    public void onItemVerified(final CatalogVerificationReportItemOKType ok)
+    public synchronized void onItemVerified(
+      final CatalogVerificationReportItemOKType ok)
     {
-      this.reported_paths.add(ok.path());
       this.delegate.onItemVerified(ok);
     }
 
     @Override
-    public void onItemError(final CatalogVerificationReportItemErrorType error)
+    public synchronized void onItemError(
+      final CatalogVerificationReportItemErrorType error)
     {
-      this.reported_paths.add(error.path());
       this.delegate.onItemError(error);
     }
 
     @Override
-    public void onCompleted()
+    public synchronized void onCompleted()
     {
       this.delegate.onCompleted();
     }
 
-    boolean pathIsReferenced(final Path p)
+    synchronized void deliver(final ItemResults results)
+    {
+      if (results.errors.isEmpty()) {
+        this.onItemVerified(
+          CatalogVerificationOKItem.builder().setPath(results.path).build());
+      } else {
+        for (final var error : results.errors) {
+          this.onItemError(error);
+        }
+      }
+    }
+  }
+
+  /**
+   * The results of comparing a single item, collected so that they can be
+   * delivered together.
+   */
+
+  private static final class ItemResults
+  {
+    private final Path path;
+    private final List<CatalogVerificationReportItemErrorType> errors;
+
+    ItemResults(final Path in_path)
+    {
+      this.path = Objects.requireNonNull(in_path, "path");
+      this.errors = new ArrayList<>(4);
+    }
+
+    void onItemError(final CatalogVerificationReportItemErrorType error)
     {
-      return this.reported_paths.contains(Objects.requireNonNull(p, "p"));
+      this.errors.add(error);
     }
   }
 
@@ -469,12 +1183,12 @@ public final class CatalogFilesystemReader
     implements CatalogNodeMatcherType<Void, UnreachableCodeException>
   {
     private final CatalogNodeType node_now;
-    private final LoggingListener listener;
+    private final ItemResults listener;
     private final Path path;
 
     CompareNodeHashesMatcher(
       final CatalogNodeType in_node_now,
-      final LoggingListener in_listener,
+      final ItemResults in_listener,
       final Path in_path)
     {
       this.node_now = in_node_now;
@@ -487,8 +1201,13 @@ public final class CatalogFilesystemReader
     {
       if (this.node_now instanceof CatalogFileNode) {
         final var file_now = (CatalogFileNode) this.node_now;
-        final var then_opt = file_then.hash();
         final var now_opt = file_now.hash();
+        if (now_opt.isEmpty()) {
+          return null;
+        }
+
+        final var then_opt =
+          file_then.hashFor(now_opt.get().algorithm());
 
         if (then_opt.isPresent()) {
           final var hash_then = then_opt.get();
@@ -519,21 +1238,142 @@ public final class CatalogFilesystemReader
     private final Path root;
     private final CatalogDisk disk;
     private final LoggingListener logging_listener;
-    private final AtomicReference<BigInteger> id_pool;
+    private final CatalogStringPool strings;
+    private final AtomicLong id_pool;
     private final CatalogVerificationReportSettings settings;
+    private final CatalogFileHashEngine engine;
+    private final ExecutorService verify_exec;
+    private final Deque<Future<Void>> pending;
+    private final Deque<CatalogDirectoryNodeType> directories;
+
+    /*
+     * The catalog nodes found by the walk. Any node not in this set once the
+     * walk has completed has vanished. Nodes are distinct objects, so an
+     * identity set avoids hashing their contents.
+     */
+
+    private final Set<CatalogNodeType> visited;
 
     VerifyingPathVisitor(
       final Path in_root,
       final CatalogDisk in_disk,
       final LoggingListener in_logging_listener,
-      final AtomicReference<BigInteger> in_id_pool,
-      final CatalogVerificationReportSettings in_settings)
+      final CatalogStringPool in_strings,
+      final AtomicLong in_id_pool,
+      final CatalogVerificationReportSettings in_settings,
+      final CatalogFileHashEngine in_engine,
+      final ExecutorService in_verify_exec)
     {
       this.root = in_root;
       this.disk = in_disk;
       this.logging_listener = in_logging_listener;
+      this.strings = in_strings;
       this.id_pool = in_id_pool;
       this.settings = in_settings;
+      this.engine = in_engine;
+      this.verify_exec = in_verify_exec;
+      this.pending = new ArrayDeque<>(in_settings.verificationQueueCapacity());
+      this.directories = new ArrayDeque<>(16);
+      this.visited = Collections.newSetFromMap(
+        new IdentityHashMap<>(in_disk.getFilesystemGraph().vertexSet().size()));
+    }
+
+    /*
+     * When verifying in parallel, the walk looks up each file in the catalog
+     * and queues the hashing and comparison of the file. The queue is
+     * bounded; a full queue causes the walk to wait for the oldest file to
+     * be verified.
+     */
+
+    private void enqueue(final Future<Void> f)
+      throws IOException
+    {
+      while (this.pending.size() >= this.settings.verificationQueueCapacity()) {
+        this.completeOldest();
+      }
+      this.pending.add(f);
+      this.engine.progress().setQueueDepth((long) this.pending.size());
+    }
+
+    private void completeOldest()
+      throws IOException
+    {
+      try {
+        final var f = this.pending.remove();
+        this.engine.progress().setQueueDepth((long) this.pending.size());
+        f.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for verification");
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+
+    void finish()
+      throws IOException
+    {
+      while (!this.pending.isEmpty()) {
+        this.completeOldest();
+      }
+    }
+
+    void cancel()
+    {
+      for (final var f : this.pending) {
+        f.cancel(true);
+      }
+      this.pending.clear();
+    }
+
+    private Void verifyFile(
+      final Path file,
+      final BasicFileAttributes attrs,
+      final Path path_rel,
+      final CatalogNodeType node)
+      throws IOException
+    {
+      final var node_now =
+        onFile(
+          this.strings,
+          this.id_pool,
+          this.engine,
+          recordedHashAlgorithm(this.settings.hashMode(), node),
+          file);
+
+      compareNodes(
+        this.settings, path_rel, node, node_now, this.logging_listener);
+      this.onFileCompleted(attrs);
+      return null;
+    }
+
+    private void onFileCompleted(final BasicFileAttributes attrs)
+    {
+      if (attrs.isRegularFile()) {
+        this.engine.progress().onFile(attrs.size());
+      }
+    }
+
+    /*
+     * The walk keeps a stack of the catalog directories that correspond to
+     * the directories being walked, so that each item is found with a single
+     * lookup in its parent directory. Directories that are not in the
+     * catalog, or that are files in the catalog, are never pushed; their
+     * contents are skipped.
+     */
+
+    private Optional<CatalogNodeType> lookup(final Path path)
+    {
+      if (path.equals(this.root)) {
+        return Optional.of(this.disk.getFilesystemRoot());
+      }
+
+      final var parent = this.directories.peek();
+      return this.disk.getNodeForEntry(parent, path.getFileName().toString());
     }
 
     @Override
@@ -545,33 +1385,30 @@ public final class CatalogFilesystemReader
       LOG.debug(
         "preVisitDirectory: {}", dir);
 
+      this.engine.throttle().acquireOperations(2L);
+      this.engine.progress().onDirectory();
       final var path_rel = this.root.relativize(dir);
-
-      final var path =
-        pathToStringList(path_rel);
-      LOG.debug("path: {}", path);
-
-      final Optional<CatalogNodeType> node_opt;
-      if (dir.equals(this.root)) {
-        node_opt = Optional.of(this.disk.getFilesystemRoot());
-      } else {
-        node_opt = this.disk.getNodeForPath(path);
-      }
+      final var node_opt = this.lookup(dir);
 
       if (node_opt.isEmpty()) {
         this.logging_listener.onItemError(CatalogVerificationUncataloguedItem.builder().setPath(
           path_rel).build());
-        return FileVisitResult.CONTINUE;
+        return FileVisitResult.SKIP_SUBTREE;
       }
 
       final var node = node_opt.get();
+      this.visited.add(node);
       final var node_now =
-        onDirectory(this.id_pool, dir);
+        onDirectory(this.strings, this.id_pool, dir);
 
       compareNodes(
         this.settings, path_rel, node, node_now, this.logging_listener);
 
-      return FileVisitResult.CONTINUE;
+      if (node instanceof CatalogDirectoryNodeType) {
+        this.directories.push((CatalogDirectoryNodeType) node);
+        return FileVisitResult.CONTINUE;
+      }
+      return FileVisitResult.SKIP_SUBTREE;
     }
 
     @Override
@@ -581,25 +1418,34 @@ public final class CatalogFilesystemReader
       throws IOException
     {
       final var path_rel = this.root.relativize(file);
+      LOG.debug("path: {}", path_rel);
 
-      final var path =
-        pathToStringList(path_rel);
-      LOG.debug("path: {}", path);
-
-      final var node_opt = this.disk.getNodeForPath(path);
+      this.engine.throttle().acquireOperations(1L);
+      final var node_opt = this.lookup(file);
 
       if (node_opt.isEmpty()) {
         this.logging_listener.onItemError(CatalogVerificationUncataloguedItem.builder().setPath(
           path_rel).build());
+        this.onFileCompleted(attrs);
         return FileVisitResult.CONTINUE;
       }
 
       final var node = node_opt.get();
-      final var node_now =
-        onFile(this.id_pool, file);
-
-      compareNodes(
-        this.settings, path_rel, node, node_now, this.logging_listener);
+      this.visited.add(node);
+      if (this.settings.hashMode() == CatalogVerificationHashMode.METADATA_ONLY) {
+        final var node_now =
+          onFileMetadata(this.strings, file)
+            .setIdValue(this.id_pool.incrementAndGet())
+            .build();
+        compareNodes(
+          this.settings, path_rel, node, node_now, this.logging_listener);
+        this.onFileCompleted(attrs);
+      } else if (this.verify_exec == null) {
+        this.verifyFile(file, attrs, path_rel, node);
+      } else {
+        this.enqueue(
+          this.verify_exec.submit(() -> this.verifyFile(file, attrs, path_rel, node)));
+      }
 
       return FileVisitResult.CONTINUE;
     }
@@ -621,6 +1467,9 @@ public final class CatalogFilesystemReader
     {
       LOG.debug(
         "postVisitDirectory: {}", dir);
+
+      Preconditions.checkPreconditionV(!this.directories.isEmpty(), "Must have directories");
+      this.directories.pop();
       return FileVisitResult.CONTINUE;
     }
   }
@@ -629,19 +1478,117 @@ public final class CatalogFilesystemReader
   {
     private final Path root;
     private final Deque<CatalogDirectoryNode> directories;
-    private final AtomicReference<BigInteger> id_pool;
-    private final CatalogDiskBuilderType disk_builder;
+    private final CatalogStringPool strings;
+    private final CatalogIOThrottle throttle;
+    private final CatalogScanProgress progress;
+    private final FileHasherType hasher;
+    private final AtomicLong id_pool;
+    private final NodeSinkType sink;
+    private final ExecutorService hash_exec;
+    private final int pending_max;
+    private final Deque<PendingNode> pending;
 
     DiskCreator(
       final Path in_root,
       final Deque<CatalogDirectoryNode> in_directories,
-      final AtomicReference<BigInteger> in_id_pool,
-      final CatalogDiskBuilderType in_disk_builder)
+      final CatalogStringPool in_strings,
+      final CatalogIOThrottle in_throttle,
+      final CatalogScanProgress in_progress,
+      final FileHasherType in_hasher,
+      final AtomicLong in_id_pool,
+      final NodeSinkType in_sink,
+      final ExecutorService in_hash_exec,
+      final int in_pending_max)
     {
       this.root = in_root;
       this.directories = in_directories;
+      this.strings = in_strings;
+      this.throttle = in_throttle;
+      this.progress = in_progress;
+      this.hasher = in_hasher;
       this.id_pool = in_id_pool;
-      this.disk_builder = in_disk_builder;
+      this.sink = in_sink;
+      this.hash_exec = in_hash_exec;
+      this.pending_max = in_pending_max;
+      this.pending = new ArrayDeque<>(in_pending_max);
+    }
+
+    /*
+     * When hashing in parallel, nodes are queued in the order in which they
+     * are walked and are added to the disk strictly in that order once their
+     * hashes are available. The queue is bounded; a full queue causes the
+     * walk to wait for the oldest hash to complete.
+     */
+
+    private void addNode(
+      final CatalogDirectoryNode parent,
+      final String name,
+      final CatalogNodeType node)
+      throws CatalogNodeException, IOException
+    {
+      if (this.pending.isEmpty()) {
+        this.sink.addNode(parent, name, node);
+      } else {
+        this.enqueue(new PendingNode(parent, name, node, null, null, 0L));
+      }
+    }
+
+    private void enqueue(final PendingNode p)
+      throws CatalogNodeException, IOException
+    {
+      while (this.pending.size() >= this.pending_max) {
+        this.completeOldest();
+      }
+      this.pending.add(p);
+      this.progress.setQueueDepth((long) this.pending.size());
+    }
+
+    private void completeOldest()
+      throws CatalogNodeException, IOException
+    {
+      final var p = this.pending.remove();
+      this.progress.setQueueDepth((long) this.pending.size());
+      if (p.hash == null) {
+        this.sink.addNode(p.parent, p.name, p.node);
+        return;
+      }
+
+      try {
+        final var file = setHashes(p.file, p.hash.get()).build();
+        this.sink.addNode(p.parent, p.name, file);
+        this.progress.onFile(p.size);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for hashes");
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+
+    void finish()
+      throws IOException
+    {
+      try {
+        while (!this.pending.isEmpty()) {
+          this.completeOldest();
+        }
+      } catch (final CatalogNodeException e) {
+        throw new IOException(e);
+      }
+    }
+
+    void cancel()
+    {
+      for (final var p : this.pending) {
+        if (p.hash != null) {
+          p.hash.cancel(true);
+        }
+      }
+      this.pending.clear();
     }
 
     @Override
@@ -654,6 +1601,15 @@ public final class CatalogFilesystemReader
         LOG.debug(
           "preVisitDirectory: {}", dir);
 
+        /*
+         * Each directory is read once to list its entries and, except for
+         * the root (which was read when the disk was created), once to read
+         * its attributes.
+         */
+
+        this.throttle.acquireOperations(dir.equals(this.root) ? 1L : 2L);
+        this.progress.onDirectory();
+
         final var fn = dir.getFileName();
         if (fn == null) {
           Preconditions.checkPreconditionV(dir.equals(this.root), "Root must match");
@@ -661,10 +1617,10 @@ public final class CatalogFilesystemReader
           if (!dir.equals(this.root)) {
             final var current = this.directories.peek();
             final var new_dir =
-              onDirectory(this.id_pool, dir);
+              onDirectory(this.strings, this.id_pool, dir);
 
-            final var name = fn.toString();
-            this.disk_builder.addNode(current, name, new_dir);
+            final var name = this.strings.intern(fn.toString());
+            this.addNode(current, name, new_dir);
             this.directories.push(new_dir);
           }
         }
@@ -684,12 +1640,23 @@ public final class CatalogFilesystemReader
       try {
         LOG.debug("visitFile: {}", file);
 
+        this.throttle.acquireOperations(1L);
         if (attrs.isRegularFile()) {
           final var current = this.directories.peek();
+          final var name = this.strings.intern(file.getFileName().toString());
           final var new_file =
-            onFile(this.id_pool, file);
-          final var name = file.getFileName().toString();
-          this.disk_builder.addNode(current, name, new_file);
+            onFileMetadata(this.strings, file)
+              .setIdValue(this.id_pool.incrementAndGet());
+          if (this.hash_exec == null) {
+            setHashes(new_file, this.hasher.hash(file, attrs));
+            this.sink.addNode(current, name, new_file.build());
+            this.progress.onFile(attrs.size());
+          } else {
+            final Future<List<CatalogFileHash>> hash =
+              this.hash_exec.submit(() -> this.hasher.hash(file, attrs));
+            this.enqueue(
+              new PendingNode(current, name, null, new_file, hash, attrs.size()));
+          }
         }
 
         return FileVisitResult.CONTINUE;
@@ -721,4 +1688,457 @@ public final class CatalogFilesystemReader
       return FileVisitResult.CONTINUE;
     }
   }
+
+  /**
+   * A function that produces the hashes of a file encountered during a scan.
+   * Implementations may be called concurrently.
+   */
+
+  @FunctionalInterface
+  private interface FileHasherType
+  {
+    List<CatalogFileHash> hash(
+      Path file,
+      BasicFileAttributes attrs)
+      throws IOException;
+  }
+
+  /**
+   * A destination for the nodes of a disk, delivered in depth-first order.
+   */
+
+  @FunctionalInterface
+  private interface NodeSinkType
+  {
+    void addNode(
+      CatalogDirectoryNode parent,
+      String name,
+      CatalogNodeType node)
+      throws CatalogNodeException, IOException;
+  }
+
+  /**
+   * A sink that translates nodes into receiver events. Nodes arrive in
+   * depth-first order, so a directory has been left when a node arrives
+   * whose parent is not that directory.
+   */
+
+  private static final class StreamingSink implements NodeSinkType
+  {
+    private final CatalogDiskReceiverType receiver;
+    private final Deque<CatalogDirectoryNode> open;
+
+    StreamingSink(
+      final CatalogDiskReceiverType in_receiver,
+      final CatalogDirectoryNode root)
+      throws IOException
+    {
+      this.receiver = in_receiver;
+      this.open = new ArrayDeque<>(32);
+      this.receiver.onDirectoryEntered("/", root);
+      this.open.push(root);
+    }
+
+    @Override
+    public void addNode(
+      final CatalogDirectoryNode parent,
+      final String name,
+      final CatalogNodeType node)
+      throws IOException
+    {
+      while (this.open.peek() != parent) {
+        Preconditions.checkPreconditionV(
+          this.open.size() > 1, "Parent must be an open directory");
+        this.receiver.onDirectoryLeft(this.open.pop());
+      }
+
+      if (node instanceof CatalogDirectoryNode) {
+        final var directory = (CatalogDirectoryNode) node;
+        this.receiver.onDirectoryEntered(name, directory);
+        this.open.push(directory);
+      } else {
+        this.receiver.onFile(name, (CatalogFileNode) node);
+      }
+    }
+
+    void finish()
+      throws IOException
+    {
+      while (!this.open.isEmpty()) {
+        this.receiver.onDirectoryLeft(this.open.pop());
+      }
+    }
+  }
+
+  /**
+   * A hasher that takes hashes from an existing disk for files that appear
+   * to be unchanged.
+   */
+
+  private static final class ReusingHasher implements FileHasherType
+  {
+    private final CatalogDisk previous;
+    private final Path root;
+    private final CatalogFileHashEngine engine;
+    private final List<CatalogHashAlgorithmType> algorithms;
+    private final LongAdder reused;
+    private final LongAdder computed;
+
+    ReusingHasher(
+      final CatalogDisk in_previous,
+      final Path in_root,
+      final CatalogFileHashEngine in_engine,
+      final List<CatalogHashAlgorithmType> in_algorithms)
+    {
+      this.previous = in_previous;
+      this.root = in_root;
+      this.engine = in_engine;
+      this.algorithms = in_algorithms;
+      this.reused = new LongAdder();
+      this.computed = new LongAdder();
+    }
+
+    @Override
+    public List<CatalogFileHash> hash(
+      final Path file,
+      final BasicFileAttributes attrs)
+      throws IOException
+    {
+      final var relative = this.root.relativize(file);
+      final var names = new ArrayList<String>(relative.getNameCount());
+      for (final var name : relative) {
+        names.add(name.toString());
+      }
+
+      Optional<CatalogNodeType> node_opt;
+      try {
+        node_opt = this.previous.getNodeForPath(names);
+      } catch (final NotDirectoryException e) {
+        node_opt = Optional.empty();
+      }
+
+      if (node_opt.isPresent() && node_opt.get() instanceof CatalogFileNodeType) {
+        final var then = (CatalogFileNodeType) node_opt.get();
+        if (then.sizeLongExact() == attrs.size()
+          && then.modificationTime().equals(attrs.lastModifiedTime().toInstant())
+          && then.creationTime().equals(attrs.creationTime().toInstant())) {
+          final var hashes_then = this.recordedHashes(then);
+          if (hashes_then.isPresent()) {
+            LOG.debug("reusing hash {}", file);
+            this.reused.increment();
+            return hashes_then.get();
+          }
+        }
+      }
+
+      this.computed.increment();
+      return hashFile(this.engine, this.algorithms, file);
+    }
+
+    private Optional<List<CatalogFileHash>> recordedHashes(
+      final CatalogFileNodeType then)
+    {
+      final var results = new ArrayList<CatalogFileHash>(this.algorithms.size());
+      for (final var algorithm : this.algorithms) {
+        final var hash_opt = then.hashFor(algorithm.name());
+        if (hash_opt.isEmpty()) {
+          return Optional.empty();
+        }
+        results.add(hash_opt.get());
+      }
+      return Optional.of(results);
+    }
+  }
+
+  /**
+   * A hasher that takes hashes from a resumed journal for files that appear
+   * to be unchanged, and records every other hash in the journal.
+   */
+
+  private static final class JournalingHasher implements FileHasherType
+  {
+    private final Path root;
+    private final CatalogScanJournal journal;
+    private final List<String> algorithms;
+    private final FileHasherType hasher;
+
+    JournalingHasher(
+      final Path in_root,
+      final CatalogScanJournal in_journal,
+      final List<String> in_algorithms,
+      final FileHasherType in_hasher)
+    {
+      this.root = in_root;
+      this.journal = in_journal;
+      this.algorithms = in_algorithms;
+      this.hasher = in_hasher;
+    }
+
+    @Override
+    public List<CatalogFileHash> hash(
+      final Path file,
+      final BasicFileAttributes attrs)
+      throws IOException
+    {
+      final var relative = this.root.relativize(file);
+      final var completed =
+        this.journal.completed(relative, attrs, this.algorithms);
+      if (completed.isPresent()) {
+        LOG.debug("resuming hash {}", file);
+        return completed.get();
+      }
+
+      final var hashes = this.hasher.hash(file, attrs);
+      this.journal.record(relative, attrs, hashes);
+      return hashes;
+    }
+  }
+
+  private static final class ParallelScan
+  {
+    private final ForkJoinPool pool;
+    private final CatalogStringPool strings;
+    private final CatalogIOThrottle throttle;
+    private final CatalogScanProgress progress;
+    private final FileHasherType hasher;
+    private final AtomicLong id_pool;
+    private final NodeSinkType sink;
+    private final int window;
+    private final Deque<PendingScan> deferred;
+    private final Deque<ScanFrame> stack;
+    private int outstanding;
+
+    ParallelScan(
+      final ForkJoinPool in_pool,
+      final CatalogStringPool in_strings,
+      final CatalogIOThrottle in_throttle,
+      final CatalogScanProgress in_progress,
+      final FileHasherType in_hasher,
+      final AtomicLong in_id_pool,
+      final NodeSinkType in_sink,
+      final int in_window)
+    {
+      this.pool = in_pool;
+      this.strings = in_strings;
+      this.throttle = in_throttle;
+      this.progress = in_progress;
+      this.hasher = in_hasher;
+      this.id_pool = in_id_pool;
+      this.sink = in_sink;
+      this.window = in_window;
+      this.deferred = new ArrayDeque<>();
+      this.stack = new ArrayDeque<>();
+      this.outstanding = 0;
+    }
+
+    void run(
+      final Path root,
+      final CatalogDirectoryNode root_dir)
+      throws IOException, CatalogException
+    {
+      final var root_scan = new PendingScan(root);
+      this.deferred.push(root_scan);
+      this.stack.push(new ScanFrame(root_dir, this.take(root_scan)));
+
+      while (!this.stack.isEmpty()) {
+        final var frame = this.stack.peek();
+        if (!frame.entries.hasNext()) {
+          this.stack.pop();
+          continue;
+        }
+
+        final var entry = frame.entries.next();
+        final var id = this.id_pool.incrementAndGet();
+        if (entry.scan != null) {
+          final var dir = entry.directory.setIdValue(id).build();
+          this.sink.addNode(frame.directory, entry.name, dir);
+          this.stack.push(new ScanFrame(dir, this.take(entry.scan)));
+        } else {
+          this.sink.addNode(
+            frame.directory, entry.name, entry.file.setIdValue(id).build());
+        }
+      }
+    }
+
+    /*
+     * Directories are taken in depth-first order. A directory that has not
+     * yet been submitted is always at the head of the deferred queue, as
+     * every directory queued ahead of it belonged to a subtree that has
+     * already been attached. It is submitted regardless of the window so
+     * that the scan always makes progress.
+     */
+
+    private Iterator<ScannedEntry> take(final PendingScan scan)
+      throws IOException
+    {
+      if (scan.result == null) {
+        Preconditions.checkPreconditionV(
+          this.deferred.peekFirst() == scan,
+          "Unsubmitted scans must be taken in order");
+        this.submitNext();
+      }
+
+      final List<ScannedEntry> entries;
+      try {
+        entries = scan.result.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for scans");
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new IOException(cause);
+      }
+      --this.outstanding;
+
+      for (var index = entries.size() - 1; index >= 0; --index) {
+        final var entry = entries.get(index);
+        if (entry.scan != null) {
+          this.deferred.addFirst(entry.scan);
+        }
+      }
+
+      while (this.outstanding < this.window && !this.deferred.isEmpty()) {
+        this.submitNext();
+      }
+      return entries.iterator();
+    }
+
+    private void submitNext()
+    {
+      final var scan = this.deferred.removeFirst();
+      scan.result = this.pool.submit(
+        new ScanTask(
+          scan.path, this.strings, this.throttle, this.progress, this.hasher));
+      ++this.outstanding;
+    }
+  }
+
+  private static final class ScanTask implements Callable<List<ScannedEntry>>
+  {
+    private final Path directory;
+    private final CatalogStringPool strings;
+    private final CatalogIOThrottle throttle;
+    private final CatalogScanProgress progress;
+    private final FileHasherType hasher;
+
+    ScanTask(
+      final Path in_directory,
+      final CatalogStringPool in_strings,
+      final CatalogIOThrottle in_throttle,
+      final CatalogScanProgress in_progress,
+      final FileHasherType in_hasher)
+    {
+      this.directory = in_directory;
+      this.strings = in_strings;
+      this.throttle = in_throttle;
+      this.progress = in_progress;
+      this.hasher = in_hasher;
+    }
+
+    @Override
+    public List<ScannedEntry> call()
+      throws IOException
+    {
+      LOG.debug("scan: {}", this.directory);
+      this.progress.onDirectory();
+
+      final var entries = new ArrayList<ScannedEntry>();
+      try (var stream = Files.newDirectoryStream(this.directory)) {
+        this.throttle.acquireOperations(1L);
+        for (final var path : stream) {
+          this.throttle.acquireOperations(1L);
+          final var attrs = readAttributes(path);
+          final var name = this.strings.intern(path.getFileName().toString());
+
+          if (attrs.isDirectory()) {
+            entries.add(new ScannedEntry(
+              name,
+              onDirectoryMetadata(this.strings, attrs),
+              new PendingScan(path),
+              null));
+          } else if (attrs.isRegularFile()) {
+            final var file = setHashes(
+              onFileMetadata(this.strings, attrs), this.hasher.hash(path, attrs));
+            entries.add(new ScannedEntry(name, null, null, file));
+            this.progress.onFile(attrs.size());
+          }
+        }
+      }
+      return entries;
+    }
+  }
+
+  private static final class PendingScan
+  {
+    private final Path path;
+    private Future<List<ScannedEntry>> result;
+
+    PendingScan(final Path in_path)
+    {
+      this.path = in_path;
+    }
+  }
+
+  private static final class ScanFrame
+  {
+    private final CatalogDirectoryNode directory;
+    private final Iterator<ScannedEntry> entries;
+
+    ScanFrame(
+      final CatalogDirectoryNode in_directory,
+      final Iterator<ScannedEntry> in_entries)
+    {
+      this.directory = in_directory;
+      this.entries = in_entries;
+    }
+  }
+
+  private static final class ScannedEntry
+  {
+    private final String name;
+    private final CatalogDirectoryNode.Builder directory;
+    private final PendingScan scan;
+    private final CatalogFileNode.Builder file;
+
+    ScannedEntry(
+      final String in_name,
+      final CatalogDirectoryNode.Builder in_directory,
+      final PendingScan in_scan,
+      final CatalogFileNode.Builder in_file)
+    {
+      this.name = in_name;
+      this.directory = in_directory;
+      this.scan = in_scan;
+      this.file = in_file;
+    }
+  }
+
+  private static final class PendingNode
+  {
+    private final CatalogDirectoryNode parent;
+    private final String name;
+    private final CatalogNodeType node;
+    private final CatalogFileNode.Builder file;
+    private final Future<List<CatalogFileHash>> hash;
+    private final long size;
+
+    PendingNode(
+      final CatalogDirectoryNode in_parent,
+      final String in_name,
+      final CatalogNodeType in_node,
+      final CatalogFileNode.Builder in_file,
+      final Future<List<CatalogFileHash>> in_hash,
+      final long in_size)
+    {
+      this.parent = in_parent;
+      this.name = in_name;
+      this.node = in_node;
+      this.file = in_file;
+      this.hash = in_hash;
+      this.size = in_size;
+    }
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import java.util.Optional;
+
+/**
+ * <p>A hash algorithm that may be used to hash files.</p>
+ *
+ * <p>Implementations are registered with {@link java.util.ServiceLoader} in
+ * addition to the algorithms built into {@link CatalogHashAlgorithms}.</p>
+ */
+
+public interface CatalogHashAlgorithmType
+{
+  /**
+   * @return The name of the algorithm, as recorded in file hashes
+   *
+   * @see CatalogFileHashType#algorithm()
+   */
+
+  String name();
+
+  /**
+   * @return A new hash function in its initial state
+   */
+
+  CatalogHashFunctionType create();
+
+  /**
+   * An estimate of the cost of hashing data with this algorithm, relative to
+   * the other available algorithms. Lower values are cheaper. Algorithms
+   * that do not override this method are assumed to be more expensive than
+   * any of the algorithms built into {@link CatalogHashAlgorithms}.
+   *
+   * @return The relative cost of the algorithm
+   */
+
+  default int cost()
+  {
+    return 100;
+  }
+
+  /**
+   * @return The sampling parameters, if the algorithm digests only part of
+   * each file
+   *
+   * @see CatalogHashAlgorithms#sampled(CatalogHashAlgorithmType, CatalogHashSampling)
+   */
+
+  default Optional<CatalogHashSampling> sampling()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * @return The tree parameters, if the algorithm digests each file as a
+   * sequence of independent chunks
+   *
+   * @see CatalogHashAlgorithms#tree(CatalogHashAlgorithmType, CatalogHashTree)
+   */
+
+  default Optional<CatalogHashTree> tree()
+  {
+    return Optional.empty();
+  }
+}
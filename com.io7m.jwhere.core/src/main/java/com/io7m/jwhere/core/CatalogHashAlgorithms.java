@@ -0,0 +1,591 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.jaffirm.core.PreconditionViolationException;
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+/**
+ * Hash algorithms.
+ */
+
+public final class CatalogHashAlgorithms
+{
+  /**
+   * The SHA-256 cryptographic hash. This is the default algorithm.
+   */
+
+  public static final CatalogHashAlgorithmType SHA_256 =
+    messageDigest("SHA-256");
+
+  /**
+   * The CRC-32C (Castagnoli) checksum, stored as four big-endian bytes.
+   */
+
+  public static final CatalogHashAlgorithmType CRC32C =
+    new Algorithm("CRC32C", 1) {
+      @Override
+      public CatalogHashFunctionType create()
+      {
+        return new CRC32CFunction();
+      }
+    };
+
+  /**
+   * The 64-bit xxHash non-cryptographic hash (seed {@code 0}), stored as
+   * eight big-endian bytes.
+   */
+
+  public static final CatalogHashAlgorithmType XXH64 =
+    new Algorithm("XXH64", 2) {
+      @Override
+      public CatalogHashFunctionType create()
+      {
+        return new XXH64Function();
+      }
+    };
+
+  private static final String SAMPLED_PREFIX = "SAMPLED-";
+  private static final String TREE_PREFIX = "TREE-";
+
+  private CatalogHashAlgorithms()
+  {
+
+  }
+
+  /**
+   * Construct an algorithm that digests a sample of each file with the given
+   * algorithm. The name of the resulting algorithm has the form
+   * {@code SAMPLED-<block size>-<interior blocks>-<algorithm>}, such as
+   * {@code SAMPLED-1048576-4-XXH64}, and is accepted by
+   * {@link #forName(String)}.
+   *
+   * @param algorithm The algorithm used to digest the sample
+   * @param sampling  The sampling parameters
+   *
+   * @return An algorithm
+   */
+
+  public static CatalogHashAlgorithmType sampled(
+    final CatalogHashAlgorithmType algorithm,
+    final CatalogHashSampling sampling)
+  {
+    Objects.requireNonNull(algorithm, "algorithm");
+    Objects.requireNonNull(sampling, "sampling");
+
+    Preconditions.checkPreconditionV(
+      isPlain(algorithm),
+      "Algorithm %s must not be sampled or tree-structured",
+      algorithm.name());
+
+    final var name =
+      String.format(
+        "%s%d-%d-%s",
+        SAMPLED_PREFIX,
+        Long.valueOf(sampling.blockSize()),
+        Integer.valueOf(sampling.interiorBlocks()),
+        algorithm.name());
+
+    return new Algorithm(name, algorithm.cost()) {
+      @Override
+      public CatalogHashFunctionType create()
+      {
+        return algorithm.create();
+      }
+
+      @Override
+      public Optional<CatalogHashSampling> sampling()
+      {
+        return Optional.of(sampling);
+      }
+    };
+  }
+
+  /**
+   * Construct an algorithm that digests each file as a sequence of chunks
+   * with the given algorithm, allowing the chunks of a single file to be
+   * digested in parallel. The name of the resulting algorithm has the form
+   * {@code TREE-<chunk size>-<algorithm>}, such as
+   * {@code TREE-67108864-SHA-256}, and is accepted by
+   * {@link #forName(String)}.
+   *
+   * @param algorithm The algorithm used to digest chunks
+   * @param tree      The tree parameters
+   *
+   * @return An algorithm
+   */
+
+  public static CatalogHashAlgorithmType tree(
+    final CatalogHashAlgorithmType algorithm,
+    final CatalogHashTree tree)
+  {
+    Objects.requireNonNull(algorithm, "algorithm");
+    Objects.requireNonNull(tree, "tree");
+
+    Preconditions.checkPreconditionV(
+      isPlain(algorithm),
+      "Algorithm %s must not be sampled or tree-structured",
+      algorithm.name());
+
+    final var name =
+      String.format(
+        "%s%d-%s",
+        TREE_PREFIX,
+        Long.valueOf(tree.chunkSize()),
+        algorithm.name());
+
+    return new Algorithm(name, algorithm.cost()) {
+      @Override
+      public CatalogHashFunctionType create()
+      {
+        return algorithm.create();
+      }
+
+      @Override
+      public Optional<CatalogHashTree> tree()
+      {
+        return Optional.of(tree);
+      }
+    };
+  }
+
+  private static boolean isPlain(final CatalogHashAlgorithmType algorithm)
+  {
+    return algorithm.sampling().isEmpty() && algorithm.tree().isEmpty();
+  }
+
+  /**
+   * Construct an algorithm that uses the {@link MessageDigest} of the given
+   * name.
+   *
+   * @param name The name of the message digest algorithm
+   *
+   * @return An algorithm
+   *
+   * @throws IllegalArgumentException If no such message digest is available
+   */
+
+  public static CatalogHashAlgorithmType messageDigest(final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    try {
+      MessageDigest.getInstance(name);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException(e);
+    }
+
+    return new Algorithm(name, 10) {
+      @Override
+      public CatalogHashFunctionType create()
+      {
+        try {
+          return new MessageDigestFunction(MessageDigest.getInstance(name));
+        } catch (final NoSuchAlgorithmException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Find the algorithm with the given name. Built-in algorithms are searched
+   * first, followed by algorithms registered with {@link ServiceLoader},
+   * followed by any {@link MessageDigest} with the given name. Names of the
+   * forms produced by {@link #sampled(CatalogHashAlgorithmType,
+   * CatalogHashSampling)} and {@link #tree(CatalogHashAlgorithmType,
+   * CatalogHashTree)} are also accepted.
+   *
+   * @param name The algorithm name
+   *
+   * @return The algorithm, if one exists
+   */
+
+  public static Optional<CatalogHashAlgorithmType> forName(final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var registered = Registered.ALGORITHMS.get(name);
+    if (registered != null) {
+      return Optional.of(registered);
+    }
+
+    if (name.startsWith(SAMPLED_PREFIX)) {
+      return forSampledName(name);
+    }
+    if (name.startsWith(TREE_PREFIX)) {
+      return forTreeName(name);
+    }
+
+    try {
+      return Optional.of(messageDigest(name));
+    } catch (final IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<CatalogHashAlgorithmType> forSampledName(
+    final String name)
+  {
+    final var segments =
+      name.substring(SAMPLED_PREFIX.length()).split("-", 3);
+    if (segments.length != 3) {
+      return Optional.empty();
+    }
+
+    final CatalogHashSampling sampling;
+    try {
+      sampling = CatalogHashSampling.builder()
+        .setBlockSize(Long.parseLong(segments[0]))
+        .setInteriorBlocks(Integer.parseInt(segments[1]))
+        .build();
+    } catch (final NumberFormatException | PreconditionViolationException e) {
+      return Optional.empty();
+    }
+
+    return forName(segments[2])
+      .filter(CatalogHashAlgorithms::isPlain)
+      .map(algorithm -> sampled(algorithm, sampling))
+      .filter(algorithm -> algorithm.name().equals(name));
+  }
+
+  private static Optional<CatalogHashAlgorithmType> forTreeName(
+    final String name)
+  {
+    final var segments =
+      name.substring(TREE_PREFIX.length()).split("-", 2);
+    if (segments.length != 2) {
+      return Optional.empty();
+    }
+
+    final CatalogHashTree tree;
+    try {
+      tree = CatalogHashTree.builder()
+        .setChunkSize(Long.parseLong(segments[0]))
+        .build();
+    } catch (final NumberFormatException | PreconditionViolationException e) {
+      return Optional.empty();
+    }
+
+    return forName(segments[1])
+      .filter(CatalogHashAlgorithms::isPlain)
+      .map(algorithm -> tree(algorithm, tree))
+      .filter(algorithm -> algorithm.name().equals(name));
+  }
+
+  /**
+   * Find the hash in the given list that is cheapest to recompute. Hashes
+   * made with unsupported algorithms are ignored. If several hashes have the
+   * same cost, the earliest in the list is chosen.
+   *
+   * @param hashes The hashes
+   *
+   * @return The cheapest hash, if any hash uses a supported algorithm
+   *
+   * @see CatalogHashAlgorithmType#cost()
+   */
+
+  public static Optional<CatalogFileHash> cheapest(
+    final List<CatalogFileHash> hashes)
+  {
+    Objects.requireNonNull(hashes, "hashes");
+
+    CatalogFileHash best = null;
+    var best_cost = Integer.MAX_VALUE;
+    for (final var hash : hashes) {
+      final var algorithm_opt = forName(hash.algorithm());
+      if (algorithm_opt.isPresent()) {
+        final var cost = algorithm_opt.get().cost();
+        if (best == null || cost < best_cost) {
+          best = hash;
+          best_cost = cost;
+        }
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  /**
+   * @return The names of the built-in and registered algorithms
+   */
+
+  public static SortedSet<String> names()
+  {
+    return Collections.unmodifiableSortedSet(
+      new TreeSet<>(Registered.ALGORITHMS.keySet()));
+  }
+
+  private static final class Registered
+  {
+    private static final Map<String, CatalogHashAlgorithmType> ALGORITHMS =
+      load();
+
+    private Registered()
+    {
+
+    }
+
+    private static Map<String, CatalogHashAlgorithmType> load()
+    {
+      final var results = new TreeMap<String, CatalogHashAlgorithmType>();
+      for (final var algorithm : ServiceLoader.load(CatalogHashAlgorithmType.class)) {
+        results.put(algorithm.name(), algorithm);
+      }
+      results.put(SHA_256.name(), SHA_256);
+      results.put(CRC32C.name(), CRC32C);
+      results.put(XXH64.name(), XXH64);
+      return Collections.unmodifiableMap(results);
+    }
+  }
+
+  private abstract static class Algorithm implements CatalogHashAlgorithmType
+  {
+    private final String name;
+    private final int cost;
+
+    Algorithm(
+      final String in_name,
+      final int in_cost)
+    {
+      this.name = Objects.requireNonNull(in_name, "name");
+      this.cost = in_cost;
+    }
+
+    @Override
+    public final String name()
+    {
+      return this.name;
+    }
+
+    @Override
+    public final int cost()
+    {
+      return this.cost;
+    }
+
+    @Override
+    public final String toString()
+    {
+      return this.name;
+    }
+  }
+
+  private static final class MessageDigestFunction
+    implements CatalogHashFunctionType
+  {
+    private final MessageDigest digest;
+
+    MessageDigestFunction(final MessageDigest in_digest)
+    {
+      this.digest = in_digest;
+    }
+
+    @Override
+    public void update(final ByteBuffer data)
+    {
+      this.digest.update(data);
+    }
+
+    @Override
+    public byte[] digest()
+    {
+      return this.digest.digest();
+    }
+
+    @Override
+    public void reset()
+    {
+      this.digest.reset();
+    }
+  }
+
+  private static final class CRC32CFunction implements CatalogHashFunctionType
+  {
+    private final CRC32C crc;
+
+    CRC32CFunction()
+    {
+      this.crc = new CRC32C();
+    }
+
+    @Override
+    public void update(final ByteBuffer data)
+    {
+      this.crc.update(data);
+    }
+
+    @Override
+    public byte[] digest()
+    {
+      final var value = (int) this.crc.getValue();
+      this.crc.reset();
+      return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    @Override
+    public void reset()
+    {
+      this.crc.reset();
+    }
+  }
+
+  /*
+   * A streaming implementation of XXH64, following the reference
+   * implementation at https://github.com/Cyan4973/xxHash.
+   */
+
+  private static final class XXH64Function implements CatalogHashFunctionType
+  {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    private final ByteBuffer memory;
+    private long total;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    XXH64Function()
+    {
+      this.memory = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+      this.reset();
+    }
+
+    private static long round(
+      final long acc,
+      final long input)
+    {
+      return Long.rotateLeft(acc + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long mergeRound(
+      final long acc,
+      final long value)
+    {
+      return (acc ^ round(0L, value)) * PRIME_1 + PRIME_4;
+    }
+
+    private void stripe(final ByteBuffer input)
+    {
+      this.v1 = round(this.v1, input.getLong());
+      this.v2 = round(this.v2, input.getLong());
+      this.v3 = round(this.v3, input.getLong());
+      this.v4 = round(this.v4, input.getLong());
+    }
+
+    @Override
+    public void update(final ByteBuffer data)
+    {
+      final var input = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+      data.position(data.limit());
+      this.total += input.remaining();
+
+      if (this.memory.position() > 0) {
+        while (this.memory.hasRemaining() && input.hasRemaining()) {
+          this.memory.put(input.get());
+        }
+        if (this.memory.hasRemaining()) {
+          return;
+        }
+        this.memory.flip();
+        this.stripe(this.memory);
+        this.memory.clear();
+      }
+
+      while (input.remaining() >= STRIPE) {
+        this.stripe(input);
+      }
+
+      this.memory.put(input);
+    }
+
+    @Override
+    public byte[] digest()
+    {
+      long h;
+      if (this.total >= (long) STRIPE) {
+        h = Long.rotateLeft(this.v1, 1)
+          + Long.rotateLeft(this.v2, 7)
+          + Long.rotateLeft(this.v3, 12)
+          + Long.rotateLeft(this.v4, 18);
+        h = mergeRound(h, this.v1);
+        h = mergeRound(h, this.v2);
+        h = mergeRound(h, this.v3);
+        h = mergeRound(h, this.v4);
+      } else {
+        h = PRIME_5;
+      }
+
+      h += this.total;
+
+      this.memory.flip();
+      while (this.memory.remaining() >= 8) {
+        h ^= round(0L, this.memory.getLong());
+        h = Long.rotateLeft(h, 27) * PRIME_1 + PRIME_4;
+      }
+      if (this.memory.remaining() >= 4) {
+        h ^= ((long) this.memory.getInt() & 0xFFFFFFFFL) * PRIME_1;
+        h = Long.rotateLeft(h, 23) * PRIME_2 + PRIME_3;
+      }
+      while (this.memory.hasRemaining()) {
+        h ^= ((long) this.memory.get() & 0xFFL) * PRIME_5;
+        h = Long.rotateLeft(h, 11) * PRIME_1;
+      }
+
+      h ^= h >>> 33;
+      h *= PRIME_2;
+      h ^= h >>> 29;
+      h *= PRIME_3;
+      h ^= h >>> 32;
+
+      this.reset();
+      return ByteBuffer.allocate(8).putLong(h).array();
+    }
+
+    @Override
+    public void reset()
+    {
+      this.memory.clear();
+      this.total = 0L;
+      this.v1 = PRIME_1 + PRIME_2;
+      this.v2 = PRIME_2;
+      this.v3 = 0L;
+      this.v4 = -PRIME_1;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A stateful instance of a hash algorithm.</p>
+ *
+ * <p>Hash functions are not thread-safe, but may be reused for any number of
+ * files: {@link #digest()} returns the function to its initial state.</p>
+ *
+ * @see CatalogHashAlgorithmType
+ */
+
+public interface CatalogHashFunctionType
+{
+  /**
+   * Add the remaining bytes of {@code data} to the hash. On return, the
+   * position of {@code data} is equal to its limit.
+   *
+   * @param data The data
+   */
+
+  void update(ByteBuffer data);
+
+  /**
+   * Finish the hash and reset the function to its initial state.
+   *
+   * @return The hash value
+   */
+
+  byte[] digest();
+
+  /**
+   * Discard any data added to the hash and reset the function to its initial
+   * state.
+   */
+
+  void reset();
+}
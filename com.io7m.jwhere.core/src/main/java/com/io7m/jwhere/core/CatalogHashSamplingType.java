@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * <p>The parameters of a sampled hash.</p>
+ *
+ * <p>A sampled hash digests the size of a file, followed by the first and
+ * last {@link #blockSize()} bytes of the file and {@link #interiorBlocks()}
+ * blocks of the same size spaced evenly between them. Files that are too
+ * small to hold all of the blocks without overlap are digested in full.</p>
+ *
+ * @see CatalogHashAlgorithms#sampled(CatalogHashAlgorithmType, CatalogHashSampling)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogHashSamplingType
+{
+  /**
+   * @return The size in bytes of each sampled block
+   */
+
+  @Value.Default
+  default long blockSize()
+  {
+    return 1024L * 1024L;
+  }
+
+  /**
+   * @return The number of blocks sampled between the first and last blocks
+   */
+
+  @Value.Default
+  default int interiorBlocks()
+  {
+    return 4;
+  }
+
+  /**
+   * @param size The size of a file
+   *
+   * @return {@code true} iff a file of the given size is digested in full
+   */
+
+  default boolean isDigestedInFull(final long size)
+  {
+    final var blocks = (long) this.interiorBlocks() + 2L;
+    return size <= this.blockSize() * blocks;
+  }
+
+  /**
+   * @param size  The size of a file that is not digested in full
+   * @param block The index of a block in the range
+   *              {@code [0, interiorBlocks() + 1]}
+   *
+   * @return The offset of the given block within the file
+   */
+
+  default long blockOffset(
+    final long size,
+    final int block)
+  {
+    final var last = size - this.blockSize();
+    if (block > this.interiorBlocks()) {
+      return last;
+    }
+    final var spacing = last / ((long) this.interiorBlocks() + 1L);
+    return spacing * (long) block;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionL(
+      this.blockSize(),
+      this.blockSize() >= 1L && this.blockSize() <= (long) Integer.MAX_VALUE,
+      x -> "Block size must be in the range [1, 2147483647]");
+    Preconditions.checkPreconditionI(
+      this.interiorBlocks(),
+      this.interiorBlocks() >= 0 && this.interiorBlocks() <= 1024,
+      i -> "Interior block count must be in the range [0, 1024]");
+  }
+}
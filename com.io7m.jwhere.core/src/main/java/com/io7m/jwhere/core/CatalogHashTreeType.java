@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * <p>The parameters of a tree hash.</p>
+ *
+ * <p>A tree hash divides a file into chunks of {@link #chunkSize()} bytes
+ * (the last chunk may be shorter) and digests each chunk independently, so
+ * that the chunks of a single file may be digested in parallel. The hash of
+ * the file is the digest of the size of the file followed by the digests of
+ * each of the chunks in order.</p>
+ *
+ * @see CatalogHashAlgorithms#tree(CatalogHashAlgorithmType, CatalogHashTree)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogHashTreeType
+{
+  /**
+   * @return The size in bytes of each chunk
+   */
+
+  @Value.Default
+  default long chunkSize()
+  {
+    return 64L * 1024L * 1024L;
+  }
+
+  /**
+   * @param size The size of a file
+   *
+   * @return The number of chunks in a file of the given size
+   */
+
+  default long chunkCount(final long size)
+  {
+    return (size / this.chunkSize()) + (size % this.chunkSize() == 0L ? 0L : 1L);
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionL(
+      this.chunkSize(),
+      this.chunkSize() >= 1L,
+      x -> "Chunk size must be positive");
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A limit on the rate at which a scan or verification performs I/O, and
+ * a record of the I/O performed.</p>
+ *
+ * <p>A throttle has two independent budgets: bytes read per second when
+ * hashing files, and filesystem operations (reading the attributes of a
+ * file, or listing a directory) per second. A rate of {@code 0} is
+ * unlimited. Rates may be changed at any time, including while a scan that
+ * uses the throttle is running; threads waiting for the throttle
+ * re-examine the new rate immediately.</p>
+ *
+ * <p>Each acquisition proceeds as soon as the previous acquisition has been
+ * paid for, and its own cost is paid by the acquisition that follows. A
+ * single throttle may be shared by any number of threads and scans, in
+ * which case the rates apply to all of them together.</p>
+ *
+ * <p>The time that threads spend waiting for the throttle is added up over
+ * all threads, so when several threads are throttled at once it can exceed
+ * the elapsed time.</p>
+ */
+
+@ThreadSafe
+public final class CatalogIOThrottle
+{
+  private final long start;
+  private final Budget bytes;
+  private final Budget operations;
+  private final LongAdder throttled;
+
+  private CatalogIOThrottle(
+    final long bytes_per_second,
+    final long operations_per_second)
+  {
+    this.start = System.nanoTime();
+    this.throttled = new LongAdder();
+    this.bytes = new Budget(bytes_per_second, this.throttled);
+    this.operations = new Budget(operations_per_second, this.throttled);
+  }
+
+  /**
+   * @return A throttle that imposes no limits
+   */
+
+  public static CatalogIOThrottle unlimited()
+  {
+    return create(0L, 0L);
+  }
+
+  /**
+   * Create a throttle.
+   *
+   * @param bytes_per_second      The maximum number of bytes read per second,
+   *                              or {@code 0} for no limit
+   * @param operations_per_second The maximum number of operations per second,
+   *                              or {@code 0} for no limit
+   *
+   * @return A new throttle
+   */
+
+  public static CatalogIOThrottle create(
+    final long bytes_per_second,
+    final long operations_per_second)
+  {
+    checkRate(bytes_per_second);
+    checkRate(operations_per_second);
+    return new CatalogIOThrottle(bytes_per_second, operations_per_second);
+  }
+
+  private static void checkRate(final long rate)
+  {
+    Preconditions.checkPreconditionL(
+      rate,
+      rate >= 0L,
+      x -> "Rate must be non-negative");
+  }
+
+  /**
+   * @return The maximum number of bytes read per second, or {@code 0} for no
+   * limit
+   */
+
+  public long bytesPerSecond()
+  {
+    return this.bytes.rate();
+  }
+
+  /**
+   * Set the maximum number of bytes read per second.
+   *
+   * @param rate The rate, or {@code 0} for no limit
+   */
+
+  public void setBytesPerSecond(final long rate)
+  {
+    checkRate(rate);
+    this.bytes.setRate(rate);
+  }
+
+  /**
+   * @return The maximum number of operations per second, or {@code 0} for no
+   * limit
+   */
+
+  public long operationsPerSecond()
+  {
+    return this.operations.rate();
+  }
+
+  /**
+   * Set the maximum number of operations per second.
+   *
+   * @param rate The rate, or {@code 0} for no limit
+   */
+
+  public void setOperationsPerSecond(final long rate)
+  {
+    checkRate(rate);
+    this.operations.setRate(rate);
+  }
+
+  /**
+   * Account for {@code count} bytes read, waiting if the byte budget has been
+   * exhausted.
+   *
+   * @param count The number of bytes
+   *
+   * @throws InterruptedIOException If the calling thread is interrupted
+   */
+
+  public void acquireBytes(final long count)
+    throws InterruptedIOException
+  {
+    this.bytes.acquire(count, true);
+  }
+
+  /**
+   * Account for {@code count} operations, waiting if the operation budget
+   * has been exhausted.
+   *
+   * @param count The number of operations
+   *
+   * @throws InterruptedIOException If the calling thread is interrupted
+   */
+
+  public void acquireOperations(final long count)
+    throws InterruptedIOException
+  {
+    this.operations.acquire(count, true);
+  }
+
+  /*
+   * Operations that are not part of a scan (such as counting the files
+   * in a tree before scanning it) wait for the same budget as every other
+   * operation, but are left out of the throughput.
+   */
+
+  void acquireOperationsUnrecorded(final long count)
+    throws InterruptedIOException
+  {
+    this.operations.acquire(count, false);
+  }
+
+  /**
+   * @return The I/O performed since the throttle was created
+   *
+   * @see CatalogIOThroughputType#since(CatalogIOThroughputType)
+   */
+
+  public CatalogIOThroughput throughput()
+  {
+    return CatalogIOThroughput.builder()
+      .setBytes(this.bytes.total.sum())
+      .setOperations(this.operations.total.sum())
+      .setElapsed(Duration.ofNanos(System.nanoTime() - this.start))
+      .setThrottled(Duration.ofNanos(this.throttled.sum()))
+      .build();
+  }
+
+  private static final class Budget
+  {
+    private static final long MAXIMUM_CREDIT =
+      TimeUnit.MILLISECONDS.toNanos(50L);
+
+    private final LongAdder total;
+    private final LongAdder throttled;
+    private volatile long rate;
+    private long next;
+
+    Budget(
+      final long in_rate,
+      final LongAdder in_throttled)
+    {
+      this.rate = in_rate;
+      this.throttled = in_throttled;
+      this.total = new LongAdder();
+      this.next = System.nanoTime();
+    }
+
+    long rate()
+    {
+      return this.rate;
+    }
+
+    /*
+     * Changing the rate forgives any outstanding cost, so that raising a
+     * very low limit takes effect at once.
+     */
+
+    synchronized void setRate(final long in_rate)
+    {
+      this.rate = in_rate;
+      this.next = System.nanoTime();
+      this.notifyAll();
+    }
+
+    void acquire(
+      final long count,
+      final boolean recorded)
+      throws InterruptedIOException
+    {
+      if (recorded) {
+        this.total.add(count);
+      }
+      if (this.rate == 0L) {
+        return;
+      }
+
+      try {
+        synchronized (this) {
+          while (true) {
+            final var current_rate = this.rate;
+            if (current_rate == 0L) {
+              return;
+            }
+
+            /*
+             * Time lost to late wakeups or short idle periods is credited,
+             * up to a limit, so that the long-run rate matches the limit.
+             */
+
+            final var now = System.nanoTime();
+            final var wait = this.next - now;
+            if (wait <= 0L) {
+              final var cost = (double) count * 1.0e9 / (double) current_rate;
+              this.next = Math.max(this.next, now - MAXIMUM_CREDIT)
+                + (long) Math.min(cost, (double) Long.MAX_VALUE / 4.0);
+              return;
+            }
+
+            /*
+             * Only time actually spent waiting for the budget counts as
+             * throttled; waiting for the monitor does not.
+             */
+
+            final var wait_then = System.nanoTime();
+            try {
+              TimeUnit.NANOSECONDS.timedWait(this, wait);
+            } finally {
+              if (recorded) {
+                this.throttled.add(System.nanoTime() - wait_then);
+              }
+            }
+          }
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the I/O throttle");
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The amount of I/O performed through a {@link CatalogIOThrottle}.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogIOThroughputType
+{
+  /**
+   * @return The number of bytes read
+   */
+
+  long bytes();
+
+  /**
+   * @return The number of filesystem operations (such as reading the
+   * attributes of a file, or listing a directory) performed
+   */
+
+  long operations();
+
+  /**
+   * @return The time over which the I/O was performed
+   */
+
+  Duration elapsed();
+
+  /**
+   * @return The total time that threads spent waiting for the throttle,
+   * added up over all threads; this can exceed {@link #elapsed()} when
+   * several threads are throttled at once
+   */
+
+  Duration throttled();
+
+  /**
+   * @return The effective number of bytes read per second
+   */
+
+  default double bytesPerSecond()
+  {
+    return perSecond(this.bytes(), this.elapsed());
+  }
+
+  /**
+   * @return The effective number of operations performed per second
+   */
+
+  default double operationsPerSecond()
+  {
+    return perSecond(this.operations(), this.elapsed());
+  }
+
+  /**
+   * @param earlier An earlier measurement from the same throttle
+   *
+   * @return The I/O performed since {@code earlier} was measured
+   */
+
+  default CatalogIOThroughput since(
+    final CatalogIOThroughputType earlier)
+  {
+    Objects.requireNonNull(earlier, "earlier");
+    return CatalogIOThroughput.builder()
+      .setBytes(Math.max(0L, this.bytes() - earlier.bytes()))
+      .setOperations(Math.max(0L, this.operations() - earlier.operations()))
+      .setElapsed(max(this.elapsed().minus(earlier.elapsed())))
+      .setThrottled(max(this.throttled().minus(earlier.throttled())))
+      .build();
+  }
+
+  /**
+   * @return A humanly-readable summary of the throughput
+   */
+
+  default String show()
+  {
+    return String.format(
+      "%d bytes (%.2f MiB/s), %d operations (%.1f/s) in %.3fs, threads throttled for %.3fs in total",
+      Long.valueOf(this.bytes()),
+      Double.valueOf(this.bytesPerSecond() / (1024.0 * 1024.0)),
+      Long.valueOf(this.operations()),
+      Double.valueOf(this.operationsPerSecond()),
+      Double.valueOf((double) this.elapsed().toNanos() / 1.0e9),
+      Double.valueOf((double) this.throttled().toNanos() / 1.0e9));
+  }
+
+  private static Duration max(final Duration d)
+  {
+    return d.isNegative() ? Duration.ZERO : d;
+  }
+
+  private static double perSecond(
+    final long count,
+    final Duration elapsed)
+  {
+    final var nanos = elapsed.toNanos();
+    if (nanos == 0L) {
+      return 0.0;
+    }
+    return (double) count * 1.0e9 / (double) nanos;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionL(
+      this.bytes(),
+      this.bytes() >= 0L,
+      x -> "Byte count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.operations(),
+      this.operations() >= 0L,
+      x -> "Operation count must be non-negative");
+    Preconditions.checkPreconditionV(
+      this.elapsed(),
+      !this.elapsed().isNegative(),
+      "Elapsed time must be non-negative");
+    Preconditions.checkPreconditionV(
+      this.throttled(),
+      !this.throttled().isNegative(),
+      "Throttled time must be non-negative");
+  }
+}
@@ -27,6 +27,8 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedMap;
@@ -45,12 +47,15 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     LOG = LoggerFactory.getLogger(CatalogJSONParser.class);
   }
 
-  private CatalogJSONParser()
-  {
+  private final CatalogStringPool strings;
 
+  private CatalogJSONParser(final CatalogStringPool in_strings)
+  {
+    this.strings = Objects.requireNonNull(in_strings, "in_strings");
   }
 
   private static void parseFilesystemNode(
+    final CatalogStringPool strings,
     final CatalogDiskBuilderType db,
     final CatalogDirectoryNode dir,
     final ObjectNode eo)
@@ -58,11 +63,11 @@ public final class CatalogJSONParser implements CatalogJSONParserType
   {
     final var type = CatalogJSONParserUtilities.getString(eo, "type");
     if ("directory".equals(type)) {
-      parseFilesystemDirectory(db, dir, eo);
+      parseFilesystemDirectory(strings, db, dir, eo);
       return;
     }
     if ("file".equals(type)) {
-      parseFilesystemFile(db, dir, eo);
+      parseFilesystemFile(strings, db, dir, eo);
       return;
     }
 
@@ -77,6 +82,7 @@ public final class CatalogJSONParser implements CatalogJSONParserType
   }
 
   private static void parseFilesystemFile(
+    final CatalogStringPool strings,
     final CatalogDiskBuilderType db,
     final CatalogDirectoryNode dir,
     final ObjectNode o)
@@ -85,9 +91,12 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     final var perms = PosixFilePermissions.fromString(
       CatalogJSONParserUtilities.getString(
         o, "permissions"));
-    final var name = CatalogJSONParserUtilities.getString(o, "name");
-    final var owner = CatalogJSONParserUtilities.getString(o, "owner");
-    final var group = CatalogJSONParserUtilities.getString(o, "group");
+    final var name =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "name"));
+    final var owner =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "owner"));
+    final var group =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "group"));
     final var size = CatalogJSONParserUtilities.getBigInteger(o, "size");
     final var inode =
       CatalogJSONParserUtilities.getBigInteger(o, "inode");
@@ -103,31 +112,59 @@ public final class CatalogJSONParser implements CatalogJSONParserType
 
     final Optional<CatalogFileHash> opt_hash;
     if (opt_hash_raw.isPresent()) {
-      final var ho = opt_hash_raw.get();
-      final var algo = CatalogJSONParserUtilities.getString(ho, "algorithm");
-      final var value = CatalogJSONParserUtilities.getString(ho, "value");
-      opt_hash = Optional.of(CatalogFileHash.builder().setAlgorithm(algo).setValue(value).build());
+      opt_hash = Optional.of(parseHash(strings, opt_hash_raw.get()));
     } else {
       opt_hash = Optional.empty();
     }
 
+    final var opt_additional_raw =
+      CatalogJSONParserUtilities.getArrayOptional(o, "additional-hashes");
+
+    final List<CatalogFileHash> additional = new ArrayList<>(2);
+    if (opt_additional_raw.isPresent()) {
+      final var hashes = opt_additional_raw.get();
+      for (var i = 0; i < hashes.size(); ++i) {
+        final var ho = CatalogJSONParserUtilities.checkObject(null, hashes.get(i));
+        additional.add(parseHash(strings, ho));
+      }
+    }
+
     final var file =
       CatalogFileNode.builder()
         .setPermissions(perms)
         .setOwner(owner)
         .setGroup(group)
-        .setId(inode)
+        .setIdValue(inode.longValue())
+        .setIdLarge(CatalogNodeType.largeValue(inode))
         .setAccessTime(access)
         .setCreationTime(create)
         .setModificationTime(modify)
-        .setSize(size)
+        .setSizeValue(size.longValue())
+        .setSizeLarge(CatalogNodeType.largeValue(size))
         .setHash(opt_hash)
+        .setAdditionalHashes(additional)
         .build();
 
     db.addNode(dir, name, file);
   }
 
+  private static CatalogFileHash parseHash(
+    final CatalogStringPool strings,
+    final ObjectNode ho)
+    throws CatalogJSONParseException
+  {
+    final var algo =
+      strings.intern(CatalogJSONParserUtilities.getString(ho, "algorithm"));
+    final var value = CatalogJSONParserUtilities.getString(ho, "value");
+    try {
+      return CatalogFileHashes.fromHex(algo, value);
+    } catch (final IllegalArgumentException e) {
+      throw new CatalogJSONParseException(e);
+    }
+  }
+
   private static void parseFilesystemDirectory(
+    final CatalogStringPool strings,
     final CatalogDiskBuilderType db,
     final CatalogDirectoryNode dir,
     final ObjectNode o)
@@ -136,9 +173,12 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     final var perms = PosixFilePermissions.fromString(
       CatalogJSONParserUtilities.getString(
         o, "permissions"));
-    final var name = CatalogJSONParserUtilities.getString(o, "name");
-    final var owner = CatalogJSONParserUtilities.getString(o, "owner");
-    final var group = CatalogJSONParserUtilities.getString(o, "group");
+    final var name =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "name"));
+    final var owner =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "owner"));
+    final var group =
+      strings.intern(CatalogJSONParserUtilities.getString(o, "group"));
     final var inode =
       CatalogJSONParserUtilities.getBigInteger(o, "inode");
     final var access =
@@ -152,7 +192,8 @@ public final class CatalogJSONParser implements CatalogJSONParserType
         .setPermissions(perms)
         .setOwner(owner)
         .setGroup(group)
-        .setId(inode)
+        .setIdValue(inode.longValue())
+        .setIdLarge(CatalogNodeType.largeValue(inode))
         .setAccessTime(access)
         .setCreationTime(create)
         .setModificationTime(modify)
@@ -164,7 +205,7 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     for (var i = 0; i < entries.size(); ++i) {
       final var ee = entries.get(i);
       final var eo = CatalogJSONParserUtilities.checkObject(null, ee);
-      parseFilesystemNode(db, dir_new, eo);
+      parseFilesystemNode(strings, db, dir_new, eo);
     }
   }
 
@@ -174,7 +215,21 @@ public final class CatalogJSONParser implements CatalogJSONParserType
 
   public static CatalogJSONParserType newParser()
   {
-    return new CatalogJSONParser();
+    return newParser(CatalogStringPool.create());
+  }
+
+  /**
+   * Construct a new parser that deduplicates names, owners, and groups using
+   * the given string pool.
+   *
+   * @param strings The string pool
+   *
+   * @return A new parser
+   */
+
+  public static CatalogJSONParserType newParser(final CatalogStringPool strings)
+  {
+    return new CatalogJSONParser(strings);
   }
 
   @Override
@@ -313,8 +368,10 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     final var perms = PosixFilePermissions.fromString(
       CatalogJSONParserUtilities.getString(
         jroot, "permissions"));
-    final var owner = CatalogJSONParserUtilities.getString(jroot, "owner");
-    final var group = CatalogJSONParserUtilities.getString(jroot, "group");
+    final var owner =
+      this.strings.intern(CatalogJSONParserUtilities.getString(jroot, "owner"));
+    final var group =
+      this.strings.intern(CatalogJSONParserUtilities.getString(jroot, "group"));
     final var inode =
       CatalogJSONParserUtilities.getBigInteger(jroot, "inode");
     final var access =
@@ -329,7 +386,8 @@ public final class CatalogJSONParser implements CatalogJSONParserType
         .setPermissions(perms)
         .setOwner(owner)
         .setGroup(group)
-        .setId(inode)
+        .setIdValue(inode.longValue())
+        .setIdLarge(CatalogNodeType.largeValue(inode))
         .setAccessTime(access)
         .setCreationTime(create)
         .setModificationTime(modify)
@@ -343,7 +401,7 @@ public final class CatalogJSONParser implements CatalogJSONParserType
     for (var i = 0; i < entries.size(); ++i) {
       final var ee = entries.get(i);
       final var eo = CatalogJSONParserUtilities.checkObject(null, ee);
-      parseFilesystemNode(db, root, eo);
+      parseFilesystemNode(this.strings, db, root, eo);
     }
 
     return db.build();
@@ -143,6 +143,29 @@ public final class CatalogJSONParserUtilities
     throw new UnreachableCodeException();
   }
 
+  /**
+   * @param key A key assumed to be holding a value
+   * @param s   A node
+   *
+   * @return An array from key {@code key}, if the key exists
+   *
+   * @throws CatalogJSONParseException On type errors
+   */
+
+  public static Optional<ArrayNode> getArrayOptional(
+    final ObjectNode s,
+    final String key)
+    throws CatalogJSONParseException
+  {
+    Objects.requireNonNull(s, "s");
+    Objects.requireNonNull(key, "key");
+
+    if (s.has(key)) {
+      return Optional.of(getArray(s, key));
+    }
+    return Optional.empty();
+  }
+
   /**
    * @param key A key assumed to be holding a value
    * @param o   A node
@@ -530,6 +553,9 @@ public final class CatalogJSONParserUtilities
         throw new CatalogJSONParseException(m);
       }
       case NUMBER: {
+        if (v.isIntegralNumber() && v.canConvertToLong()) {
+          return BigInteger.valueOf(v.longValue());
+        }
         try {
           return new BigInteger(v.asText());
         } catch (final NumberFormatException e) {
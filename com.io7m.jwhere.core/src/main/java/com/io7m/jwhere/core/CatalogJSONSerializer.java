@@ -16,17 +16,21 @@
 
 package com.io7m.jwhere.core;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.io7m.junreachable.UnreachableCodeException;
 import org.jgrapht.graph.AsUnmodifiableGraph;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -40,9 +44,41 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
 
   }
 
-  private static ObjectNode serializeFile(
+  /*
+   * Integer values are written as plain long nodes whenever they fit, which
+   * avoids the BigInteger formatting path. The JSON text is identical.
+   */
+
+  private static JsonNode integerNode(final BigInteger x)
+  {
+    if (x.bitLength() < 64) {
+      return LongNode.valueOf(x.longValue());
+    }
+    return new BigIntegerNode(x);
+  }
+
+  private static JsonNode integerNode(
+    final long value,
+    final Optional<BigInteger> large)
+  {
+    if (large.isPresent()) {
+      return new BigIntegerNode(large.get());
+    }
+    return LongNode.valueOf(value);
+  }
+
+  private static JsonNode idNode(final CatalogNodeType node)
+  {
+    return integerNode(node.idValue(), node.idLarge());
+  }
+
+  private static JsonNode sizeNode(final CatalogFileNodeType node)
+  {
+    return integerNode(node.sizeValue(), node.sizeLarge());
+  }
+
+  static ObjectNode serializeFile(
     final ObjectMapper jom,
-    final AsUnmodifiableGraph<CatalogNodeType, CatalogDirectoryEntry> g,
     final CatalogFileNodeType node,
     final String name)
   {
@@ -53,13 +89,13 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
     final var jout = jom.createObjectNode();
     jout.put("type", "file");
     jout.put("name", name);
-    jout.set("size", new BigIntegerNode(node.size()));
+    jout.set("size", sizeNode(node));
     jout.put("owner", node.owner());
     jout.put("group", node.group());
     jout.put("access-time", atime.toString());
     jout.put("modification-time", mtime.toString());
     jout.put("creation-time", ctime.toString());
-    jout.set("inode", new BigIntegerNode(node.id()));
+    jout.set("inode", idNode(node));
     jout.put(
       "permissions", PosixFilePermissions.toString(node.permissions()));
 
@@ -70,6 +106,15 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
       jout.set("hash", jhash);
     }
 
+    final var additional = node.additionalHashes();
+    if (!additional.isEmpty()) {
+      final var jhashes = jom.createArrayNode();
+      for (final var hash : additional) {
+        jhashes.add(serializeHash(jom, hash));
+      }
+      jout.set("additional-hashes", jhashes);
+    }
+
     return jout;
   }
 
@@ -96,7 +141,7 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
         @Override
         public ObjectNode onFile(final CatalogFileNodeType f)
         {
-          return serializeFile(jom, g, f, name);
+          return serializeFile(jom, f, name);
         }
 
         @Override
@@ -112,6 +157,29 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
     final AsUnmodifiableGraph<CatalogNodeType, CatalogDirectoryEntry> g,
     final CatalogDirectoryNodeType node,
     final String name)
+  {
+    final var jout = serializeDirectoryAttributes(jom, node, name);
+    final var ee = jom.createArrayNode();
+    final var oe = g.outgoingEdgesOf(node);
+    for (final var edge : oe) {
+      final var e_name = edge.getName();
+      final var e_node = edge.getTarget();
+      ee.add(serializeNode(jom, g, e_node, e_name));
+    }
+
+    jout.set("entries", ee);
+    return jout;
+  }
+
+  /*
+   * Every field of a directory except for its entries, which are always
+   * written last.
+   */
+
+  static ObjectNode serializeDirectoryAttributes(
+    final ObjectMapper jom,
+    final CatalogDirectoryNodeType node,
+    final String name)
   {
     final var atime = node.accessTime();
     final var mtime = node.modificationTime();
@@ -125,19 +193,9 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
     jout.put("access-time", atime.toString());
     jout.put("modification-time", mtime.toString());
     jout.put("creation-time", ctime.toString());
-    jout.set("inode", new BigIntegerNode(node.id()));
+    jout.set("inode", idNode(node));
     jout.put(
       "permissions", PosixFilePermissions.toString(node.permissions()));
-
-    final var ee = jom.createArrayNode();
-    final var oe = g.outgoingEdgesOf(node);
-    for (final var edge : oe) {
-      final var e_name = edge.getName();
-      final var e_node = edge.getTarget();
-      ee.add(serializeNode(jom, g, e_node, e_name));
-    }
-
-    jout.set("entries", ee);
     return jout;
   }
 
@@ -217,21 +275,29 @@ public final class CatalogJSONSerializer implements CatalogJSONSerializerType
     Objects.requireNonNull(d, "d");
 
     final var jom = new ObjectMapper();
-    final var jd = jom.createObjectNode();
-
     final var jfs = serializeDirectory(
       jom, d.getFilesystemGraph(), d.getFilesystemRoot(), "/");
 
-    jd.put("type", "disk");
+    final var jd = serializeDiskAttributes(jom, d.getMeta());
+    jd.set("disk-filesystem-root", jfs);
+    return jd;
+  }
 
-    final var meta = d.getMeta();
+  /*
+   * Every field of a disk except for its filesystem root, which is always
+   * written last.
+   */
 
+  static ObjectNode serializeDiskAttributes(
+    final ObjectMapper jom,
+    final CatalogDiskMetadata meta)
+  {
+    final var jd = jom.createObjectNode();
+    jd.put("type", "disk");
     jd.put("disk-name", meta.getDiskName().value());
-    jd.set("disk-size", new BigIntegerNode(meta.getSize()));
-    jd.set("disk-id", new BigIntegerNode(meta.getDiskID().value()));
+    jd.set("disk-size", integerNode(meta.getSize()));
+    jd.set("disk-id", integerNode(meta.getDiskID().value()));
     jd.put("disk-filesystem-type", meta.getFilesystemType());
-    jd.set("disk-filesystem-root", jfs);
-
     return jd;
   }
 }
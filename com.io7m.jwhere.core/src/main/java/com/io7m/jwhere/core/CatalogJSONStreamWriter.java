@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>A writer that produces a catalog incrementally, so that a disk can be
+ * written as it is scanned without ever being held in memory.</p>
+ *
+ * <p>Disks already held in memory are written with {@link #writeDisk(CatalogDisk)}; a disk that
+ * is being scanned is written by passing the writer as the receiver to
+ * {@link CatalogFilesystemReader#streamDisk(CatalogDiskName, CatalogDiskID, java.nio.file.Path,
+ * CatalogScanSettings, CatalogScanContext, CatalogDiskReceiverType)}. The
+ * catalog is completed when the writer is closed. The output is identical to that of
+ * {@link CatalogJSONSerializerType#serializeCatalogToStream(Catalog, OutputStream)} for a
+ * catalog containing the same disks in the same order; callers are responsible for writing
+ * disks in ascending order of their IDs.</p>
+ *
+ * <p>If the writer is closed while a disk is incomplete, the output is not a valid catalog.</p>
+ */
+
+public final class CatalogJSONStreamWriter
+  implements CatalogDiskReceiverType, Closeable
+{
+  private final ObjectMapper mapper;
+  private final JsonGenerator generator;
+  private final CatalogJSONSerializerType serializer;
+  private boolean disk_open;
+  private int depth;
+  private long disks;
+
+  private CatalogJSONStreamWriter(
+    final ObjectMapper in_mapper,
+    final JsonGenerator in_generator)
+  {
+    this.mapper = Objects.requireNonNull(in_mapper, "mapper");
+    this.generator = Objects.requireNonNull(in_generator, "generator");
+    this.serializer = CatalogJSONSerializer.newSerializer();
+  }
+
+  /**
+   * Start writing a catalog to the given stream. The stream is closed when
+   * the writer is closed.
+   *
+   * @param os The output stream
+   *
+   * @return A catalog writer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CatalogJSONStreamWriter open(final OutputStream os)
+    throws IOException
+  {
+    Objects.requireNonNull(os, "os");
+
+    final var mapper = new ObjectMapper();
+    final var generator =
+      mapper.getFactory().createGenerator(os, JsonEncoding.UTF8);
+    generator.useDefaultPrettyPrinter();
+
+    /*
+     * An incomplete disk must not be silently turned into a valid catalog
+     * by the generator closing any open objects.
+     */
+
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+    final var writer = new CatalogJSONStreamWriter(mapper, generator);
+    writer.writeHeader();
+    return writer;
+  }
+
+  /**
+   * Start writing a catalog to the path given by the save specification,
+   * replacing any existing file.
+   *
+   * @param s The specification of where the catalog should go
+   *
+   * @return A catalog writer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CatalogJSONStreamWriter open(final CatalogSaveSpecification s)
+    throws IOException
+  {
+    Objects.requireNonNull(s, "s");
+
+    final OutputStream os = Files.newOutputStream(s.path());
+    try {
+      if (s.compress() == CatalogCompress.COMPRESS_GZIP) {
+        return open(new GZIPOutputStream(os));
+      }
+      return open(os);
+    } catch (final IOException e) {
+      os.close();
+      throw e;
+    }
+  }
+
+  private void writeHeader()
+    throws IOException
+  {
+    this.generator.writeStartObject();
+    this.generator.writeStringField("schema", "http://schemas.io7m.com/jwhere");
+    this.generator.writeStringField("schema-version", "1.0.0");
+    this.generator.writeObjectFieldStart("catalog");
+    this.generator.writeStringField("type", "catalog");
+    this.generator.writeArrayFieldStart("catalog-disks");
+  }
+
+  private void writeFields(final ObjectNode node)
+    throws IOException
+  {
+    final var iter = node.fields();
+    while (iter.hasNext()) {
+      final var field = iter.next();
+      this.generator.writeFieldName(field.getKey());
+      this.mapper.writeTree(this.generator, field.getValue());
+    }
+  }
+
+  /**
+   * @return The number of disks written so far
+   */
+
+  public long diskCount()
+  {
+    return this.disks;
+  }
+
+  /**
+   * Write a complete disk.
+   *
+   * @param d The disk
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void writeDisk(final CatalogDisk d)
+    throws IOException
+  {
+    Objects.requireNonNull(d, "d");
+    Preconditions.checkPreconditionV(
+      !this.disk_open, "A disk must not be in progress");
+
+    this.mapper.writeTree(this.generator, this.serializer.serializeDisk(d));
+    ++this.disks;
+  }
+
+  @Override
+  public void onDiskStarted(final CatalogDiskMetadata meta)
+    throws IOException
+  {
+    Objects.requireNonNull(meta, "meta");
+    Preconditions.checkPreconditionV(
+      !this.disk_open, "A disk must not be in progress");
+
+    this.generator.writeStartObject();
+    this.writeFields(
+      CatalogJSONSerializer.serializeDiskAttributes(this.mapper, meta));
+    this.generator.writeFieldName("disk-filesystem-root");
+    this.disk_open = true;
+  }
+
+  @Override
+  public void onDirectoryEntered(
+    final String name,
+    final CatalogDirectoryNode directory)
+    throws IOException
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(directory, "directory");
+    Preconditions.checkPreconditionV(
+      this.disk_open, "A disk must be in progress");
+
+    this.generator.writeStartObject();
+    this.writeFields(
+      CatalogJSONSerializer.serializeDirectoryAttributes(
+        this.mapper, directory, name));
+    this.generator.writeArrayFieldStart("entries");
+    ++this.depth;
+  }
+
+  @Override
+  public void onFile(
+    final String name,
+    final CatalogFileNode file)
+    throws IOException
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(file, "file");
+    Preconditions.checkPreconditionV(
+      this.depth > 0, "A directory must be open");
+
+    this.mapper.writeTree(
+      this.generator,
+      CatalogJSONSerializer.serializeFile(this.mapper, file, name));
+  }
+
+  @Override
+  public void onDirectoryLeft(final CatalogDirectoryNode directory)
+    throws IOException
+  {
+    Objects.requireNonNull(directory, "directory");
+    Preconditions.checkPreconditionV(
+      this.depth > 0, "A directory must be open");
+
+    this.generator.writeEndArray();
+    this.generator.writeEndObject();
+    --this.depth;
+  }
+
+  @Override
+  public void onDiskFinished()
+    throws IOException
+  {
+    Preconditions.checkPreconditionV(
+      this.disk_open && this.depth == 0,
+      "A disk must be in progress with no open directories");
+
+    this.generator.writeEndObject();
+    this.disk_open = false;
+    ++this.disks;
+  }
+
+  /**
+   * Complete the catalog, if no disk is in progress, and close the
+   * underlying stream.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      if (!this.disk_open) {
+        this.generator.writeEndArray();
+        this.generator.writeEndObject();
+        this.generator.writeEndObject();
+      }
+    } finally {
+      this.generator.close();
+    }
+  }
+}
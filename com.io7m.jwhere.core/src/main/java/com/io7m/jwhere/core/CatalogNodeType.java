@@ -19,6 +19,7 @@ package com.io7m.jwhere.core;
 import java.math.BigInteger;
 import java.nio.file.attribute.PosixFilePermission;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -64,7 +65,42 @@ public interface CatalogNodeType
    * @return The node's filesystem inode value
    */
 
-  BigInteger id();
+  default BigInteger id()
+  {
+    final var large = this.idLarge();
+    if (large.isPresent()) {
+      return large.get();
+    }
+    return BigInteger.valueOf(this.idValue());
+  }
+
+  /**
+   * @return The low 64 bits of the node's filesystem inode value; the entire
+   * value unless {@link #idLarge()} is present
+   */
+
+  long idValue();
+
+  /**
+   * @return The node's filesystem inode value, if it cannot be represented
+   * as a {@code long}
+   */
+
+  Optional<BigInteger> idLarge();
+
+  /**
+   * @return The node's filesystem inode value as a {@code long}
+   *
+   * @throws ArithmeticException If the value cannot be represented as a {@code long}
+   */
+
+  default long idLongExact()
+  {
+    if (this.idLarge().isPresent()) {
+      throw new ArithmeticException("Inode value does not fit into a long");
+    }
+    return this.idValue();
+  }
 
   /**
    * @return The node's time of creation
@@ -83,4 +119,42 @@ public interface CatalogNodeType
    */
 
   Instant accessTime();
+
+  /**
+   * Split a value into the representation used by {@link #idValue()} and
+   * {@link #idLarge()}.
+   *
+   * @param value The value
+   *
+   * @return {@code value}, if it cannot be represented as a {@code long}
+   */
+
+  static Optional<BigInteger> largeValue(final BigInteger value)
+  {
+    if (value.bitLength() < 64) {
+      return Optional.empty();
+    }
+    return Optional.of(value);
+  }
+
+  /**
+   * Check that a value is in the representation produced by
+   * {@link #largeValue(BigInteger)}.
+   *
+   * @param value The low 64 bits of the value
+   * @param large The value, if it cannot be represented as a {@code long}
+   *
+   * @return {@code true} iff the representation is canonical
+   */
+
+  static boolean isCanonicalValue(
+    final long value,
+    final Optional<BigInteger> large)
+  {
+    if (large.isEmpty()) {
+      return true;
+    }
+    final var x = large.get();
+    return x.bitLength() >= 64 && x.longValue() == value;
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * <p>The shared, mutable state used by a scan or verification: the pool
+ * through which names, owners, and groups are deduplicated, the throttle
+ * through which all I/O is made, and the record of the progress of the
+ * scan.</p>
+ *
+ * <p>Unlike {@link CatalogScanSettings}, a context is not a description of
+ * a scan; the objects it holds are compared by identity, and may be shared
+ * between scans (for example, so that several scans are throttled
+ * together).</p>
+ *
+ * @see CatalogFilesystemReader#newDisk(CatalogDiskName, CatalogDiskID,
+ * java.nio.file.Path, CatalogScanSettings, CatalogScanContext)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogScanContextType
+{
+  /**
+   * @return The pool used to deduplicate names, owners, and groups
+   */
+
+  @Value.Default
+  default CatalogStringPool strings()
+  {
+    return CatalogStringPool.create();
+  }
+
+  /**
+   * @return The throttle through which every file read and filesystem
+   * operation is made
+   */
+
+  @Value.Default
+  default CatalogIOThrottle throttle()
+  {
+    return CatalogIOThrottle.unlimited();
+  }
+
+  /**
+   * @return The record of the progress of the scan or verification
+   */
+
+  @Value.Default
+  default CatalogScanProgress progress()
+  {
+    return CatalogScanProgress.create();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * The size of a directory tree, counted before it is scanned so that the
+ * progress of the scan can be estimated.
+ *
+ * @see CatalogFilesystemReader#estimate(java.nio.file.Path, CatalogIOThrottle)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogScanEstimateType
+{
+  /**
+   * @return The number of directories, including the root directory
+   */
+
+  long directories();
+
+  /**
+   * @return The number of regular files
+   */
+
+  long files();
+
+  /**
+   * @return The total size in bytes of the regular files
+   */
+
+  long bytes();
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionL(
+      this.directories(),
+      this.directories() >= 0L,
+      x -> "Directory count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.files(),
+      this.files() >= 0L,
+      x -> "File count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.bytes(),
+      this.bytes() >= 0L,
+      x -> "Byte count must be non-negative");
+  }
+}
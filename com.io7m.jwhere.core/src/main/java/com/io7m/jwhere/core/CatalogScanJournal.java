@@ -0,0 +1,409 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A journal of the files hashed during a scan, so that a scan that is
+ * interrupted can be resumed without hashing those files again.</p>
+ *
+ * <p>The journal is a file containing one JSON object per line. The first
+ * line identifies the file as a journal; each following line records the
+ * path of a file relative to the root of the scan, its size, modification
+ * time, and creation time, and the hashes produced for it. Lines are
+ * appended as files are hashed and the journal is checkpointed (flushed and
+ * forced to the storage device) at most once per checkpoint interval, and
+ * when it is closed. A line left incomplete by a crash is discarded when the
+ * journal is resumed.</p>
+ *
+ * <p>When a journal is resumed, a file is considered to have been hashed if
+ * it has a record with the same size, modification time, and creation time,
+ * and with hashes for exactly the requested algorithms.</p>
+ *
+ * @see CatalogScanSettings#journal()
+ */
+
+@ThreadSafe
+public final class CatalogScanJournal implements Closeable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CatalogScanJournal.class);
+
+  private static final String TYPE = "scan-journal";
+
+  private final ObjectMapper mapper;
+  private final FileChannel channel;
+  private final Writer writer;
+  private final Map<String, Entry> completed;
+  private final long interval;
+  private long checkpoint_last;
+  private long recorded;
+
+  private CatalogScanJournal(
+    final FileChannel in_channel,
+    final Map<String, Entry> in_completed,
+    final Duration in_interval)
+  {
+    this.channel = Objects.requireNonNull(in_channel, "channel");
+    this.completed = Objects.requireNonNull(in_completed, "completed");
+    this.interval = in_interval.toNanos();
+    this.mapper = new ObjectMapper();
+    this.writer =
+      new BufferedWriter(
+        new OutputStreamWriter(
+          Channels.newOutputStream(in_channel), StandardCharsets.UTF_8),
+        65536);
+    this.checkpoint_last = System.nanoTime();
+  }
+
+  /**
+   * Open a journal. If {@code resume} is {@code true} and the journal
+   * exists, the files recorded in it are considered to have been hashed, and
+   * new records are appended to it. Otherwise, a new, empty journal is
+   * created, replacing any existing file.
+   *
+   * @param file     The journal file
+   * @param interval The minimum interval between checkpoints
+   * @param resume   {@code true} if an existing journal should be resumed
+   *
+   * @return A journal
+   *
+   * @throws IOException               On I/O errors
+   * @throws CatalogJSONParseException If an existing journal is malformed
+   */
+
+  public static CatalogScanJournal open(
+    final Path file,
+    final Duration interval,
+    final boolean resume)
+    throws IOException, CatalogJSONParseException
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(interval, "interval");
+
+    if (resume && Files.exists(file)) {
+      final var mapper = new ObjectMapper();
+      final var completed = new HashMap<String, Entry>();
+      final var end = readEntries(mapper, file, completed);
+      LOG.debug("resuming journal {} with {} files", file, completed.size());
+
+      final var channel =
+        FileChannel.open(file, StandardOpenOption.WRITE);
+      try {
+        channel.truncate(end);
+        channel.position(end);
+        final var journal = new CatalogScanJournal(channel, completed, interval);
+        if (end == 0L) {
+          journal.writeHeader();
+        }
+        return journal;
+      } catch (final IOException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    final var channel =
+      FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE);
+    try {
+      final var journal = new CatalogScanJournal(channel, new HashMap<>(), interval);
+      journal.writeHeader();
+      return journal;
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /*
+   * Read every complete line of the journal, returning the offset of the
+   * end of the last complete line. A final line without a terminating
+   * newline was being written when the scan stopped, and is ignored.
+   */
+
+  private static long readEntries(
+    final ObjectMapper mapper,
+    final Path file,
+    final Map<String, Entry> completed)
+    throws IOException, CatalogJSONParseException
+  {
+    try (InputStream stream =
+           new BufferedInputStream(Files.newInputStream(file), 65536)) {
+      final var line = new ByteArrayOutputStream(256);
+      var position = 0L;
+      var end = 0L;
+      var first = true;
+
+      while (true) {
+        final var b = stream.read();
+        if (b == -1) {
+          break;
+        }
+        ++position;
+        if (b != (int) '\n') {
+          line.write(b);
+          continue;
+        }
+
+        final var text = line.toString(StandardCharsets.UTF_8);
+        line.reset();
+        final var jin =
+          CatalogJSONParserUtilities.checkObject(null, mapper.readTree(text));
+
+        if (first) {
+          CatalogJSONParserUtilities.getStringWithValue(jin, "type", TYPE);
+          first = false;
+        } else {
+          final var jpath = CatalogJSONParserUtilities.getArray(jin, "path");
+          final var names = new ArrayList<String>(jpath.size());
+          for (var index = 0; index < jpath.size(); ++index) {
+            names.add(jpath.get(index).asText());
+          }
+
+          final var jhashes = CatalogJSONParserUtilities.getArray(jin, "hashes");
+          final var hashes = new ArrayList<CatalogFileHash>(jhashes.size());
+          for (var index = 0; index < jhashes.size(); ++index) {
+            final var jhash =
+              CatalogJSONParserUtilities.checkObject(null, jhashes.get(index));
+            try {
+              hashes.add(
+                CatalogFileHashes.fromHex(
+                  CatalogJSONParserUtilities.getString(jhash, "algorithm"),
+                  CatalogJSONParserUtilities.getString(jhash, "value")));
+            } catch (final IllegalArgumentException e) {
+              throw new CatalogJSONParseException(e);
+            }
+          }
+
+          completed.put(
+            String.join("/", names),
+            new Entry(
+              CatalogJSONParserUtilities.getBigInteger(jin, "size").longValueExact(),
+              CatalogJSONParserUtilities.getInstant(jin, "modification-time"),
+              CatalogJSONParserUtilities.getInstant(jin, "creation-time"),
+              List.copyOf(hashes)));
+        }
+        end = position;
+      }
+      return end;
+    } catch (final ArithmeticException e) {
+      throw new CatalogJSONParseException(e);
+    }
+  }
+
+  private static String key(final Path relative)
+  {
+    final var names = new ArrayList<String>(relative.getNameCount());
+    for (final var name : relative) {
+      names.add(name.toString());
+    }
+    return String.join("/", names);
+  }
+
+  private void writeHeader()
+    throws IOException
+  {
+    final var jout = this.mapper.createObjectNode();
+    jout.put("type", TYPE);
+    jout.put("version", 1);
+    this.writer.write(this.mapper.writeValueAsString(jout));
+    this.writer.write('\n');
+    this.checkpoint();
+  }
+
+  /**
+   * @return The number of files recorded in the journal when it was resumed
+   */
+
+  public long resumedCount()
+  {
+    return (long) this.completed.size();
+  }
+
+  /**
+   * @return The number of files recorded since the journal was opened
+   */
+
+  public synchronized long recordedCount()
+  {
+    return this.recorded;
+  }
+
+  /**
+   * Find the hashes recorded for a file when the journal was resumed.
+   *
+   * @param relative   The path of the file relative to the root of the scan
+   * @param attrs      The current attributes of the file
+   * @param algorithms The names of the requested hash algorithms
+   *
+   * @return The recorded hashes, if the file is unchanged since it was
+   * recorded and was hashed with exactly the requested algorithms
+   */
+
+  public Optional<List<CatalogFileHash>> completed(
+    final Path relative,
+    final BasicFileAttributes attrs,
+    final List<String> algorithms)
+  {
+    Objects.requireNonNull(relative, "relative");
+    Objects.requireNonNull(attrs, "attrs");
+    Objects.requireNonNull(algorithms, "algorithms");
+
+    if (this.completed.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final var entry = this.completed.get(key(relative));
+    if (entry == null
+      || entry.size != attrs.size()
+      || !entry.modified.equals(attrs.lastModifiedTime().toInstant())
+      || !entry.created.equals(attrs.creationTime().toInstant())
+      || entry.hashes.size() != algorithms.size()) {
+      return Optional.empty();
+    }
+
+    for (var index = 0; index < algorithms.size(); ++index) {
+      if (!entry.hashes.get(index).algorithm().equals(algorithms.get(index))) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(entry.hashes);
+  }
+
+  /**
+   * Record the hashes produced for a file, checkpointing the journal if the
+   * checkpoint interval has elapsed.
+   *
+   * @param relative The path of the file relative to the root of the scan
+   * @param attrs    The attributes of the file when it was hashed
+   * @param hashes   The hashes
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public synchronized void record(
+    final Path relative,
+    final BasicFileAttributes attrs,
+    final List<CatalogFileHash> hashes)
+    throws IOException
+  {
+    Objects.requireNonNull(relative, "relative");
+    Objects.requireNonNull(attrs, "attrs");
+    Objects.requireNonNull(hashes, "hashes");
+
+    final var jout = this.mapper.createObjectNode();
+    final var jpath = jout.putArray("path");
+    for (final var name : relative) {
+      jpath.add(name.toString());
+    }
+    jout.put("size", attrs.size());
+    jout.put("modification-time", attrs.lastModifiedTime().toInstant().toString());
+    jout.put("creation-time", attrs.creationTime().toInstant().toString());
+    final var jhashes = jout.putArray("hashes");
+    for (final var hash : hashes) {
+      final var jhash = jhashes.addObject();
+      jhash.put("algorithm", hash.algorithm());
+      jhash.put("value", hash.value());
+    }
+
+    this.writer.write(this.mapper.writeValueAsString(jout));
+    this.writer.write('\n');
+    ++this.recorded;
+
+    if (System.nanoTime() - this.checkpoint_last >= this.interval) {
+      this.checkpoint();
+    }
+  }
+
+  /**
+   * Write all recorded files to the storage device.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public synchronized void checkpoint()
+    throws IOException
+  {
+    this.writer.flush();
+    this.channel.force(false);
+    this.checkpoint_last = System.nanoTime();
+  }
+
+  @Override
+  public synchronized void close()
+    throws IOException
+  {
+    try {
+      this.checkpoint();
+    } finally {
+      this.writer.close();
+    }
+  }
+
+  private static final class Entry
+  {
+    private final long size;
+    private final Instant modified;
+    private final Instant created;
+    private final List<CatalogFileHash> hashes;
+
+    Entry(
+      final long in_size,
+      final Instant in_modified,
+      final Instant in_created,
+      final List<CatalogFileHash> in_hashes)
+    {
+      this.size = in_size;
+      this.modified = in_modified;
+      this.created = in_created;
+      this.hashes = in_hashes;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A record of the progress of a scan or verification, updated by the
+ * threads performing it and read by any other thread with
+ * {@link #status()}.</p>
+ *
+ * <p>Progress counts the directories visited, the files completed (a file
+ * waiting to be hashed or verified is not yet counted), the bytes read from
+ * files, and the time that hashing threads spend reading data and digesting
+ * it. If reading takes most of the time, the scan is bound by I/O; if
+ * digesting does, it is bound by the CPU. The depth of the queue of files
+ * waiting to be hashed or verified shows whether the filesystem walk is
+ * waiting for hashing. If an {@link #setEstimate(CatalogScanEstimate)
+ * estimate} of the size of the tree has been provided, the status also
+ * estimates the fraction of the scan completed and the time remaining.</p>
+ */
+
+@ThreadSafe
+public final class CatalogScanProgress
+{
+  private volatile long start;
+  private final LongAdder directories;
+  private final LongAdder files;
+  private final LongAdder file_bytes;
+  private final LongAdder bytes_read;
+  private final LongAdder time_read;
+  private final LongAdder time_digest;
+  private volatile long queue_depth;
+  private volatile CatalogScanEstimate estimate;
+
+  private CatalogScanProgress()
+  {
+    this.start = System.nanoTime();
+    this.directories = new LongAdder();
+    this.files = new LongAdder();
+    this.file_bytes = new LongAdder();
+    this.bytes_read = new LongAdder();
+    this.time_read = new LongAdder();
+    this.time_digest = new LongAdder();
+  }
+
+  /**
+   * @return A new progress record, measuring time from now until a scan or
+   * verification that uses it begins, and from the start of that scan
+   * thereafter
+   */
+
+  public static CatalogScanProgress create()
+  {
+    return new CatalogScanProgress();
+  }
+
+  /**
+   * Set the estimated size of the tree being scanned.
+   *
+   * @param in_estimate The estimate
+   *
+   * @see CatalogFilesystemReader#estimate(java.nio.file.Path, CatalogIOThrottle)
+   */
+
+  public void setEstimate(final CatalogScanEstimate in_estimate)
+  {
+    this.estimate = Objects.requireNonNull(in_estimate, "estimate");
+  }
+
+  /**
+   * @return The current status of the scan
+   */
+
+  public CatalogScanStatus status()
+  {
+    return CatalogScanStatus.builder()
+      .setDirectories(this.directories.sum())
+      .setFiles(this.files.sum())
+      .setFileBytes(this.file_bytes.sum())
+      .setBytesRead(this.bytes_read.sum())
+      .setQueueDepth(this.queue_depth)
+      .setReadTime(Duration.ofNanos(this.time_read.sum()))
+      .setDigestTime(Duration.ofNanos(this.time_digest.sum()))
+      .setElapsed(Duration.ofNanos(System.nanoTime() - this.start))
+      .setEstimate(Optional.ofNullable(this.estimate))
+      .build();
+  }
+
+  /*
+   * Anything done before the scan starts (such as estimating the size of the
+   * tree) does not count towards the elapsed time of the scan.
+   */
+
+  void onStarted()
+  {
+    this.start = System.nanoTime();
+  }
+
+  void onDirectory()
+  {
+    this.directories.increment();
+  }
+
+  void onFile(final long size)
+  {
+    this.files.increment();
+    this.file_bytes.add(size);
+  }
+
+  void onRead(
+    final long bytes,
+    final long nanos)
+  {
+    this.bytes_read.add(bytes);
+    this.time_read.add(nanos);
+  }
+
+  void onDigest(final long nanos)
+  {
+    this.time_digest.add(nanos);
+  }
+
+  /*
+   * The queue is owned by the walking thread, so only that thread writes
+   * its depth.
+   */
+
+  void setQueueDepth(final long depth)
+  {
+    this.queue_depth = depth;
+  }
+}
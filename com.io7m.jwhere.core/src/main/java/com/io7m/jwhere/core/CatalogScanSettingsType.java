@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Settings for scanning a filesystem into a new disk.
+ *
+ * @see CatalogFilesystemReader#newDisk(CatalogDiskName, CatalogDiskID, java.nio.file.Path,
+ * CatalogScanSettings, CatalogScanContext)
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogScanSettingsType
+{
+  /**
+   * @return The number of threads used to traverse the filesystem. A value of
+   * {@code 1} walks the filesystem on the calling thread. Larger values scan
+   * sibling directories concurrently on a fork/join pool; in that case,
+   * files are hashed by the traversal threads and {@link #hashThreads()} and
+   * {@link #hashQueueCapacity()} are ignored.
+   */
+
+  @Value.Default
+  default int traversalThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * @return The maximum number of directories that may be queued for, or
+   * held after, scanning by the traversal threads before they have been
+   * added to the disk. Only relevant if {@link #traversalThreads()} is
+   * greater than {@code 1}.
+   */
+
+  @Value.Default
+  default int traversalQueueCapacity()
+  {
+    return 64;
+  }
+
+  /**
+   * @return The number of threads used to hash files. A value of {@code 1}
+   * hashes each file on the thread walking the filesystem.
+   */
+
+  @Value.Default
+  default int hashThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * @return The maximum number of files that may be queued for hashing
+   * before the filesystem walk pauses to wait for hashes to complete
+   */
+
+  @Value.Default
+  default int hashQueueCapacity()
+  {
+    return 256;
+  }
+
+  /**
+   * @return The name of the algorithm used to hash files
+   *
+   * @see CatalogHashAlgorithms#forName(String)
+   */
+
+  @Value.Default
+  default String hashAlgorithm()
+  {
+    return CatalogHashAlgorithms.SHA_256.name();
+  }
+
+  /**
+   * @return The names of algorithms used to produce additional hashes of
+   * each file, in the same read of the file as {@link #hashAlgorithm()}
+   *
+   * @see CatalogFileNodeType#additionalHashes()
+   */
+
+  List<String> additionalHashAlgorithms();
+
+  /**
+   * @return The hash algorithm followed by any additional hash algorithms
+   */
+
+  default List<String> hashAlgorithms()
+  {
+    final var additional = this.additionalHashAlgorithms();
+    final var results = new ArrayList<String>(1 + additional.size());
+    results.add(this.hashAlgorithm());
+    results.addAll(additional);
+    return results;
+  }
+
+  /**
+   * @return The settings for the engine used to hash files
+   */
+
+  @Value.Default
+  default CatalogFileHashEngineSettings hashEngine()
+  {
+    return CatalogFileHashEngineSettings.builder().build();
+  }
+
+  /**
+   * @return The file to which the hashes of scanned files are journaled, so
+   * that an interrupted scan can be resumed
+   *
+   * @see CatalogScanJournal
+   */
+
+  Optional<Path> journal();
+
+  /**
+   * @return {@code true} if an existing {@link #journal()} should be resumed;
+   * files recorded in the journal that are unchanged on disk are not hashed
+   * again
+   */
+
+  @Value.Default
+  default boolean resume()
+  {
+    return false;
+  }
+
+  /**
+   * @return The minimum interval between writes of the {@link #journal()} to
+   * the storage device
+   */
+
+  @Value.Default
+  default Duration checkpointInterval()
+  {
+    return Duration.ofSeconds(30L);
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final var algorithms = new HashSet<String>(4);
+    for (final var algorithm : this.hashAlgorithms()) {
+      Preconditions.checkPreconditionV(
+        algorithm,
+        CatalogHashAlgorithms.forName(algorithm).isPresent(),
+        "Hash algorithm must be supported");
+      Preconditions.checkPreconditionV(
+        algorithm,
+        algorithms.add(algorithm),
+        "Hash algorithms must be unique");
+    }
+    Preconditions.checkPreconditionI(
+      this.traversalThreads(),
+      this.traversalThreads() >= 1,
+      i -> "Traversal thread count must be positive");
+    Preconditions.checkPreconditionI(
+      this.traversalQueueCapacity(),
+      this.traversalQueueCapacity() >= 1,
+      i -> "Traversal queue capacity must be positive");
+    Preconditions.checkPreconditionI(
+      this.hashThreads(),
+      this.hashThreads() >= 1,
+      i -> "Hash thread count must be positive");
+    Preconditions.checkPreconditionI(
+      this.hashQueueCapacity(),
+      this.hashQueueCapacity() >= 1,
+      i -> "Hash queue capacity must be positive");
+    Preconditions.checkPrecondition(
+      this.checkpointInterval(),
+      !this.checkpointInterval().isNegative(),
+      d -> "Checkpoint interval must be non-negative");
+    Preconditions.checkPrecondition(
+      this.journal(),
+      !this.resume() || this.journal().isPresent(),
+      j -> "Resuming a scan requires a journal");
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * The status of a scan or verification at a moment in time.
+ *
+ * @see CatalogScanProgress#status()
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogScanStatusType
+{
+  /**
+   * @return The number of directories visited
+   */
+
+  long directories();
+
+  /**
+   * @return The number of regular files completed: hashed or verified,
+   * or found to need neither
+   */
+
+  long files();
+
+  /**
+   * @return The total size in bytes of the regular files completed,
+   * whether or not they were read
+   */
+
+  long fileBytes();
+
+  /**
+   * @return The number of bytes read in order to hash files
+   */
+
+  long bytesRead();
+
+  /**
+   * @return The number of files waiting to be hashed or verified
+   */
+
+  long queueDepth();
+
+  /**
+   * @return The total time that threads spent reading file data
+   */
+
+  Duration readTime();
+
+  /**
+   * @return The total time that threads spent digesting file data
+   */
+
+  Duration digestTime();
+
+  /**
+   * @return The time over which the scan was performed
+   */
+
+  Duration elapsed();
+
+  /**
+   * @return The estimated size of the tree being scanned, if one was
+   * provided
+   */
+
+  Optional<CatalogScanEstimate> estimate();
+
+  /**
+   * @return The number of files visited per second
+   */
+
+  default double filesPerSecond()
+  {
+    return perSecond(this.files(), this.elapsed());
+  }
+
+  /**
+   * @return The number of bytes read per second
+   */
+
+  default double bytesReadPerSecond()
+  {
+    return perSecond(this.bytesRead(), this.elapsed());
+  }
+
+  /**
+   * @return The fraction, between {@code 0} and {@code 1}, of the time spent
+   * hashing that was spent reading rather than digesting
+   */
+
+  default double readFraction()
+  {
+    final var read = this.readTime().toNanos();
+    final var total = read + this.digestTime().toNanos();
+    if (total == 0L) {
+      return 0.0;
+    }
+    return (double) read / (double) total;
+  }
+
+  /**
+   * @return The estimated fraction, between {@code 0} and {@code 1}, of the
+   * scan that has been completed, if an estimate was provided. The fraction
+   * is measured in bytes, or in files if the estimated tree contains no data.
+   */
+
+  default OptionalDouble completed()
+  {
+    final var estimate_opt = this.estimate();
+    if (estimate_opt.isEmpty()) {
+      return OptionalDouble.empty();
+    }
+
+    final var estimate = estimate_opt.get();
+    if (estimate.bytes() > 0L) {
+      return OptionalDouble.of(
+        Math.min(1.0, (double) this.fileBytes() / (double) estimate.bytes()));
+    }
+    if (estimate.files() > 0L) {
+      return OptionalDouble.of(
+        Math.min(1.0, (double) this.files() / (double) estimate.files()));
+    }
+    return OptionalDouble.of(1.0);
+  }
+
+  /**
+   * @return The estimated time remaining, assuming that the scan continues
+   * at its average rate, if an estimate was provided and any progress has
+   * been made
+   */
+
+  default Optional<Duration> remaining()
+  {
+    final var completed = this.completed();
+    if (completed.isEmpty() || completed.getAsDouble() <= 0.0) {
+      return Optional.empty();
+    }
+
+    final var fraction = completed.getAsDouble();
+    final var elapsed = (double) this.elapsed().toNanos();
+    return Optional.of(
+      Duration.ofNanos((long) (elapsed * (1.0 - fraction) / fraction)));
+  }
+
+  /**
+   * @param earlier An earlier status of the same scan
+   *
+   * @return The progress made since {@code earlier}, with the current queue
+   * depth and estimate
+   */
+
+  default CatalogScanStatus since(
+    final CatalogScanStatusType earlier)
+  {
+    Objects.requireNonNull(earlier, "earlier");
+    return CatalogScanStatus.builder()
+      .from(this)
+      .setDirectories(Math.max(0L, this.directories() - earlier.directories()))
+      .setFiles(Math.max(0L, this.files() - earlier.files()))
+      .setFileBytes(Math.max(0L, this.fileBytes() - earlier.fileBytes()))
+      .setBytesRead(Math.max(0L, this.bytesRead() - earlier.bytesRead()))
+      .setReadTime(max(this.readTime().minus(earlier.readTime())))
+      .setDigestTime(max(this.digestTime().minus(earlier.digestTime())))
+      .setElapsed(max(this.elapsed().minus(earlier.elapsed())))
+      .build();
+  }
+
+  /**
+   * @return A humanly-readable summary of the status
+   */
+
+  default String show()
+  {
+    final var text = new StringBuilder(128);
+    text.append(
+      String.format(
+        "%d directories, %d files (%.1f/s), %.2f MiB read (%.2f MiB/s), queue %d, reading %.0f%% of hash time",
+        Long.valueOf(this.directories()),
+        Long.valueOf(this.files()),
+        Double.valueOf(this.filesPerSecond()),
+        Double.valueOf((double) this.bytesRead() / (1024.0 * 1024.0)),
+        Double.valueOf(this.bytesReadPerSecond() / (1024.0 * 1024.0)),
+        Long.valueOf(this.queueDepth()),
+        Double.valueOf(this.readFraction() * 100.0)));
+
+    final var completed = this.completed();
+    if (completed.isPresent()) {
+      text.append(
+        String.format(", %.1f%% complete", Double.valueOf(completed.getAsDouble() * 100.0)));
+    }
+    final var remaining = this.remaining();
+    if (remaining.isPresent()) {
+      text.append(
+        String.format(", %ds remaining", Long.valueOf(remaining.get().getSeconds())));
+    }
+    return text.toString();
+  }
+
+  private static Duration max(final Duration d)
+  {
+    return d.isNegative() ? Duration.ZERO : d;
+  }
+
+  private static double perSecond(
+    final long count,
+    final Duration elapsed)
+  {
+    final var nanos = elapsed.toNanos();
+    if (nanos == 0L) {
+      return 0.0;
+    }
+    return (double) count * 1.0e9 / (double) nanos;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionL(
+      this.directories(),
+      this.directories() >= 0L,
+      x -> "Directory count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.files(),
+      this.files() >= 0L,
+      x -> "File count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.fileBytes(),
+      this.fileBytes() >= 0L,
+      x -> "File byte count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.bytesRead(),
+      this.bytesRead() >= 0L,
+      x -> "Read byte count must be non-negative");
+    Preconditions.checkPreconditionL(
+      this.queueDepth(),
+      this.queueDepth() >= 0L,
+      x -> "Queue depth must be non-negative");
+    Preconditions.checkPreconditionV(
+      this.readTime(),
+      !this.readTime().isNegative(),
+      "Read time must be non-negative");
+    Preconditions.checkPreconditionV(
+      this.digestTime(),
+      !this.digestTime().isNegative(),
+      "Digest time must be non-negative");
+    Preconditions.checkPreconditionV(
+      this.elapsed(),
+      !this.elapsed().isNegative(),
+      "Elapsed time must be non-negative");
+  }
+}
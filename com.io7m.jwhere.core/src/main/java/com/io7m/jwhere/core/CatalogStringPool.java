@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A pool of strings used to deduplicate names, owners, and groups while a
+ * catalog is being read.</p>
+ *
+ * <p>A typical disk has only a handful of distinct owners and groups, and
+ * many repeated file names; interning these through a pool shared by the
+ * whole catalog means that each distinct value is held in memory once.</p>
+ */
+
+@ThreadSafe
+public final class CatalogStringPool
+{
+  private static final long STRING_OBJECT_BYTES = 24L;
+  private static final long ARRAY_HEADER_BYTES = 16L;
+
+  private final ConcurrentHashMap<String, String> strings;
+  private final LongAdder lookups;
+  private final LongAdder hits;
+  private final LongAdder bytes_saved;
+
+  private CatalogStringPool()
+  {
+    this.strings = new ConcurrentHashMap<>(256);
+    this.lookups = new LongAdder();
+    this.hits = new LongAdder();
+    this.bytes_saved = new LongAdder();
+  }
+
+  /**
+   * @return A new empty pool
+   */
+
+  public static CatalogStringPool create()
+  {
+    return new CatalogStringPool();
+  }
+
+  private static long estimateSize(final String s)
+  {
+    var width = 1L;
+    for (var index = 0; index < s.length(); ++index) {
+      if (s.charAt(index) > 0xff) {
+        width = 2L;
+        break;
+      }
+    }
+
+    final var array = ARRAY_HEADER_BYTES + width * (long) s.length();
+    return STRING_OBJECT_BYTES + ((array + 7L) & ~7L);
+  }
+
+  /**
+   * @param s A string
+   *
+   * @return The pooled instance of a string equal to {@code s}
+   */
+
+  public String intern(final String s)
+  {
+    Objects.requireNonNull(s, "s");
+
+    this.lookups.increment();
+    final var existing = this.strings.putIfAbsent(s, s);
+    if (existing == null) {
+      return s;
+    }
+    this.hits.increment();
+    if (existing != s) {
+      this.bytes_saved.add(estimateSize(s));
+    }
+    return existing;
+  }
+
+  /**
+   * @return The current pool statistics
+   */
+
+  public CatalogStringPoolStatistics statistics()
+  {
+    return CatalogStringPoolStatistics.builder()
+      .setLookups(this.lookups.sum())
+      .setHits(this.hits.sum())
+      .setDistinct((long) this.strings.size())
+      .setBytesSaved(this.bytes_saved.sum())
+      .build();
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * Statistics for a string pool.
+ *
+ * @see CatalogStringPool
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogStringPoolStatisticsType
+{
+  /**
+   * @return The number of strings passed to the pool
+   */
+
+  long lookups();
+
+  /**
+   * @return The number of strings for which an equal string was already
+   * pooled
+   */
+
+  long hits();
+
+  /**
+   * @return The number of distinct strings held by the pool
+   */
+
+  long distinct();
+
+  /**
+   * @return An estimate of the number of bytes of heap that would have been
+   * occupied by duplicate string instances that were replaced by pooled
+   * instances
+   */
+
+  long bytesSaved();
+}
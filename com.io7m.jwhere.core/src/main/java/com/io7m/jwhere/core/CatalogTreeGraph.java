@@ -0,0 +1,420 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import org.jgrapht.GraphType;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultGraphType;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>A mutable graph specialised for filesystem trees.</p>
+ *
+ * <p>Every node has at most one incoming edge, and the outgoing edges of a
+ * node are kept in insertion order. Because edges are directory entries that
+ * carry their own source and target, adding an edge requires only a check
+ * that the target has no parent and that the edge would not close a cycle;
+ * the latter costs time proportional to the depth of the source node. This
+ * avoids the topological-order maintenance performed by general-purpose
+ * acyclic graphs.</p>
+ */
+
+public final class CatalogTreeGraph
+  extends AbstractGraph<CatalogNodeType, CatalogDirectoryEntry>
+{
+  private static final GraphType TYPE =
+    new DefaultGraphType.Builder()
+      .directed()
+      .allowMultipleEdges(false)
+      .allowSelfLoops(false)
+      .allowCycles(false)
+      .weighted(false)
+      .build();
+
+  private final Map<CatalogNodeType, Node> nodes;
+  private final EdgeSet edges;
+  private int edge_count;
+
+  /**
+   * Construct an empty graph.
+   */
+
+  public CatalogTreeGraph()
+  {
+    this.nodes = new LinkedHashMap<>(128);
+    this.edges = new EdgeSet();
+  }
+
+  @Override
+  public Set<CatalogDirectoryEntry> getAllEdges(
+    final CatalogNodeType source,
+    final CatalogNodeType target)
+  {
+    if (!this.nodes.containsKey(source) || !this.nodes.containsKey(target)) {
+      return null;
+    }
+
+    final var e = this.getEdge(source, target);
+    if (e == null) {
+      return Collections.emptySet();
+    }
+    return Collections.singleton(e);
+  }
+
+  @Override
+  public CatalogDirectoryEntry getEdge(
+    final CatalogNodeType source,
+    final CatalogNodeType target)
+  {
+    final var n = this.nodes.get(target);
+    if (n == null || n.parent == null || !this.nodes.containsKey(source)) {
+      return null;
+    }
+    if (n.parent.getSource().equals(source)) {
+      return n.parent;
+    }
+    return null;
+  }
+
+  @Override
+  public Supplier<CatalogNodeType> getVertexSupplier()
+  {
+    return null;
+  }
+
+  @Override
+  public Supplier<CatalogDirectoryEntry> getEdgeSupplier()
+  {
+    return null;
+  }
+
+  @Override
+  public CatalogDirectoryEntry addEdge(
+    final CatalogNodeType source,
+    final CatalogNodeType target)
+  {
+    throw new UnsupportedOperationException(
+      "Directory entries must be supplied explicitly");
+  }
+
+  @Override
+  public boolean addEdge(
+    final CatalogNodeType source,
+    final CatalogNodeType target,
+    final CatalogDirectoryEntry e)
+  {
+    Objects.requireNonNull(e, "e");
+
+    if (this.containsEdge(e)) {
+      return false;
+    }
+
+    this.assertVertexExist(source);
+    this.assertVertexExist(target);
+
+    if (!e.getSource().equals(source) || !e.getTarget().equals(target)) {
+      throw new IllegalArgumentException(
+        "Edge endpoints must match the given source and target");
+    }
+
+    final var target_node = this.nodes.get(target);
+    if (target_node.parent != null) {
+      throw new IllegalArgumentException(
+        "Target node already has a parent directory");
+    }
+
+    for (var n = source; n != null; n = this.parentOf(n)) {
+      if (n.equals(target)) {
+        throw new IllegalArgumentException("Edge would induce a cycle");
+      }
+    }
+
+    target_node.parent = e;
+    this.nodes.get(source).addChild(e);
+    ++this.edge_count;
+    return true;
+  }
+
+  private CatalogNodeType parentOf(final CatalogNodeType node)
+  {
+    final var p = this.nodes.get(node).parent;
+    if (p == null) {
+      return null;
+    }
+    return p.getSource();
+  }
+
+  @Override
+  public CatalogNodeType addVertex()
+  {
+    throw new UnsupportedOperationException(
+      "Nodes must be supplied explicitly");
+  }
+
+  @Override
+  public boolean addVertex(final CatalogNodeType v)
+  {
+    Objects.requireNonNull(v, "v");
+
+    if (this.nodes.containsKey(v)) {
+      return false;
+    }
+    this.nodes.put(v, new Node());
+    return true;
+  }
+
+  @Override
+  public boolean containsEdge(final CatalogDirectoryEntry e)
+  {
+    final var n = this.nodes.get(e.getTarget());
+    return n != null && e.equals(n.parent);
+  }
+
+  @Override
+  public boolean containsVertex(final CatalogNodeType v)
+  {
+    return this.nodes.containsKey(v);
+  }
+
+  @Override
+  public Set<CatalogDirectoryEntry> edgeSet()
+  {
+    return this.edges;
+  }
+
+  @Override
+  public int degreeOf(final CatalogNodeType v)
+  {
+    return this.inDegreeOf(v) + this.outDegreeOf(v);
+  }
+
+  @Override
+  public Set<CatalogDirectoryEntry> edgesOf(final CatalogNodeType v)
+  {
+    final var n = this.node(v);
+    final var r = new LinkedHashSet<CatalogDirectoryEntry>(n.childCount() + 1);
+    if (n.parent != null) {
+      r.add(n.parent);
+    }
+    if (n.children != null) {
+      r.addAll(n.children);
+    }
+    return Collections.unmodifiableSet(r);
+  }
+
+  @Override
+  public int inDegreeOf(final CatalogNodeType v)
+  {
+    return this.node(v).parent == null ? 0 : 1;
+  }
+
+  @Override
+  public Set<CatalogDirectoryEntry> incomingEdgesOf(final CatalogNodeType v)
+  {
+    final var n = this.node(v);
+    if (n.parent == null) {
+      return Collections.emptySet();
+    }
+    return Collections.singleton(n.parent);
+  }
+
+  @Override
+  public int outDegreeOf(final CatalogNodeType v)
+  {
+    return this.node(v).childCount();
+  }
+
+  @Override
+  public Set<CatalogDirectoryEntry> outgoingEdgesOf(final CatalogNodeType v)
+  {
+    final var n = this.node(v);
+    if (n.children == null) {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(n.children);
+  }
+
+  @Override
+  public CatalogDirectoryEntry removeEdge(
+    final CatalogNodeType source,
+    final CatalogNodeType target)
+  {
+    final var e = this.getEdge(source, target);
+    if (e != null) {
+      this.removeEdge(e);
+    }
+    return e;
+  }
+
+  @Override
+  public boolean removeEdge(final CatalogDirectoryEntry e)
+  {
+    if (!this.containsEdge(e)) {
+      return false;
+    }
+
+    this.nodes.get(e.getTarget()).parent = null;
+    this.nodes.get(e.getSource()).children.remove(e);
+    --this.edge_count;
+    return true;
+  }
+
+  @Override
+  public boolean removeVertex(final CatalogNodeType v)
+  {
+    final var n = this.nodes.get(v);
+    if (n == null) {
+      return false;
+    }
+
+    if (n.parent != null) {
+      this.removeEdge(n.parent);
+    }
+    if (n.children != null) {
+      for (final var e : n.children) {
+        this.nodes.get(e.getTarget()).parent = null;
+        --this.edge_count;
+      }
+    }
+    this.nodes.remove(v);
+    return true;
+  }
+
+  @Override
+  public Set<CatalogNodeType> vertexSet()
+  {
+    return Collections.unmodifiableSet(this.nodes.keySet());
+  }
+
+  @Override
+  public CatalogNodeType getEdgeSource(final CatalogDirectoryEntry e)
+  {
+    this.assertEdgeExists(e);
+    return e.getSource();
+  }
+
+  @Override
+  public CatalogNodeType getEdgeTarget(final CatalogDirectoryEntry e)
+  {
+    this.assertEdgeExists(e);
+    return e.getTarget();
+  }
+
+  @Override
+  public GraphType getType()
+  {
+    return TYPE;
+  }
+
+  @Override
+  public double getEdgeWeight(final CatalogDirectoryEntry e)
+  {
+    Objects.requireNonNull(e, "e");
+    return DEFAULT_EDGE_WEIGHT;
+  }
+
+  @Override
+  public void setEdgeWeight(
+    final CatalogDirectoryEntry e,
+    final double weight)
+  {
+    throw new UnsupportedOperationException("Graph is unweighted");
+  }
+
+  private void assertEdgeExists(final CatalogDirectoryEntry e)
+  {
+    if (!this.containsEdge(e)) {
+      throw new IllegalArgumentException("No such edge in graph: " + e);
+    }
+  }
+
+  private Node node(final CatalogNodeType v)
+  {
+    this.assertVertexExist(v);
+    return this.nodes.get(v);
+  }
+
+  private static final class Node
+  {
+    private CatalogDirectoryEntry parent;
+    private Set<CatalogDirectoryEntry> children;
+
+    Node()
+    {
+
+    }
+
+    int childCount()
+    {
+      return this.children == null ? 0 : this.children.size();
+    }
+
+    void addChild(final CatalogDirectoryEntry e)
+    {
+      if (this.children == null) {
+        this.children = new LinkedHashSet<>(8);
+      }
+      this.children.add(e);
+    }
+  }
+
+  /**
+   * The edge set is a view of the incoming edges of every node, which in a
+   * tree are exactly the edges of the graph.
+   */
+
+  private final class EdgeSet extends AbstractSet<CatalogDirectoryEntry>
+  {
+    EdgeSet()
+    {
+
+    }
+
+    @Override
+    public Iterator<CatalogDirectoryEntry> iterator()
+    {
+      return CatalogTreeGraph.this.nodes.values()
+        .stream()
+        .map(n -> n.parent)
+        .filter(Objects::nonNull)
+        .iterator();
+    }
+
+    @Override
+    public boolean contains(final Object o)
+    {
+      return o instanceof CatalogDirectoryEntry
+        && CatalogTreeGraph.this.containsEdge((CatalogDirectoryEntry) o);
+    }
+
+    @Override
+    public int size()
+    {
+      return CatalogTreeGraph.this.edge_count;
+    }
+  }
+}
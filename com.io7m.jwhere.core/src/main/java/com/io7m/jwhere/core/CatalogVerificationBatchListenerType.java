@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import java.util.List;
+
+/**
+ * <p>A listener that receives the results of verification in batches.</p>
+ *
+ * <p>Batch listeners are adapted to {@link CatalogVerificationListenerType}
+ * with {@link CatalogVerificationBatchingListener}, which may deliver batches
+ * on a thread of its own so that slow listeners do not stall the walk. Calls
+ * to a batch listener are never made concurrently, and all of the results
+ * for a single item are delivered in the same order as they were reported.</p>
+ */
+
+public interface CatalogVerificationBatchListenerType
+{
+  /**
+   * A batch of items was verified. Errors are the items that implement
+   * {@link CatalogVerificationReportItemErrorType}.
+   *
+   * @param items The verification results, in the order they were reported
+   */
+
+  void onItems(
+    List<CatalogVerificationReportItemType> items);
+
+  /**
+   * Verification completed. No further batches will be delivered.
+   */
+
+  void onCompleted();
+}
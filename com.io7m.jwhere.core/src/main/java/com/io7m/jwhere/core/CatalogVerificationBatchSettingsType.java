@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * Settings for {@link CatalogVerificationBatchingListener}.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogVerificationBatchSettingsType
+{
+  /**
+   * @return The maximum number of items delivered in a single batch
+   */
+
+  @Value.Default
+  default int batchSize()
+  {
+    return 256;
+  }
+
+  /**
+   * @return The maximum number of full batches that may be waiting for the
+   * consumer thread before verification pauses to let it catch up
+   */
+
+  @Value.Default
+  default int queueCapacity()
+  {
+    return 4;
+  }
+
+  /**
+   * @return {@code true} if batches are delivered on a consumer thread of
+   * their own, {@code false} if they are delivered on the thread reporting
+   * results
+   */
+
+  @Value.Default
+  default boolean asynchronous()
+  {
+    return true;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionI(
+      this.batchSize(),
+      this.batchSize() >= 1,
+      i -> "Batch size must be positive");
+    Preconditions.checkPreconditionI(
+      this.queueCapacity(),
+      this.queueCapacity() >= 1,
+      i -> "Queue capacity must be positive");
+  }
+}
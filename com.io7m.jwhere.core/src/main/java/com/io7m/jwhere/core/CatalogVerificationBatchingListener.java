@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * <p>A verification listener that collects results into batches and passes
+ * them to a {@link CatalogVerificationBatchListenerType}.</p>
+ *
+ * <p>If {@link CatalogVerificationBatchSettings#asynchronous()} is
+ * {@code true}, batches are delivered on a consumer thread owned by the
+ * listener, so a slow batch listener only stalls verification when
+ * {@link CatalogVerificationBatchSettings#queueCapacity()} full batches are
+ * already waiting. {@link #onCompleted()} delivers any partial batch, waits
+ * for the consumer thread to deliver everything queued, and then calls
+ * {@link CatalogVerificationBatchListenerType#onCompleted()} on the calling
+ * thread. If the batch listener raises an exception, later batches are
+ * discarded and the exception is rethrown to the thread reporting results.
+ * The listener should be closed if verification fails, so that the consumer
+ * thread is stopped.</p>
+ */
+
+public final class CatalogVerificationBatchingListener
+  implements CatalogVerificationListenerType, Closeable
+{
+  private static final List<CatalogVerificationReportItemType> FINISHED =
+    Collections.unmodifiableList(new ArrayList<>(0));
+
+  private final CatalogVerificationBatchSettings settings;
+  private final CatalogVerificationBatchListenerType delegate;
+  private final BlockingQueue<List<CatalogVerificationReportItemType>> queue;
+  private final Thread consumer;
+  private volatile Throwable failure;
+  private List<CatalogVerificationReportItemType> batch;
+  private boolean completed;
+
+  private CatalogVerificationBatchingListener(
+    final CatalogVerificationBatchSettings in_settings,
+    final CatalogVerificationBatchListenerType in_delegate)
+  {
+    this.settings = Objects.requireNonNull(in_settings, "settings");
+    this.delegate = Objects.requireNonNull(in_delegate, "delegate");
+    this.batch = new ArrayList<>(in_settings.batchSize());
+
+    if (in_settings.asynchronous()) {
+      this.queue = new ArrayBlockingQueue<>(in_settings.queueCapacity());
+      this.consumer = new Thread(this::consume);
+      this.consumer.setName(
+        "com.io7m.jwhere.verify-listener-" + this.consumer.getId());
+      this.consumer.setDaemon(true);
+    } else {
+      this.queue = null;
+      this.consumer = null;
+    }
+  }
+
+  /**
+   * Create a new batching listener. If batches are delivered asynchronously,
+   * the consumer thread is started immediately.
+   *
+   * @param settings The batch settings
+   * @param delegate The listener that receives batches
+   *
+   * @return A new listener
+   */
+
+  public static CatalogVerificationBatchingListener create(
+    final CatalogVerificationBatchSettings settings,
+    final CatalogVerificationBatchListenerType delegate)
+  {
+    final var listener =
+      new CatalogVerificationBatchingListener(settings, delegate);
+    if (listener.consumer != null) {
+      listener.consumer.start();
+    }
+    return listener;
+  }
+
+  /**
+   * Adapt an ordinary listener to a batch listener that passes each item in
+   * each batch to {@code listener} in turn. This allows existing listeners
+   * to be run on the consumer thread of a batching listener.
+   *
+   * @param listener The listener
+   *
+   * @return A batch listener
+   */
+
+  public static CatalogVerificationBatchListenerType unbatched(
+    final CatalogVerificationListenerType listener)
+  {
+    Objects.requireNonNull(listener, "listener");
+    return new CatalogVerificationBatchListenerType()
+    {
+      @Override
+      public void onItems(
+        final List<CatalogVerificationReportItemType> items)
+      {
+        for (final var item : items) {
+          if (item instanceof CatalogVerificationReportItemErrorType) {
+            listener.onItemError((CatalogVerificationReportItemErrorType) item);
+          } else {
+            listener.onItemVerified((CatalogVerificationReportItemOKType) item);
+          }
+        }
+      }
+
+      @Override
+      public void onCompleted()
+      {
+        listener.onCompleted();
+      }
+    };
+  }
+
+  private void consume()
+  {
+    try {
+      while (true) {
+        final var items = this.queue.take();
+        if (items == FINISHED) {
+          return;
+        }
+        if (this.failure == null) {
+          try {
+            this.delegate.onItems(items);
+          } catch (final RuntimeException | Error e) {
+            this.failure = e;
+          }
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void checkFailure()
+  {
+    final var f = this.failure;
+    if (f instanceof RuntimeException) {
+      throw (RuntimeException) f;
+    }
+    if (f instanceof Error) {
+      throw (Error) f;
+    }
+  }
+
+  private void add(final CatalogVerificationReportItemType item)
+  {
+    this.checkFailure();
+    this.batch.add(item);
+    if (this.batch.size() >= this.settings.batchSize()) {
+      this.flush();
+    }
+  }
+
+  private void flush()
+  {
+    if (this.batch.isEmpty()) {
+      return;
+    }
+
+    final var items = Collections.unmodifiableList(this.batch);
+    this.batch = new ArrayList<>(this.settings.batchSize());
+    if (this.queue == null) {
+      this.delegate.onItems(items);
+    } else {
+      this.put(items);
+    }
+  }
+
+  private void put(final List<CatalogVerificationReportItemType> items)
+  {
+    try {
+      this.queue.put(items);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(
+        new InterruptedIOException("Interrupted while waiting for the verification listener"));
+    }
+  }
+
+  @Override
+  public synchronized void onItemVerified(
+    final CatalogVerificationReportItemOKType ok)
+  {
+    this.add(Objects.requireNonNull(ok, "ok"));
+  }
+
+  @Override
+  public synchronized void onItemError(
+    final CatalogVerificationReportItemErrorType error)
+  {
+    this.add(Objects.requireNonNull(error, "error"));
+  }
+
+  @Override
+  public synchronized void onCompleted()
+  {
+    if (this.completed) {
+      return;
+    }
+    this.completed = true;
+
+    this.checkFailure();
+    this.flush();
+
+    if (this.consumer != null) {
+      this.put(FINISHED);
+      try {
+        this.consumer.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new UncheckedIOException(
+          new InterruptedIOException("Interrupted while waiting for the verification listener"));
+      }
+    }
+
+    this.checkFailure();
+    this.delegate.onCompleted();
+  }
+
+  /**
+   * Stop the consumer thread, discarding any batches that have not yet been
+   * delivered. Closing a listener after {@link #onCompleted()} has no effect.
+   */
+
+  @Override
+  public void close()
+  {
+    if (this.consumer != null && this.consumer.isAlive()) {
+      this.consumer.interrupt();
+      try {
+        this.consumer.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -51,6 +51,6 @@ public interface CatalogVerificationChangedHashType extends CatalogVerificationR
   @Override
   default String show()
   {
-    return String.format("Hash value was %s but is now %s", this.hashThen(), this.hashNow());
+    return String.format("Hash value was %s but is now %s", this.hashThen().show(), this.hashNow().show());
   }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+/**
+ * The kind of recorded hash that verification should recompute for each file,
+ * if any. The modes are listed in decreasing order of cost and thoroughness.
+ */
+
+public enum CatalogVerificationHashMode
+{
+  /**
+   * Recompute the cheapest recorded hash of the full contents of each file,
+   * falling back to a sampled hash for files that have no other hash.
+   */
+
+  PREFER_FULL_HASH,
+
+  /**
+   * Recompute the cheapest recorded sampled hash of each file, falling back
+   * to a full hash for files that have no sampled hash. This detects most
+   * changes in a fraction of the time taken to read every file in full.
+   */
+
+  PREFER_SAMPLED_HASH,
+
+  /**
+   * Recompute no hashes, and compare only the metadata of each file. Files
+   * are never opened, so only changes that are visible in the size,
+   * timestamps, ownership, or permissions of a file are detected.
+   */
+
+  METADATA_ONLY
+}
@@ -17,7 +17,19 @@
 package com.io7m.jwhere.core;
 
 /**
- * A listener that receives the results of verification as they are created.
+ * <p>A listener that receives the results of verification as they are
+ * created.</p>
+ *
+ * <p>Calls to a listener are never made concurrently, and all of the results
+ * for a single item are delivered consecutively. When files are verified on
+ * multiple threads (see
+ * {@link CatalogVerificationReportSettings#verificationThreads()}), calls may
+ * be made on threads other than the one that started the verification, and
+ * items may be delivered in a different order to that in which they were
+ * walked. Implementations therefore need not be thread-safe, but must not
+ * assume that they are called on any particular thread.
+ * {@link #onCompleted()} is always called last, on the thread that started
+ * the verification.</p>
  */
 
 public interface CatalogVerificationListenerType
@@ -57,7 +57,13 @@ public enum CatalogVerificationMetadataField
    * The file permissions.
    */
 
-  PERMISSIONS("Permissions");
+  PERMISSIONS("Permissions"),
+
+  /**
+   * The file size.
+   */
+
+  SIZE("Size");
 
   private final String name;
 
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A reader for reports written by {@link CatalogVerificationReportWriter}.
+ * Reports are read one page of results at a time, so that reports of any
+ * size can be browsed without being loaded into memory.</p>
+ *
+ * <p>Opening a report reads the file once and records the offset of the
+ * start of each page; thereafter, reading a page reads only the results on
+ * that page. A report may be opened while it is still being written; only
+ * complete lines are counted as results, and {@link #refresh()} indexes any
+ * results written since the report was opened or last refreshed. Readers are
+ * not thread-safe.</p>
+ */
+
+public final class CatalogVerificationReportReader implements Closeable
+{
+  private final ObjectMapper mapper;
+  private final FileChannel channel;
+  private final int page_size;
+  private final ByteBuffer buffer;
+  private long[] page_offsets;
+  private long items;
+  private long position;
+  private long line_start;
+
+  private CatalogVerificationReportReader(
+    final FileChannel in_channel,
+    final int in_page_size)
+  {
+    this.channel = Objects.requireNonNull(in_channel, "channel");
+    this.page_size = in_page_size;
+    this.buffer = ByteBuffer.allocate(65536);
+    this.page_offsets = new long[16];
+    this.mapper = new ObjectMapper();
+  }
+
+  /**
+   * Open a report.
+   *
+   * @param file      The report file
+   * @param page_size The number of results on each page
+   *
+   * @return A report reader
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CatalogVerificationReportReader open(
+    final Path file,
+    final int page_size)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    Preconditions.checkPreconditionI(
+      page_size, page_size >= 1, i -> "Page size must be positive");
+
+    final var channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      final var reader = new CatalogVerificationReportReader(channel, page_size);
+      reader.refresh();
+      return reader;
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Index any results that have been written to the report since it was
+   * opened or last refreshed.
+   *
+   * @return The number of results in the report
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public long refresh()
+    throws IOException
+  {
+    final var bytes = this.buffer.array();
+    while (true) {
+      this.buffer.clear();
+      final var count = this.channel.read(this.buffer, this.position);
+      if (count <= 0) {
+        break;
+      }
+
+      for (var index = 0; index < count; ++index) {
+        if (bytes[index] == (byte) '\n') {
+          if (this.items % (long) this.page_size == 0L) {
+            this.addPage(this.line_start);
+          }
+          ++this.items;
+          this.line_start = this.position + 1L;
+        }
+        ++this.position;
+      }
+    }
+    return this.items;
+  }
+
+  private void addPage(final long offset)
+  {
+    final var pages = this.pageCount();
+    if (pages == this.page_offsets.length) {
+      final var resized = new long[this.page_offsets.length * 2];
+      System.arraycopy(this.page_offsets, 0, resized, 0, this.page_offsets.length);
+      this.page_offsets = resized;
+    }
+    this.page_offsets[pages] = offset;
+  }
+
+  /**
+   * @return The number of results in the report
+   */
+
+  public long itemCount()
+  {
+    return this.items;
+  }
+
+  /**
+   * @return The number of results on each page
+   */
+
+  public int pageSize()
+  {
+    return this.page_size;
+  }
+
+  /**
+   * @return The number of pages in the report
+   */
+
+  public int pageCount()
+  {
+    return (int) ((this.items + (long) this.page_size - 1L) / (long) this.page_size);
+  }
+
+  /**
+   * Read a page of results.
+   *
+   * @param page The page index, in the range {@code [0, pageCount())}
+   *
+   * @return The results on the page, in the order in which they were written
+   *
+   * @throws IOException               On I/O errors
+   * @throws CatalogJSONParseException If the report is malformed
+   */
+
+  public List<CatalogVerificationReportRecord> page(final int page)
+    throws IOException, CatalogJSONParseException
+  {
+    Preconditions.checkPreconditionI(
+      page,
+      page >= 0 && page < this.pageCount(),
+      i -> "Page index must be in range");
+
+    final var count =
+      (int) Math.min((long) this.page_size, this.items - (long) page * (long) this.page_size);
+    final var results = new ArrayList<CatalogVerificationReportRecord>(count);
+
+    this.channel.position(this.page_offsets[page]);
+    final var reader =
+      new BufferedReader(
+        new InputStreamReader(
+          Channels.newInputStream(this.channel), StandardCharsets.UTF_8));
+
+    while (results.size() < count) {
+      final var line = reader.readLine();
+      if (line == null) {
+        throw new CatalogJSONParseException("Unexpected end of report");
+      }
+      results.add(this.parse(line));
+    }
+    return results;
+  }
+
+  private CatalogVerificationReportRecord parse(final String line)
+    throws IOException, CatalogJSONParseException
+  {
+    final var jin =
+      CatalogJSONParserUtilities.checkObject(null, this.mapper.readTree(line));
+
+    final var jpath = CatalogJSONParserUtilities.getArray(jin, "path");
+    final var names = new String[jpath.size()];
+    for (var index = 0; index < names.length; ++index) {
+      names[index] = jpath.get(index).asText();
+    }
+
+    return CatalogVerificationReportRecord.builder()
+      .setPath(Path.of("", names))
+      .setKind(CatalogJSONParserUtilities.getString(jin, "kind"))
+      .setError(CatalogJSONParserUtilities.getBoolean(jin, "error"))
+      .setShow(CatalogJSONParserUtilities.getString(jin, "show"))
+      .build();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.channel.close();
+  }
+}
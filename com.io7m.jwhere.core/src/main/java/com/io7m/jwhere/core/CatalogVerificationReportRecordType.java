@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+
+/**
+ * A verification result read back from a report written by
+ * {@link CatalogVerificationReportWriter}.
+ *
+ * @see CatalogVerificationReportReader
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface CatalogVerificationReportRecordType
+  extends CatalogVerificationReportItemType
+{
+  /**
+   * @return The path of the file
+   */
+
+  @Override
+  Path path();
+
+  /**
+   * @return The kind of result, such as {@code verified} or
+   * {@code changed-hash}
+   */
+
+  String kind();
+
+  /**
+   * @return {@code true} if the result is an error
+   */
+
+  boolean error();
+
+  /**
+   * @return A humanly-readable description of the result
+   */
+
+  @Override
+  String show();
+}
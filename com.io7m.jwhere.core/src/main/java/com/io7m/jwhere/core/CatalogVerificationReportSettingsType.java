@@ -17,6 +17,7 @@
 package com.io7m.jwhere.core;
 
 import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.jaffirm.core.Preconditions;
 import org.immutables.value.Value;
 
 /**
@@ -32,4 +33,63 @@ public interface CatalogVerificationReportSettingsType
    */
 
   CatalogIgnoreAccessTime ignoreAccessTime();
+
+  /**
+   * @return The kind of recorded hash recomputed for each file
+   */
+
+  @Value.Default
+  default CatalogVerificationHashMode hashMode()
+  {
+    return CatalogVerificationHashMode.PREFER_FULL_HASH;
+  }
+
+  /**
+   * @return The number of threads used to hash and compare files. A value of
+   * {@code 1} verifies each file on the thread walking the filesystem.
+   */
+
+  @Value.Default
+  default int verificationThreads()
+  {
+    return 1;
+  }
+
+  /**
+   * @return The maximum number of files that may be queued for verification
+   * before the filesystem walk pauses to wait for verification to complete
+   */
+
+  @Value.Default
+  default int verificationQueueCapacity()
+  {
+    return 256;
+  }
+
+  /**
+   * @return The settings for the engine used to hash files
+   */
+
+  @Value.Default
+  default CatalogFileHashEngineSettings hashEngine()
+  {
+    return CatalogFileHashEngineSettings.builder().build();
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    Preconditions.checkPreconditionI(
+      this.verificationThreads(),
+      this.verificationThreads() >= 1,
+      i -> "Verification thread count must be positive");
+    Preconditions.checkPreconditionI(
+      this.verificationQueueCapacity(),
+      this.verificationQueueCapacity() >= 1,
+      i -> "Verification queue capacity must be positive");
+  }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * <p>A verification listener that writes each result to a file as it is
+ * produced, so that reports of any size can be produced in a fixed amount
+ * of memory.</p>
+ *
+ * <p>The file contains one JSON object per line (NDJSON). Each object has a
+ * {@code path} array holding the names of the elements of the path, a
+ * {@code kind} string, an {@code error} boolean, and a {@code show} string
+ * holding the humanly-readable description of the result. Changed hashes and
+ * changed metadata additionally record the old and new values. Reports are
+ * read back with {@link CatalogVerificationReportReader}.</p>
+ */
+
+public final class CatalogVerificationReportWriter
+  implements CatalogVerificationListenerType, Closeable, Flushable
+{
+  private final ObjectMapper mapper;
+  private final Writer writer;
+  private long items;
+  private long errors;
+
+  private CatalogVerificationReportWriter(
+    final Writer in_writer)
+  {
+    this.writer = Objects.requireNonNull(in_writer, "writer");
+    this.mapper = new ObjectMapper();
+  }
+
+  /**
+   * Create a report file, replacing any existing file.
+   *
+   * @param file The file
+   *
+   * @return A report writer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static CatalogVerificationReportWriter open(final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    return new CatalogVerificationReportWriter(
+      new BufferedWriter(
+        new OutputStreamWriter(
+          Files.newOutputStream(file), StandardCharsets.UTF_8),
+        65536));
+  }
+
+  /**
+   * @param item A verification result
+   *
+   * @return The name of the kind of the result, as written to reports
+   */
+
+  public static String kindOf(final CatalogVerificationReportItemType item)
+  {
+    Objects.requireNonNull(item, "item");
+
+    if (item instanceof CatalogVerificationReportRecordType) {
+      return ((CatalogVerificationReportRecordType) item).kind();
+    }
+    if (item instanceof CatalogVerificationChangedHashType) {
+      return "changed-hash";
+    }
+    if (item instanceof CatalogVerificationChangedMetadataType) {
+      return "changed-metadata";
+    }
+    if (item instanceof CatalogVerificationChangedType) {
+      return "changed-type";
+    }
+    if (item instanceof CatalogVerificationVanishedItemType) {
+      return "vanished";
+    }
+    if (item instanceof CatalogVerificationUncataloguedItemType) {
+      return "uncatalogued";
+    }
+    if (item instanceof CatalogVerificationReportItemErrorType) {
+      return "error";
+    }
+    return "verified";
+  }
+
+  /**
+   * @return The number of results written so far
+   */
+
+  public long itemCount()
+  {
+    return this.items;
+  }
+
+  /**
+   * @return The number of errors written so far
+   */
+
+  public long errorCount()
+  {
+    return this.errors;
+  }
+
+  private void write(
+    final CatalogVerificationReportItemType item,
+    final boolean error)
+  {
+    final var jout = this.mapper.createObjectNode();
+
+    final var jpath = this.mapper.createArrayNode();
+    for (final var name : item.path()) {
+      final var text = name.toString();
+      if (!text.isEmpty()) {
+        jpath.add(text);
+      }
+    }
+
+    jout.set("path", jpath);
+    jout.put("kind", kindOf(item));
+    jout.put("error", error);
+    jout.put("show", item.show());
+    writeDetails(jout, item);
+
+    try {
+      this.writer.write(this.mapper.writeValueAsString(jout));
+      this.writer.write('\n');
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    ++this.items;
+    if (error) {
+      ++this.errors;
+    }
+  }
+
+  private static void writeDetails(
+    final ObjectNode jout,
+    final CatalogVerificationReportItemType item)
+  {
+    if (item instanceof CatalogVerificationChangedHashType) {
+      final var changed = (CatalogVerificationChangedHashType) item;
+      jout.put("then", changed.hashThen().show());
+      jout.put("now", changed.hashNow().show());
+    } else if (item instanceof CatalogVerificationChangedMetadataType) {
+      final var changed = (CatalogVerificationChangedMetadataType) item;
+      jout.put("field", changed.field().name());
+      jout.put("then", changed.valueThen());
+      jout.put("now", changed.valueNow());
+    }
+  }
+
+  @Override
+  public void onItemVerified(
+    final CatalogVerificationReportItemOKType ok)
+  {
+    this.write(ok, false);
+  }
+
+  @Override
+  public void onItemError(
+    final CatalogVerificationReportItemErrorType error)
+  {
+    this.write(error, true);
+  }
+
+  @Override
+  public void onCompleted()
+  {
+    try {
+      this.flush();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Write any buffered results to the report file, so that they can be read
+   * by a {@link CatalogVerificationReportReader} while the report is still
+   * being written.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Override
+  public void flush()
+    throws IOException
+  {
+    this.writer.flush();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.writer.close();
+  }
+}
@@ -23,6 +23,8 @@ import com.io7m.jwhere.core.CatalogDiskMetadata;
 import com.io7m.jwhere.core.CatalogDiskName;
 import com.io7m.jwhere.core.CatalogException;
 import com.io7m.jwhere.core.CatalogSaveSpecification;
+import com.io7m.jwhere.core.CatalogScanSettings;
+import com.io7m.jwhere.core.CatalogScanStatus;
 import com.io7m.jwhere.gui.model.Model;
 import com.io7m.jwhere.gui.model.RedoAvailable;
 import com.io7m.jwhere.gui.model.UndoAvailable;
@@ -266,6 +268,7 @@ public final class Controller implements ControllerType
   public void programExit(final int status)
   {
     LOG.debug("exiting");
+    this.model.verificationDiscard();
     System.exit(status);
   }
 
@@ -353,6 +356,26 @@ public final class Controller implements ControllerType
     return this.tasks_list_model;
   }
 
+  @Override
+  public void catalogSetIOLimits(
+    final long bytes_per_second,
+    final long operations_per_second)
+  {
+    this.model.catalogSetIOLimits(bytes_per_second, operations_per_second);
+  }
+
+  @Override
+  public void catalogSetProgressEstimated(final boolean enabled)
+  {
+    this.model.catalogSetProgressEstimated(enabled);
+  }
+
+  @Override
+  public Optional<CatalogScanStatus> catalogProgress()
+  {
+    return this.model.catalogProgress();
+  }
+
   @Override
   public void catalogUnsavedChangesSubscribe(
     final Consumer<UnsavedChanges> listener)
@@ -391,6 +414,7 @@ public final class Controller implements ControllerType
     final CatalogDiskName disk_name,
     final CatalogDiskID disk_id,
     final Path path,
+    final CatalogScanSettings settings,
     final Runnable on_start_io,
     final Consumer<Optional<Throwable>> on_finish_io)
   {
@@ -399,7 +423,7 @@ public final class Controller implements ControllerType
         () -> {
           try {
             on_start_io.run();
-            this.model.catalogAddDisk(disk_name, disk_id, path);
+            this.model.catalogAddDisk(disk_name, disk_id, path, settings);
             return null;
           } catch (IOException | CatalogException e) {
             throw new IOError(e);
@@ -21,6 +21,8 @@ import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogDiskMetadata;
 import com.io7m.jwhere.core.CatalogDiskName;
 import com.io7m.jwhere.core.CatalogSaveSpecification;
+import com.io7m.jwhere.core.CatalogScanSettings;
+import com.io7m.jwhere.core.CatalogScanStatus;
 import com.io7m.jwhere.gui.model.RedoAvailable;
 import com.io7m.jwhere.gui.model.UndoAvailable;
 import com.io7m.jwhere.gui.model.UnsavedChanges;
@@ -180,6 +182,37 @@ public interface ControllerType
 
   ListModel<CatalogTask> catalogGetTasksListModel();
 
+  /**
+   * Set the limits on the rate of I/O performed by tasks that scan or verify
+   * disks. The limits apply to all tasks together, including those that are
+   * already running.
+   *
+   * @param bytes_per_second      The maximum number of bytes read per second,
+   *                              or {@code 0} for no limit
+   * @param operations_per_second The maximum number of filesystem operations
+   *                              per second, or {@code 0} for no limit
+   */
+
+  void catalogSetIOLimits(
+    long bytes_per_second,
+    long operations_per_second);
+
+  /**
+   * Set whether tasks that scan or verify disks first count the files to be
+   * scanned, so that their progress can show the time remaining.
+   *
+   * @param enabled {@code true} if files should be counted
+   */
+
+  void catalogSetProgressEstimated(boolean enabled);
+
+  /**
+   * @return The progress of the task that is scanning or verifying a disk,
+   * if any
+   */
+
+  Optional<CatalogScanStatus> catalogProgress();
+
   /**
    * Subscribe for changes to the saved or unsaved state of the catalog.
    *
@@ -224,6 +257,7 @@ public interface ControllerType
    * @param disk_name    The name that will be used for the disk.
    * @param disk_id      The disk ID
    * @param path         The root of the filesystem
+   * @param settings     The scan settings
    * @param on_start_io  A procedure that, when evaluated, indicates that the operation has
    *                     started.
    * @param on_finish_io A procedure that, when evaluated, indicates that the operation has started,
@@ -234,6 +268,7 @@ public interface ControllerType
     CatalogDiskName disk_name,
     CatalogDiskID disk_id,
     Path path,
+    CatalogScanSettings settings,
     Runnable on_start_io,
     Consumer<Optional<Throwable>> on_finish_io);
 
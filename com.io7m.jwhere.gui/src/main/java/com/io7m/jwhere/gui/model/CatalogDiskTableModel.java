@@ -343,7 +343,7 @@ final class CatalogDiskTableModel extends AbstractTableModel
       final CatalogFileNodeType f)
     {
       final var h_opt = f.hash();
-      return h_opt.map(CatalogFileHash::toString).orElse("");
+      return h_opt.map(CatalogFileHash::show).orElse("");
     }
 
     @Override
@@ -18,19 +18,53 @@ package com.io7m.jwhere.gui.model;
 
 import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.junreachable.UnreachableCodeException;
-import com.io7m.jwhere.core.CatalogVerificationReportItemType;
+import com.io7m.jwhere.core.CatalogJSONParseException;
+import com.io7m.jwhere.core.CatalogVerificationReportReader;
+import com.io7m.jwhere.core.CatalogVerificationReportRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+/**
+ * A table model that shows the results in a verification report. Results
+ * are read from the report a page at a time, and only the most recently used
+ * pages are held in memory. The report may still be being written; results
+ * written since it was opened are shown when the model is refreshed.
+ */
 
 final class CatalogVerificationTableModel extends AbstractTableModel
 {
-  private final List<CatalogVerificationReportItemType> data;
+  private static final Logger LOG;
+  private static final int PAGE_SIZE = 1024;
+  private static final int PAGES_CACHED = 8;
+
+  static {
+    LOG = LoggerFactory.getLogger(CatalogVerificationTableModel.class);
+  }
+
+  private final Map<Integer, List<CatalogVerificationReportRecord>> pages;
+  private CatalogVerificationReportReader reader;
+  private Path report;
 
   CatalogVerificationTableModel()
   {
-    this.data = new ArrayList<>(256);
+    this.pages = new LinkedHashMap<>(PAGES_CACHED, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(
+        final Map.Entry<Integer, List<CatalogVerificationReportRecord>> e)
+      {
+        return this.size() > PAGES_CACHED;
+      }
+    };
   }
 
   /**
@@ -55,20 +89,103 @@ final class CatalogVerificationTableModel extends AbstractTableModel
 
   void reset()
   {
-    this.data.clear();
+    this.close();
     this.fireTableDataChanged();
   }
 
-  void add(final CatalogVerificationReportItemType i)
+  /**
+   * Show the given report. The model takes ownership of the report file,
+   * and deletes it when another report is shown, when the model is reset,
+   * or immediately if the report cannot be opened.
+   *
+   * @param in_report The report file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void open(final Path in_report)
+    throws IOException
   {
-    this.data.add(i);
+    final CatalogVerificationReportReader in_reader;
+    try {
+      in_reader = CatalogVerificationReportReader.open(in_report, PAGE_SIZE);
+    } catch (final IOException e) {
+      Files.deleteIfExists(in_report);
+      throw e;
+    }
+    this.close();
+    this.reader = in_reader;
+    this.report = in_report;
     this.fireTableDataChanged();
   }
 
+  /**
+   * Show any results written to the report since it was opened or last
+   * refreshed.
+   */
+
+  void refresh()
+  {
+    if (this.reader == null) {
+      return;
+    }
+
+    final var before = this.getRowCount();
+    try {
+      this.reader.refresh();
+    } catch (final IOException e) {
+      LOG.error("could not refresh report {}: ", this.report, e);
+      return;
+    }
+
+    final var after = this.getRowCount();
+    if (after > before) {
+      if (before % PAGE_SIZE != 0) {
+        this.pages.remove(Integer.valueOf(before / PAGE_SIZE));
+      }
+      this.fireTableRowsInserted(before, after - 1);
+    }
+  }
+
+  private void close()
+  {
+    this.pages.clear();
+    if (this.reader != null) {
+      try {
+        this.reader.close();
+        Files.deleteIfExists(this.report);
+      } catch (final IOException e) {
+        LOG.error("could not close report {}: ", this.report, e);
+      }
+      this.reader = null;
+      this.report = null;
+    }
+  }
+
+  private CatalogVerificationReportRecord row(final int row)
+  {
+    final var page = Integer.valueOf(row / PAGE_SIZE);
+    var items = this.pages.get(page);
+    if (items == null) {
+      try {
+        items = this.reader.page(page.intValue());
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (final CatalogJSONParseException e) {
+        throw new UncheckedIOException(new IOException(e));
+      }
+      this.pages.put(page, items);
+    }
+    return items.get(row % PAGE_SIZE);
+  }
+
   @Override
   public int getRowCount()
   {
-    return this.data.size();
+    if (this.reader == null) {
+      return 0;
+    }
+    return (int) Math.min((long) Integer.MAX_VALUE, this.reader.itemCount());
   }
 
   @Override
@@ -103,7 +220,7 @@ final class CatalogVerificationTableModel extends AbstractTableModel
     final int col)
   {
     Preconditions.checkPreconditionV(row >= 0, "row >= 0");
-    Preconditions.checkPreconditionV(row < this.data.size(), "row < this.data.size()");
+    Preconditions.checkPreconditionV(row < this.getRowCount(), "row < this.getRowCount()");
     Preconditions.checkPreconditionV(col >= 0, "col >= 0");
     Preconditions.checkPreconditionV(
       col < CatalogVerificationTableModelField.values().length,
@@ -112,10 +229,10 @@ final class CatalogVerificationTableModel extends AbstractTableModel
     switch (CatalogVerificationTableModelField.values()[col]) {
       case NAME:
         return check(
-          col, this.data.get(row).path());
+          col, this.row(row).path());
       case RESULT:
         return check(
-          col, this.data.get(row).show());
+          col, this.row(row).show());
     }
 
     throw new UnreachableCodeException();
@@ -28,23 +28,36 @@ import com.io7m.jwhere.core.CatalogDiskMetadata;
 import com.io7m.jwhere.core.CatalogDiskName;
 import com.io7m.jwhere.core.CatalogException;
 import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogIOThrottle;
+import com.io7m.jwhere.core.CatalogIOThroughput;
 import com.io7m.jwhere.core.CatalogIgnoreAccessTime;
 import com.io7m.jwhere.core.CatalogJSONParser;
 import com.io7m.jwhere.core.CatalogJSONSerializer;
 import com.io7m.jwhere.core.CatalogSaveSpecification;
-import com.io7m.jwhere.core.CatalogVerificationListenerType;
-import com.io7m.jwhere.core.CatalogVerificationReportItemErrorType;
-import com.io7m.jwhere.core.CatalogVerificationReportItemOKType;
+import com.io7m.jwhere.core.CatalogScanContext;
+import com.io7m.jwhere.core.CatalogScanProgress;
+import com.io7m.jwhere.core.CatalogScanSettings;
+import com.io7m.jwhere.core.CatalogScanStatus;
+import com.io7m.jwhere.core.CatalogVerificationBatchListenerType;
+import com.io7m.jwhere.core.CatalogVerificationBatchSettings;
+import com.io7m.jwhere.core.CatalogVerificationBatchingListener;
+import com.io7m.jwhere.core.CatalogVerificationReportItemType;
 import com.io7m.jwhere.core.CatalogVerificationReportSettings;
+import com.io7m.jwhere.core.CatalogVerificationReportWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.ComboBoxModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.table.TableModel;
 import javax.swing.tree.TreeModel;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedMap;
@@ -68,6 +81,9 @@ public final class Model
   private final Revisions<CatalogState> catalog_history;
   private final CatalogComboBoxModel catalog_combo_box_model;
   private final CatalogVerificationTableModel catalog_verification_model;
+  private final CatalogIOThrottle io_throttle;
+  private volatile CatalogScanProgress io_progress;
+  private volatile boolean io_estimate;
   private Optional<CatalogSaveSpecification> catalog_save_spec;
 
   /**
@@ -90,6 +106,60 @@ public final class Model
       new CatalogComboBoxModel(this.catalog_history::getCurrentValue);
 
     this.catalog_verification_model = new CatalogVerificationTableModel();
+    this.io_throttle = CatalogIOThrottle.unlimited();
+  }
+
+  /**
+   * Set the limits on the rate of I/O performed by disk scans and
+   * verifications. The limits apply to all tasks together, and take effect
+   * immediately, including for tasks that are already running.
+   *
+   * @param bytes_per_second      The maximum number of bytes read per second,
+   *                              or {@code 0} for no limit
+   * @param operations_per_second The maximum number of filesystem operations
+   *                              per second, or {@code 0} for no limit
+   */
+
+  public void catalogSetIOLimits(
+    final long bytes_per_second,
+    final long operations_per_second)
+  {
+    this.io_throttle.setBytesPerSecond(bytes_per_second);
+    this.io_throttle.setOperationsPerSecond(operations_per_second);
+  }
+
+  /**
+   * Set whether disk scans and verifications first count the files to be
+   * scanned, so that their progress can show the fraction completed and the
+   * time remaining. Counting requires an extra walk of the filesystem before
+   * the scan starts, so it is disabled by default.
+   *
+   * @param enabled {@code true} if files should be counted
+   */
+
+  public void catalogSetProgressEstimated(final boolean enabled)
+  {
+    this.io_estimate = enabled;
+  }
+
+  private void estimate(
+    final CatalogScanProgress progress,
+    final Path path)
+    throws IOException
+  {
+    if (this.io_estimate) {
+      progress.setEstimate(CatalogFilesystemReader.estimate(path, this.io_throttle));
+    }
+  }
+
+  /**
+   * @return The status of the disk scan or verification that is running,
+   * if any
+   */
+
+  public Optional<CatalogScanStatus> catalogProgress()
+  {
+    return Optional.ofNullable(this.io_progress).map(CatalogScanProgress::status);
   }
 
   /**
@@ -176,6 +246,7 @@ public final class Model
    * @param disk_name The name of the disk
    * @param disk_id   The disk ID
    * @param path      The path to the root of the disk
+   * @param settings  The scan settings
    *
    * @throws IOException      On I/O errors
    * @throws CatalogException On catalog errors
@@ -184,7 +255,8 @@ public final class Model
   public void catalogAddDisk(
     final CatalogDiskName disk_name,
     final CatalogDiskID disk_id,
-    final Path path)
+    final Path path,
+    final CatalogScanSettings settings)
     throws IOException, CatalogException
   {
     LOG.debug("adding disk: {} {} {}", disk_name, disk_id, path);
@@ -197,8 +269,30 @@ public final class Model
       throw new CatalogDiskDuplicateIDException(disk_id.toString());
     }
 
-    final var disk =
-      CatalogFilesystemReader.newDisk(disk_name, disk_id, path);
+    final var progress = CatalogScanProgress.create();
+    final CatalogIOThroughput throughput_then;
+    final CatalogDisk disk;
+    this.io_progress = progress;
+    try {
+      this.estimate(progress, path);
+      throughput_then = this.io_throttle.throughput();
+      disk = CatalogFilesystemReader.newDisk(
+        disk_name,
+        disk_id,
+        path,
+        settings,
+        CatalogScanContext.builder()
+          .setThrottle(this.io_throttle)
+          .setProgress(progress)
+          .build());
+    } finally {
+      this.io_progress = null;
+    }
+    LOG.info(
+      "added disk {}: {}; {}",
+      disk_id,
+      this.io_throttle.throughput().since(throughput_then).show(),
+      progress.status().show());
     final SortedMap<CatalogDiskID, CatalogDisk> new_disks =
       new TreeMap<>(disks);
     new_disks.put(disk_id, disk);
@@ -364,13 +458,18 @@ public final class Model
   }
 
   /**
-   * Verify the disk with {@code id} against {@code path}.
+   * Verify the disk with {@code id} against {@code path}. Results are written
+   * to a temporary report file on a separate thread, which is shown by the
+   * verification table model as it grows. The report file is deleted when
+   * the next report is shown, or when the verification results are
+   * discarded.
    *
    * @param id   The disk ID
    * @param path The path
    *
    * @throws IOException      On I/O errors
    * @throws CatalogException On other catalog errors
+   * @see #verificationDiscard()
    */
 
   public void catalogVerifyDisk(
@@ -392,9 +491,62 @@ public final class Model
     final var disk = disks.get(id);
     final var cvm = this.catalog_verification_model;
 
-    cvm.reset();
-    CatalogFilesystemReader.verifyDisk(
-      disk, settings, path, new VerificationListener(cvm));
+    final var report = Files.createTempFile("jwhere-verify-", ".ndjson");
+
+    SwingUtilities.invokeLater(() -> {
+      try {
+        cvm.open(report);
+      } catch (final IOException e) {
+        LOG.error("could not open verification report {}: ", report, e);
+      }
+    });
+
+    /*
+     * The writer is flushed after each batch of results, and the table
+     * model picks up whatever has been written twice a second.
+     */
+
+    final var refresh = new Timer(500, e -> cvm.refresh());
+    final var progress = CatalogScanProgress.create();
+    this.io_progress = progress;
+    try {
+      this.estimate(progress, path);
+      try (var writer = CatalogVerificationReportWriter.open(report);
+           var batching = CatalogVerificationBatchingListener.create(
+             CatalogVerificationBatchSettings.builder().build(),
+             new FlushingListener(writer))) {
+        refresh.start();
+        final var throughput_then = this.io_throttle.throughput();
+        CatalogFilesystemReader.verifyDisk(
+          disk,
+          settings,
+          path,
+          batching,
+          CatalogScanContext.builder()
+            .setThrottle(this.io_throttle)
+            .setProgress(progress)
+            .build());
+        LOG.info(
+          "verified disk {}: {}; {}",
+          id,
+          this.io_throttle.throughput().since(throughput_then).show(),
+          progress.status().show());
+      }
+    } finally {
+      refresh.stop();
+      this.io_progress = null;
+      SwingUtilities.invokeLater(cvm::refresh);
+    }
+  }
+
+  /**
+   * Discard the current verification results, deleting the temporary report
+   * file that holds them. This must be called on the Swing event thread.
+   */
+
+  public void verificationDiscard()
+  {
+    this.catalog_verification_model.reset();
   }
 
   /**
@@ -415,34 +567,34 @@ public final class Model
     return this.catalog_verification_model;
   }
 
-  private static final class VerificationListener implements CatalogVerificationListenerType
+  private static final class FlushingListener
+    implements CatalogVerificationBatchListenerType
   {
-    private final CatalogVerificationTableModel model;
+    private final CatalogVerificationReportWriter writer;
+    private final CatalogVerificationBatchListenerType delegate;
 
-    VerificationListener(
-      final CatalogVerificationTableModel in_model)
-    {
-      this.model = Objects.requireNonNull(in_model, "model");
-    }
-
-    @Override
-    public void onItemVerified(
-      final CatalogVerificationReportItemOKType ok)
+    FlushingListener(final CatalogVerificationReportWriter in_writer)
     {
-      this.model.add(ok);
+      this.writer = Objects.requireNonNull(in_writer, "writer");
+      this.delegate = CatalogVerificationBatchingListener.unbatched(in_writer);
     }
 
     @Override
-    public void onItemError(
-      final CatalogVerificationReportItemErrorType error)
+    public void onItems(
+      final List<CatalogVerificationReportItemType> items)
     {
-      this.model.add(error);
+      this.delegate.onItems(items);
+      try {
+        this.writer.flush();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
 
     @Override
     public void onCompleted()
     {
-      // Nothing
+      this.delegate.onCompleted();
     }
   }
 }
@@ -18,6 +18,7 @@ package com.io7m.jwhere.gui.view;
 
 import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogDiskName;
+import com.io7m.jwhere.core.CatalogScanSettings;
 import com.io7m.jwhere.gui.ControllerType;
 import net.java.dev.designgridlayout.DesignGridLayout;
 import org.slf4j.Logger;
@@ -28,7 +29,9 @@ import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 import java.nio.file.Paths;
 import java.util.Objects;
 import java.util.Optional;
@@ -71,6 +74,15 @@ final class CatalogAddDiskDialog extends JDialog
         }
       });
 
+    final var hash_threads =
+      new JSpinner(new SpinnerNumberModel(1, 1, 256, 1));
+    final var hash_queue_capacity =
+      new JSpinner(new SpinnerNumberModel(256, 1, 1 << 20, 16));
+    final var traversal_threads =
+      new JSpinner(new SpinnerNumberModel(1, 1, 256, 1));
+    final var traversal_queue_capacity =
+      new JSpinner(new SpinnerNumberModel(64, 1, 1 << 20, 16));
+
     final var cancel = new JButton("Cancel");
     cancel.addActionListener(e -> WindowUtilities.closeDialog(this));
 
@@ -83,6 +95,13 @@ final class CatalogAddDiskDialog extends JDialog
           final var new_name =
             CatalogDiskName.of(disk_name.getText());
           final var new_path = Paths.get(disk_root.getText());
+          final var new_settings =
+            CatalogScanSettings.builder()
+              .setHashThreads(((Number) hash_threads.getValue()).intValue())
+              .setHashQueueCapacity(((Number) hash_queue_capacity.getValue()).intValue())
+              .setTraversalThreads(((Number) traversal_threads.getValue()).intValue())
+              .setTraversalQueueCapacity(((Number) traversal_queue_capacity.getValue()).intValue())
+              .build();
 
           final Consumer<Optional<Throwable>> on_finish_io = ex_opt -> {
             if (ex_opt.isPresent()) {
@@ -104,7 +123,7 @@ final class CatalogAddDiskDialog extends JDialog
           };
 
           controller.catalogAddDisk(
-            new_name, new_id, new_path, on_start_io, on_finish_io);
+            new_name, new_id, new_path, new_settings, on_start_io, on_finish_io);
           WindowUtilities.closeDialog(this);
         }
       });
@@ -114,6 +133,10 @@ final class CatalogAddDiskDialog extends JDialog
     dg.row().grid(new JLabel("Disk ID")).add(disk_id);
     dg.row().grid(new JLabel("Root Directory")).add(disk_root, 3).add(
       disk_root_open);
+    dg.row().grid(new JLabel("Hashing Threads")).add(hash_threads);
+    dg.row().grid(new JLabel("Hashing Queue Capacity")).add(hash_queue_capacity);
+    dg.row().grid(new JLabel("Traversal Threads")).add(traversal_threads);
+    dg.row().grid(new JLabel("Traversal Queue Capacity")).add(traversal_queue_capacity);
     dg.row().right().add(cancel).add(add);
 
     this.getRootPane().setDefaultButton(add);
@@ -23,6 +23,7 @@ import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.BorderLayout;
@@ -34,15 +35,18 @@ final class StatusBar extends JPanel
   private final JLabel text;
   private final JLabel error_icon;
   private final JProgressBar progress;
+  private final ControllerType controller;
+  private final Timer progress_timer;
 
   StatusBar(final ControllerType in_controller)
   {
-    Objects.requireNonNull(in_controller, "in_controller");
+    this.controller = Objects.requireNonNull(in_controller, "in_controller");
 
     this.setBorder(new LineBorder(this.getBackground(), 1));
     this.setPreferredSize(new Dimension(this.getWidth(), 24));
 
-    this.progress = new JProgressBar();
+    this.progress = new JProgressBar(0, 1000);
+    this.progress_timer = new Timer(500, e -> this.onProgressUpdate());
     this.error_icon = new JLabel(Icons.getWarningIcon16());
     this.text = new JLabel();
     this.text.setFont(Fonts.getMonospacedSmall());
@@ -86,6 +90,7 @@ final class StatusBar extends JPanel
 
   private void onProgressIndeterminateFinish()
   {
+    this.progress_timer.stop();
     this.progress.setVisible(false);
     this.validate();
   }
@@ -94,9 +99,31 @@ final class StatusBar extends JPanel
   {
     this.progress.setVisible(true);
     this.progress.setIndeterminate(true);
+    this.progress.setStringPainted(false);
+    this.progress_timer.start();
     this.validate();
   }
 
+  /*
+   * If the running task is scanning a disk whose size has been estimated,
+   * show how much of the scan has been completed.
+   */
+
+  private void onProgressUpdate()
+  {
+    final var status = this.controller.catalogProgress();
+    if (status.isEmpty()) {
+      return;
+    }
+
+    final var completed = status.get().completed();
+    if (completed.isPresent()) {
+      this.progress.setIndeterminate(false);
+      this.progress.setStringPainted(true);
+      this.progress.setValue((int) (completed.getAsDouble() * 1000.0));
+    }
+  }
+
   private void onInfo(final String message)
   {
     this.text.setText(message);
@@ -25,11 +25,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.Timer;
+import javax.swing.event.ChangeListener;
 import java.awt.Component;
 import java.util.Objects;
 
@@ -76,10 +81,60 @@ final class TasksTab extends JPanel
     });
     final var tasks_pane = new JScrollPane(tasks);
 
+    /*
+     * I/O limits. These apply to running tasks as soon as they are changed.
+     */
+
+    final var read_limit =
+      new JSpinner(new SpinnerNumberModel(
+        Long.valueOf(0L), Long.valueOf(0L), Long.valueOf(1L << 20), Long.valueOf(1L)));
+    final var operation_limit =
+      new JSpinner(new SpinnerNumberModel(
+        Long.valueOf(0L), Long.valueOf(0L), Long.valueOf(1L << 30), Long.valueOf(100L)));
+    final ChangeListener on_limit = e -> {
+      final var mib = ((Number) read_limit.getValue()).longValue();
+      final var ops = ((Number) operation_limit.getValue()).longValue();
+      LOG.debug(
+        "I/O limits: {} MiB/s, {} operations/s",
+        Long.valueOf(mib),
+        Long.valueOf(ops));
+      in_controller.catalogSetIOLimits(mib * 1024L * 1024L, ops);
+    };
+    read_limit.addChangeListener(on_limit);
+    operation_limit.addChangeListener(on_limit);
+
+    /*
+     * Counting files before a scan walks the filesystem an extra time, so it
+     * is off unless asked for.
+     */
+
+    final var estimate = new JCheckBox("Count files before scanning to estimate time remaining");
+    estimate.setSelected(false);
+    estimate.addItemListener(
+      e -> in_controller.catalogSetProgressEstimated(estimate.isSelected()));
+
+    /*
+     * Progress of the running scan or verification, polled twice a second.
+     * The last status shown remains once the task has finished.
+     */
+
+    final var progress = new JLabel("No disk has been scanned");
+    final var progress_timer = new Timer(500, e -> {
+      final var status = in_controller.catalogProgress();
+      if (status.isPresent()) {
+        progress.setText(status.get().show());
+      }
+    });
+    progress_timer.start();
+
     final var dg = new DesignGridLayout(this);
     dg.row().left().add(new JLabel("Running Tasks"));
     dg.row().grid().add(tasks_pane);
     dg.row().right().add(cancel);
+    dg.row().left().add(progress);
+    dg.row().grid(new JLabel("Read limit (MiB/s, 0 = none)")).add(read_limit);
+    dg.row().grid(new JLabel("Operation limit (per second, 0 = none)")).add(operation_limit);
+    dg.row().left().add(estimate);
   }
 
   private static final class TasksCellRenderer extends DefaultListCellRenderer
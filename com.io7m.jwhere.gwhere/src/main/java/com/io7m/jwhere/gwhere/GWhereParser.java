@@ -28,6 +28,7 @@ import com.io7m.jwhere.core.CatalogDiskName;
 import com.io7m.jwhere.core.CatalogFileNode;
 import com.io7m.jwhere.core.CatalogNodeException;
 import com.io7m.jwhere.core.CatalogNodeType;
+import com.io7m.jwhere.core.CatalogStringPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,12 +59,16 @@ public final class GWhereParser implements GWhereParserType
   }
 
   private final BufferedReader reader;
+  private final CatalogStringPool strings;
   private BigInteger pos_line;
   private BigInteger pos_column;
 
-  private GWhereParser(final BufferedReader r)
+  private GWhereParser(
+    final BufferedReader r,
+    final CatalogStringPool in_strings)
   {
     this.reader = Objects.requireNonNull(r, "r");
+    this.strings = Objects.requireNonNull(in_strings, "in_strings");
     this.pos_line = BigInteger.ZERO;
     this.pos_column = BigInteger.ZERO;
   }
@@ -77,11 +82,29 @@ public final class GWhereParser implements GWhereParserType
    */
 
   public static GWhereParserType newParser(final InputStream is)
+  {
+    return newParser(is, CatalogStringPool.create());
+  }
+
+  /**
+   * Construct a new parser that deduplicates names, owners, and groups using
+   * the given string pool.
+   *
+   * @param is      A readable stream
+   * @param strings The string pool
+   *
+   * @return A new parser
+   */
+
+  public static GWhereParserType newParser(
+    final InputStream is,
+    final CatalogStringPool strings)
   {
     Objects.requireNonNull(is, "is");
+    Objects.requireNonNull(strings, "strings");
 
     final var r = new BufferedReader(new InputStreamReader(is));
-    return new GWhereParser(r);
+    return new GWhereParser(r, strings);
   }
 
   static final class Pair<A, B>
@@ -288,14 +311,17 @@ public final class GWhereParser implements GWhereParserType
   {
     final var segments = line.split(":");
 
-    final var name = Objects.requireNonNull(segments[0], "segments[0]");
+    final var name =
+      this.strings.intern(Objects.requireNonNull(segments[0], "segments[0]"));
 
     final var p =
       EnumSet.noneOf(PosixFilePermission.class);
     final var type = this.parsePermissions(
       Objects.requireNonNull(segments[1], "segments[1]"), p);
-    final var owner = Objects.requireNonNull(segments[2], "segments[2]");
-    final var group = Objects.requireNonNull(segments[3], "segments[3]");
+    final var owner =
+      this.strings.intern(Objects.requireNonNull(segments[2], "segments[2]"));
+    final var group =
+      this.strings.intern(Objects.requireNonNull(segments[3], "segments[3]"));
     final var inode = new BigInteger(Objects.requireNonNull(segments[4], "segments[4]"));
     final var size = new BigInteger(Objects.requireNonNull(segments[5], "segments[5]"));
 
@@ -313,7 +339,8 @@ public final class GWhereParser implements GWhereParserType
             .setPermissions(p)
             .setGroup(owner)
             .setOwner(group)
-            .setId(inode)
+            .setIdValue(inode.longValue())
+            .setIdLarge(CatalogNodeType.largeValue(inode))
             .setModificationTime(modification)
             .setAccessTime(access)
             .setCreationTime(creation)
@@ -325,11 +352,13 @@ public final class GWhereParser implements GWhereParserType
             .setPermissions(p)
             .setGroup(owner)
             .setOwner(group)
-            .setId(inode)
+            .setIdValue(inode.longValue())
+            .setIdLarge(CatalogNodeType.largeValue(inode))
             .setModificationTime(modification)
             .setAccessTime(access)
             .setCreationTime(creation)
-            .setSize(size)
+            .setSizeValue(size.longValue())
+            .setSizeLarge(CatalogNodeType.largeValue(size))
             .build();
         return new Pair<>(name, cfn);
       case SYMBOLIC_LINK:
@@ -79,24 +79,20 @@ public final class CatalogSearcher implements CatalogSearcherType
         break;
       }
 
-      final var graph = disk.getFilesystemGraph();
-      final var vertices = graph.vertexSet();
-      for (final var node : vertices) {
+      disk.forEachPathWhile((node, path) -> {
         if (future.isCancelled()) {
-          break;
+          return false;
         }
 
-        final var path = disk.getPathForNode(node);
-        if (path.isEmpty()) {
-          continue;
+        if (!path.isEmpty()) {
+          final var last = path.get(path.size() - 1);
+          final var matcher = search.fileNamePattern().matcher(last);
+          if (matcher.matches()) {
+            results.add(CatalogSearchResult.of(disk, node));
+          }
         }
-
-        final var last = path.get(path.size() - 1);
-        final var matcher = search.fileNamePattern().matcher(last);
-        if (matcher.matches()) {
-          results.add(CatalogSearchResult.of(disk, node));
-        }
-      }
+        return true;
+      });
     }
 
     future.complete(results);
@@ -17,6 +17,7 @@
 package com.io7m.jwhere.tests.core;
 
 import com.io7m.jwhere.core.CatalogDirectoryNode;
+import com.io7m.jwhere.core.CatalogNodeType;
 import net.java.quickcheck.Generator;
 
 import java.math.BigInteger;
@@ -86,7 +87,8 @@ public final class CatalogDirectoryNodeGenerator
         .setPermissions(perms)
         .setOwner(owner)
         .setGroup(group)
-        .setId(inode)
+        .setIdValue(inode.longValue())
+        .setIdLarge(CatalogNodeType.largeValue(inode))
         .setAccessTime(access)
         .setCreationTime(creation)
         .setModificationTime(modify)
@@ -29,7 +29,6 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
-import java.math.BigInteger;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.HashSet;
@@ -129,7 +128,7 @@ public final class CatalogDirectoryNodeTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("")
-      .setId(BigInteger.valueOf(0L))
+      .setIdValue(0L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -148,7 +147,7 @@ public final class CatalogDirectoryNodeTest
       .setPermissions(new HashSet<>())
       .setGroup("")
       .setOwner("root")
-      .setId(BigInteger.valueOf(0L))
+      .setIdValue(0L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
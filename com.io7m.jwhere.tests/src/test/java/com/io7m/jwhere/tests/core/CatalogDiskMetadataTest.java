@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogDiskID;
+import com.io7m.jwhere.core.CatalogDiskMetadata;
+import com.io7m.jwhere.core.CatalogDiskName;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigInteger;
+
+public final class CatalogDiskMetadataTest
+{
+  @Rule public ExpectedException expected = ExpectedException.none();
+
+  private static CatalogDiskMetadata meta(final BigInteger size)
+  {
+    return new CatalogDiskMetadata(
+      CatalogDiskName.of("example"),
+      "iso9660",
+      CatalogDiskID.of(BigInteger.ZERO),
+      size);
+  }
+
+  @Test
+  public void testSizeLong()
+  {
+    final var m0 = meta(BigInteger.valueOf(Long.MAX_VALUE));
+    final var m1 = new CatalogDiskMetadata(
+      CatalogDiskName.of("example"),
+      "iso9660",
+      CatalogDiskID.of(BigInteger.ZERO),
+      Long.MAX_VALUE);
+
+    Assert.assertEquals(m0, m1);
+    Assert.assertEquals((long) m0.hashCode(), (long) m1.hashCode());
+    Assert.assertEquals(Long.MAX_VALUE, m0.getSizeLongExact());
+    Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE), m1.getSize());
+  }
+
+  @Test
+  public void testSizeOverflow()
+  {
+    final var big = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+    final var m0 = meta(big);
+
+    Assert.assertEquals(big, m0.getSize());
+    Assert.assertEquals(m0, meta(big));
+    Assert.assertNotEquals(m0, meta(BigInteger.ZERO));
+
+    this.expected.expect(ArithmeticException.class);
+    m0.getSizeLongExact();
+  }
+}
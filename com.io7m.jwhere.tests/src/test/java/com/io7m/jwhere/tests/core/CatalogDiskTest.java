@@ -18,12 +18,14 @@ package com.io7m.jwhere.tests.core;
 
 import com.io7m.jaffirm.core.PreconditionViolationException;
 import com.io7m.jwhere.core.CatalogDirectoryNode;
+import com.io7m.jwhere.core.CatalogDirectoryNodeType;
 import com.io7m.jwhere.core.CatalogDisk;
 import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogDiskName;
 import com.io7m.jwhere.core.CatalogFileNode;
 import com.io7m.jwhere.core.CatalogNodeDuplicateDirectoryEntryException;
 import com.io7m.jwhere.core.CatalogNodeDuplicateException;
+import com.io7m.jwhere.core.CatalogNodeType;
 import net.java.quickcheck.QuickCheck;
 import net.java.quickcheck.characteristic.AbstractCharacteristic;
 import org.junit.Assert;
@@ -34,8 +36,12 @@ import org.junit.rules.ExpectedException;
 import java.math.BigInteger;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -71,7 +77,7 @@ public final class CatalogDiskTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("root")
-      .setId(BigInteger.valueOf(0L))
+      .setIdValue(0L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -112,11 +118,11 @@ public final class CatalogDiskTest
         .setPermissions(new HashSet<>())
         .setOwner("root")
         .setGroup("root")
-        .setId(BigInteger.valueOf(1L))
+        .setIdValue(1L)
         .setAccessTime(c.instant())
         .setCreationTime(c.instant())
         .setModificationTime(c.instant())
-        .setSize(BigInteger.valueOf(120L))
+        .setSizeValue(120L)
         .setHash(Optional.empty())
         .build();
 
@@ -125,11 +131,11 @@ public final class CatalogDiskTest
         .setPermissions(new HashSet<>())
         .setOwner("root")
         .setGroup("root")
-        .setId(BigInteger.valueOf(2L))
+        .setIdValue(2L)
         .setAccessTime(c.instant())
         .setCreationTime(c.instant())
         .setModificationTime(c.instant())
-        .setSize(BigInteger.valueOf(130L))
+        .setSizeValue(130L)
         .setHash(Optional.empty())
         .build();
 
@@ -158,7 +164,7 @@ public final class CatalogDiskTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("root")
-      .setId(BigInteger.valueOf(1L))
+      .setIdValue(1L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -189,7 +195,7 @@ public final class CatalogDiskTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("root")
-      .setId(BigInteger.valueOf(1L))
+      .setIdValue(1L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -199,7 +205,7 @@ public final class CatalogDiskTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("root")
-      .setId(BigInteger.valueOf(2L))
+      .setIdValue(2L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -232,7 +238,7 @@ public final class CatalogDiskTest
       .setPermissions(new HashSet<>())
       .setGroup("root")
       .setOwner("root")
-      .setId(BigInteger.valueOf(1L))
+      .setIdValue(1L)
       .setModificationTime(c.instant())
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
@@ -289,4 +295,160 @@ public final class CatalogDiskTest
         }
       });
   }
+
+  @Test
+  public void testForEachPath()
+  {
+    final var gen = CatalogDiskGenerator.getDefault();
+
+    QuickCheck.forAllVerbose(
+      5, gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogDisk cd)
+          throws Throwable
+        {
+          final Map<CatalogNodeType, List<String>> paths = new HashMap<>();
+          cd.forEachPath((node, path) -> {
+            Assert.assertFalse(paths.containsKey(node));
+            paths.put(node, new ArrayList<>(path));
+          });
+
+          final var g = cd.getFilesystemGraph();
+          Assert.assertEquals(
+            (long) g.vertexSet().size(), (long) paths.size());
+          Assert.assertEquals(
+            Collections.emptyList(), paths.get(cd.getFilesystemRoot()));
+
+          for (final var node : g.vertexSet()) {
+            final var path = cd.getPathForNode(node);
+            Assert.assertEquals(path, paths.get(node));
+            if (!path.isEmpty()) {
+              Assert.assertEquals(Optional.of(node), cd.getNodeForPath(path));
+            }
+          }
+        }
+      });
+  }
+
+  @Test
+  public void testForEachPathWhileStops()
+    throws Exception
+  {
+    final Clock c = new ConstantClock(Instant.ofEpochSecond(1000L));
+    final var root = this.getRoot(c);
+    final var db = CatalogDisk.newDiskBuilder(
+      root,
+      CatalogDiskName.of("example"),
+      "iso9660",
+      CatalogDiskID.of(BigInteger.ZERO),
+      BigInteger.ONE);
+
+    for (var index = 1; index <= 10; ++index) {
+      db.addNode(root, "d" + index, this.getDirectory(c, index));
+    }
+
+    final var cd = db.build();
+    final var visited = new ArrayList<CatalogNodeType>();
+    Assert.assertFalse(cd.forEachPathWhile((node, path) -> {
+      visited.add(node);
+      return visited.size() < 4;
+    }));
+    Assert.assertEquals(4L, (long) visited.size());
+
+    visited.clear();
+    Assert.assertTrue(cd.forEachPathWhile((node, path) -> visited.add(node)));
+    Assert.assertEquals(11L, (long) visited.size());
+  }
+
+  @Test
+  public void testForEachPathDeep()
+    throws Exception
+  {
+    final Clock c = new ConstantClock(Instant.ofEpochSecond(1000L));
+    final var root = this.getRoot(c);
+    final var db = CatalogDisk.newDiskBuilder(
+      root,
+      CatalogDiskName.of("example"),
+      "iso9660",
+      CatalogDiskID.of(BigInteger.ZERO),
+      BigInteger.ONE);
+
+    final var depth = 10000;
+    var parent = root;
+    for (var index = 1; index <= depth; ++index) {
+      final var dir = this.getDirectory(c, index);
+      db.addNode(parent, "d", dir);
+      parent = dir;
+    }
+    final var cd = db.build();
+    final var deepest = parent;
+
+    /*
+     * Traverse on a thread with a small stack, so that a traversal that
+     * recursed once per directory would overflow.
+     */
+
+    final var count = new long[1];
+    final var failure = new Throwable[1];
+    final var thread = new Thread(null, () -> {
+      try {
+        cd.forEachPath((node, path) -> {
+          ++count[0];
+          if (node.equals(deepest)) {
+            Assert.assertEquals((long) depth, (long) path.size());
+          }
+        });
+      } catch (final Throwable e) {
+        failure[0] = e;
+      }
+    }, "deep", 256L * 1024L);
+    thread.start();
+    thread.join();
+
+    Assert.assertNull(failure[0]);
+    Assert.assertEquals((long) depth + 1L, count[0]);
+  }
+
+  private CatalogDirectoryNode getDirectory(
+    final Clock c,
+    final long id)
+  {
+    return CatalogDirectoryNode.builder()
+      .setPermissions(new HashSet<>())
+      .setGroup("root")
+      .setOwner("root")
+      .setIdValue(id)
+      .setModificationTime(c.instant())
+      .setAccessTime(c.instant())
+      .setCreationTime(c.instant())
+      .build();
+  }
+
+  @Test
+  public void testNodeForEntry()
+  {
+    final var gen = CatalogDiskGenerator.getDefault();
+
+    QuickCheck.forAllVerbose(
+      5, gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogDisk cd)
+          throws Throwable
+        {
+          final var g = cd.getFilesystemGraph();
+          for (final var edge : g.edgeSet()) {
+            final var parent = (CatalogDirectoryNodeType) g.getEdgeSource(edge);
+            Assert.assertEquals(
+              Optional.of(edge.getTarget()),
+              cd.getNodeForEntry(parent, edge.getName()));
+          }
+
+          Assert.assertEquals(
+            Optional.empty(),
+            cd.getNodeForEntry(cd.getFilesystemRoot(), "nonexistent/name"));
+        }
+      });
+  }
 }
@@ -83,6 +83,21 @@ public abstract class CatalogFileHashContract
     }
   }
 
+  @Test
+  public final void testFromHex()
+  {
+    final var h = CatalogFileHashes.fromHex("SHA-256", "00ff7f80");
+    Assert.assertArrayEquals(
+      new byte[]{(byte) 0x00, (byte) 0xff, (byte) 0x7f, (byte) 0x80},
+      h.bytes());
+    Assert.assertEquals("00FF7F80", h.value());
+    Assert.assertEquals("SHA-256:00FF7F80", h.show());
+    Assert.assertEquals(h, CatalogFileHashes.fromHex("SHA-256", h.value()));
+
+    this.expected.expect(IllegalArgumentException.class);
+    CatalogFileHashes.fromHex("SHA-256", "not hex");
+  }
+
   @Test
   public final void testEqualsCases()
   {
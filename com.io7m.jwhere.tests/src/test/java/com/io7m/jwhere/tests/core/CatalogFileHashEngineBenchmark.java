@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogFileHashEngine;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
+import com.io7m.jwhere.core.CatalogFileHashes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+/**
+ * <p>A simple benchmark comparing the throughput of
+ * {@link CatalogFileHashEngine} against the stream-based
+ * {@link CatalogFileHashes#fromFileWithDigest(MessageDigest, Path)}.</p>
+ *
+ * <p>Run with {@code java ... CatalogFileHashEngineBenchmark [megabytes]
+ * [iterations]}. A temporary file of the given size is hashed repeatedly by
+ * each implementation, and the best time for each is reported. The file is
+ * likely to be in the page cache after the first iteration, so the results
+ * measure the cost of moving data into the digest rather than device
+ * bandwidth.</p>
+ */
+
+public final class CatalogFileHashEngineBenchmark
+{
+  private CatalogFileHashEngineBenchmark()
+  {
+
+  }
+
+  private interface HasherType
+  {
+    void hash(Path file)
+      throws Exception;
+  }
+
+  private static long run(
+    final HasherType hasher,
+    final Path file)
+    throws Exception
+  {
+    final var time_then = System.nanoTime();
+    hasher.hash(file);
+    return System.nanoTime() - time_then;
+  }
+
+  private static void report(
+    final String name,
+    final long size,
+    final long nanos)
+  {
+    final var per_second =
+      ((double) size / (1024.0 * 1024.0)) / ((double) nanos / 1.0e9);
+    System.out.printf(
+      "%-24s %12.3f ms %10.1f MiB/s%n",
+      name,
+      Double.valueOf((double) nanos / 1.0e6),
+      Double.valueOf(per_second));
+  }
+
+  /**
+   * Command-line entry point.
+   *
+   * @param args Command-line arguments
+   *
+   * @throws Exception On errors
+   */
+
+  public static void main(final String[] args)
+    throws Exception
+  {
+    final var megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+    final var iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+    final var file = Files.createTempFile("jwhere-", ".bin");
+    try {
+      writeFile(file, megabytes);
+
+      final var size = Files.size(file);
+      final var buffered = CatalogFileHashEngine.create(
+        CatalogFileHashEngineSettings.builder()
+          .setMapThreshold(Long.MAX_VALUE)
+          .build());
+      final var mapped = CatalogFileHashEngine.create(
+        CatalogFileHashEngineSettings.builder()
+          .setMapThreshold(1L)
+          .build());
+
+      final HasherType[] hashers = {
+        f -> CatalogFileHashes.fromFileWithDigest(
+          MessageDigest.getInstance("SHA-256"), f),
+        buffered::hash,
+        mapped::hash,
+      };
+      final String[] names = {
+        "InputStream (8 KiB)",
+        "FileChannel (direct)",
+        "FileChannel (mapped)",
+      };
+
+      final var best = new long[hashers.length];
+      for (var index = 0; index < hashers.length; ++index) {
+        run(hashers[index], file);
+        best[index] = Long.MAX_VALUE;
+      }
+
+      for (var iteration = 0; iteration < iterations; ++iteration) {
+        for (var index = 0; index < hashers.length; ++index) {
+          best[index] = Math.min(best[index], run(hashers[index], file));
+        }
+      }
+
+      for (var index = 0; index < hashers.length; ++index) {
+        report(names[index], size, best[index]);
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static void writeFile(
+    final Path file,
+    final int megabytes)
+    throws IOException
+  {
+    final var block = new byte[1024 * 1024];
+    final var random = new Random(0L);
+    try (var out = Files.newOutputStream(file)) {
+      for (var index = 0; index < megabytes; ++index) {
+        random.nextBytes(block);
+        out.write(block);
+      }
+    }
+  }
+}
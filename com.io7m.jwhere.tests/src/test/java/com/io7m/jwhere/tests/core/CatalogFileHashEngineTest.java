@@ -0,0 +1,417 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jaffirm.core.PreconditionViolationException;
+import com.io7m.jwhere.core.CatalogFileHashEngine;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
+import com.io7m.jwhere.core.CatalogFileHashes;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogHashSampling;
+import com.io7m.jwhere.core.CatalogHashTree;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+public final class CatalogFileHashEngineTest
+{
+  private static final int[] SIZES = {0, 1, 15, 16, 17, 63, 64, 65, 100, 1000};
+
+  private Path directory;
+
+  private static void assertHashesMatch(
+    final CatalogFileHashEngine engine,
+    final Path file)
+    throws Exception
+  {
+    final var expected =
+      CatalogFileHashes.fromFileWithDigest(
+        MessageDigest.getInstance("SHA-256"), file);
+    Assert.assertEquals(expected, engine.hash(file));
+  }
+
+  private static Path writeRandom(
+    final Path directory,
+    final int size)
+    throws IOException
+  {
+    final var data = new byte[size];
+    new Random((long) size).nextBytes(data);
+    final var file = directory.resolve("file" + size);
+    Files.write(file, data);
+    return file;
+  }
+
+  @Before
+  public void setUp()
+    throws IOException
+  {
+    this.directory = Files.createTempDirectory("jwhere-");
+  }
+
+  @After
+  public void tearDown()
+    throws IOException
+  {
+    try (var stream = Files.list(this.directory)) {
+      for (final var file : (Iterable<Path>) stream::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(this.directory);
+  }
+
+  @Test
+  public void testBuffered()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(Long.MAX_VALUE)
+        .build());
+
+    for (final var size : SIZES) {
+      assertHashesMatch(engine, writeRandom(this.directory, size));
+    }
+  }
+
+  @Test
+  public void testMapped()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(1L)
+        .setMapWindowSize(32L)
+        .build());
+
+    for (final var size : SIZES) {
+      assertHashesMatch(engine, writeRandom(this.directory, size));
+    }
+  }
+
+  @Test
+  public void testMappingUnsupported()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(1L)
+        .setMapWindowSize(32L)
+        .build());
+
+    try (var fs = CatalogTestFilesystems.makeEmptyUnixFilesystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      for (final var size : SIZES) {
+        assertHashesMatch(engine, writeRandom(root, size));
+      }
+    }
+  }
+
+  @Test
+  public void testDefault()
+    throws Exception
+  {
+    for (final var size : SIZES) {
+      assertHashesMatch(
+        CatalogFileHashEngine.create(), writeRandom(this.directory, size));
+    }
+  }
+
+  @Test
+  public void testHashAll()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(64L)
+        .setMapWindowSize(32L)
+        .build());
+
+    final var algorithms = List.of(
+      CatalogHashAlgorithms.SHA_256,
+      CatalogHashAlgorithms.CRC32C,
+      CatalogHashAlgorithms.XXH64);
+
+    for (final var size : SIZES) {
+      final var file = writeRandom(this.directory, size);
+      final var hashes = engine.hashAll(algorithms, file);
+      Assert.assertEquals(algorithms.size(), hashes.size());
+      for (var index = 0; index < algorithms.size(); ++index) {
+        Assert.assertEquals(
+          engine.hash(algorithms.get(index), file), hashes.get(index));
+      }
+    }
+  }
+
+  @Test(expected = PreconditionViolationException.class)
+  public void testHashAllDuplicate()
+    throws Exception
+  {
+    CatalogFileHashEngine.create().hashAll(
+      List.of(CatalogHashAlgorithms.CRC32C, CatalogHashAlgorithms.CRC32C),
+      writeRandom(this.directory, 10));
+  }
+
+  @Test
+  public void testSampled()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .build());
+
+    final var sampled = CatalogHashAlgorithms.sampled(
+      CatalogHashAlgorithms.CRC32C,
+      CatalogHashSampling.builder()
+        .setBlockSize(10L)
+        .setInteriorBlocks(1)
+        .build());
+
+    /*
+     * The sampled blocks of a 100 byte file are [0, 10), [45, 55), and
+     * [90, 100).
+     */
+
+    final var file = writeRandom(this.directory, 100);
+    final var data = Files.readAllBytes(file);
+    final var hash = engine.hash(sampled, file);
+    Assert.assertEquals(sampled.name(), hash.algorithm());
+
+    data[20] = (byte) (data[20] + 1);
+    Files.write(file, data);
+    Assert.assertEquals(hash, engine.hash(sampled, file));
+
+    for (final var offset : new int[]{0, 50, 99}) {
+      data[offset] = (byte) (data[offset] + 1);
+      Files.write(file, data);
+      Assert.assertNotEquals(hash, engine.hash(sampled, file));
+      data[offset] = (byte) (data[offset] - 1);
+    }
+
+    Files.write(file, Arrays.copyOf(data, 101));
+    Assert.assertNotEquals(hash, engine.hash(sampled, file));
+  }
+
+  @Test
+  public void testSampledSmall()
+    throws Exception
+  {
+    final var sampled = CatalogHashAlgorithms.sampled(
+      CatalogHashAlgorithms.CRC32C,
+      CatalogHashSampling.builder()
+        .setBlockSize(10L)
+        .setInteriorBlocks(1)
+        .build());
+
+    final var file = writeRandom(this.directory, 30);
+    final var data = Files.readAllBytes(file);
+
+    final var expected = new CRC32C();
+    expected.update(ByteBuffer.allocate(8).putLong(0, 30L));
+    expected.update(data);
+
+    final var hash = CatalogFileHashEngine.create().hash(sampled, file);
+    Assert.assertArrayEquals(
+      ByteBuffer.allocate(4).putInt((int) expected.getValue()).array(),
+      hash.bytes());
+  }
+
+  @Test
+  public void testSampledWithFull()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(64L)
+        .setMapWindowSize(32L)
+        .build());
+
+    final var sampled = CatalogHashAlgorithms.sampled(
+      CatalogHashAlgorithms.XXH64,
+      CatalogHashSampling.builder()
+        .setBlockSize(8L)
+        .setInteriorBlocks(2)
+        .build());
+
+    final var algorithms =
+      List.of(sampled, CatalogHashAlgorithms.XXH64, CatalogHashAlgorithms.SHA_256);
+
+    for (final var size : SIZES) {
+      final var file = writeRandom(this.directory, size);
+      final var hashes = engine.hashAll(algorithms, file);
+      for (var index = 0; index < algorithms.size(); ++index) {
+        Assert.assertEquals(
+          engine.hash(algorithms.get(index), file), hashes.get(index));
+      }
+    }
+  }
+
+  @Test
+  public void testTree()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .build());
+
+    final var tree = CatalogHashAlgorithms.tree(
+      CatalogHashAlgorithms.SHA_256,
+      CatalogHashTree.builder()
+        .setChunkSize(10L)
+        .build());
+
+    for (final var size : SIZES) {
+      final var file = writeRandom(this.directory, size);
+      final var data = Files.readAllBytes(file);
+
+      final var root = MessageDigest.getInstance("SHA-256");
+      root.update(ByteBuffer.allocate(8).putLong(0, (long) size));
+      for (var offset = 0; offset < size; offset += 10) {
+        final var chunk = MessageDigest.getInstance("SHA-256");
+        chunk.update(data, offset, Math.min(10, size - offset));
+        root.update(chunk.digest());
+      }
+
+      final var hash = engine.hash(tree, file);
+      Assert.assertEquals(tree.name(), hash.algorithm());
+      Assert.assertArrayEquals(root.digest(), hash.bytes());
+    }
+  }
+
+  @Test
+  public void testTreeInPool()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .build());
+
+    final var tree = CatalogHashAlgorithms.tree(
+      CatalogHashAlgorithms.XXH64,
+      CatalogHashTree.builder()
+        .setChunkSize(3L)
+        .build());
+
+    final var file = writeRandom(this.directory, 1000);
+    final var expected = engine.hash(tree, file);
+
+    final var pool = new ForkJoinPool(4);
+    try {
+      Assert.assertEquals(
+        expected, pool.submit(() -> engine.hash(tree, file)).get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testTreeWithOthers()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(64L)
+        .setMapWindowSize(32L)
+        .build());
+
+    final var sampled = CatalogHashAlgorithms.sampled(
+      CatalogHashAlgorithms.XXH64,
+      CatalogHashSampling.builder()
+        .setBlockSize(8L)
+        .setInteriorBlocks(2)
+        .build());
+
+    final var tree = CatalogHashAlgorithms.tree(
+      CatalogHashAlgorithms.CRC32C,
+      CatalogHashTree.builder()
+        .setChunkSize(16L)
+        .build());
+
+    final var algorithms =
+      List.of(tree, sampled, CatalogHashAlgorithms.CRC32C);
+
+    for (final var size : SIZES) {
+      final var file = writeRandom(this.directory, size);
+      final var hashes = engine.hashAll(algorithms, file);
+      for (var index = 0; index < algorithms.size(); ++index) {
+        Assert.assertEquals(
+          engine.hash(algorithms.get(index), file), hashes.get(index));
+      }
+    }
+  }
+
+  @Test
+  public void testThreads()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .build());
+
+    final var files = new Path[SIZES.length];
+    for (var index = 0; index < SIZES.length; ++index) {
+      files[index] = writeRandom(this.directory, SIZES[index]);
+    }
+
+    final var threads = new Thread[4];
+    final var failures = new Throwable[threads.length];
+    for (var index = 0; index < threads.length; ++index) {
+      final var thread_index = index;
+      threads[index] = new Thread(() -> {
+        try {
+          for (var iteration = 0; iteration < 10; ++iteration) {
+            for (final var file : files) {
+              assertHashesMatch(engine, file);
+            }
+          }
+        } catch (final Throwable e) {
+          failures[thread_index] = e;
+        }
+      });
+      threads[index].start();
+    }
+
+    for (var index = 0; index < threads.length; ++index) {
+      threads[index].join();
+      Assert.assertNull(failures[index]);
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.io7m.jwhere.tests.core;
 
 import com.io7m.jwhere.core.CatalogFileHash;
 import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.CombinedGenerators;
 import net.java.quickcheck.generator.support.StringGenerator;
 
 import java.util.Objects;
@@ -26,10 +27,12 @@ public final class CatalogFileHashGenerator
   implements Generator<CatalogFileHash>
 {
   private final Generator<String> string_gen;
+  private final Generator<byte[]> bytes_gen;
 
   public CatalogFileHashGenerator(final Generator<String> in_string_gen)
   {
     this.string_gen = Objects.requireNonNull(in_string_gen, "in_string_gen");
+    this.bytes_gen = CombinedGenerators.byteArrays();
   }
 
   public static Generator<CatalogFileHash> getDefault()
@@ -42,7 +45,7 @@ public final class CatalogFileHashGenerator
   {
     return CatalogFileHash.builder()
       .setAlgorithm(this.string_gen.next())
-      .setValue(this.string_gen.next())
+      .setBytes(this.bytes_gen.next())
       .build();
   }
 }
@@ -18,12 +18,14 @@ package com.io7m.jwhere.tests.core;
 
 import com.io7m.jwhere.core.CatalogFileHash;
 import com.io7m.jwhere.core.CatalogFileNode;
+import com.io7m.jwhere.core.CatalogNodeType;
 import net.java.quickcheck.Generator;
 import net.java.quickcheck.generator.support.StringGenerator;
 
 import java.math.BigInteger;
 import java.nio.file.attribute.PosixFilePermission;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
@@ -39,6 +41,7 @@ public final class CatalogFileNodeGenerator
   private final Generator<String> group_gen;
   private final Generator<Instant> time_gen;
   private final Generator<Optional<CatalogFileHash>> hash_gen;
+  private final Generator<CatalogFileHash> additional_gen;
 
   public CatalogFileNodeGenerator(
     final Generator<Boolean> in_type_gen,
@@ -47,7 +50,8 @@ public final class CatalogFileNodeGenerator
     final Generator<String> in_user_gen,
     final Generator<String> in_group_gen,
     final Generator<Instant> in_time_gen,
-    final Generator<Optional<CatalogFileHash>> in_file_hash_gen)
+    final Generator<Optional<CatalogFileHash>> in_file_hash_gen,
+    final Generator<CatalogFileHash> in_additional_hash_gen)
   {
     this.type_gen = Objects.requireNonNull(in_type_gen, "in_type_gen");
     this.long_gen = Objects.requireNonNull(in_long_gen, "in_long_gen");
@@ -56,6 +60,8 @@ public final class CatalogFileNodeGenerator
     this.group_gen = Objects.requireNonNull(in_group_gen, "in_group_gen");
     this.time_gen = Objects.requireNonNull(in_time_gen, "in_time_gen");
     this.hash_gen = Objects.requireNonNull(in_file_hash_gen, "in_file_hash_gen");
+    this.additional_gen =
+      Objects.requireNonNull(in_additional_hash_gen, "in_additional_hash_gen");
   }
 
   public static Generator<CatalogFileNode> getDefault()
@@ -85,7 +91,8 @@ public final class CatalogFileNodeGenerator
       user_gen,
       group_gen,
       time_gen,
-      opt_hash_gen);
+      opt_hash_gen,
+      hash_gen);
   }
 
   @Override
@@ -101,16 +108,27 @@ public final class CatalogFileNodeGenerator
     final var size = this.long_gen.next();
     final var hash = this.hash_gen.next();
 
+    final var additional = new ArrayList<CatalogFileHash>(1);
+    if (hash.isPresent() && this.type_gen.next().booleanValue()) {
+      final var extra = this.additional_gen.next();
+      if (!extra.algorithm().equals(hash.get().algorithm())) {
+        additional.add(extra);
+      }
+    }
+
     return CatalogFileNode.builder()
       .setPermissions(perms)
       .setOwner(owner)
       .setGroup(group)
-      .setId(inode)
+      .setIdValue(inode.longValue())
+      .setIdLarge(CatalogNodeType.largeValue(inode))
       .setAccessTime(access)
       .setCreationTime(creation)
       .setModificationTime(modify)
-      .setSize(size)
+      .setSizeValue(size.longValue())
+      .setSizeLarge(CatalogNodeType.largeValue(size))
       .setHash(hash)
+      .setAdditionalHashes(additional)
       .build();
   }
 }
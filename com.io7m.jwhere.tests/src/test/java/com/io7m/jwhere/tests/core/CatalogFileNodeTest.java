@@ -22,6 +22,7 @@ import com.io7m.jwhere.core.CatalogDirectoryNodeType;
 import com.io7m.jwhere.core.CatalogFileNode;
 import com.io7m.jwhere.core.CatalogFileNodeType;
 import com.io7m.jwhere.core.CatalogNodeMatcherType;
+import com.io7m.jwhere.core.CatalogNodeType;
 import net.java.quickcheck.QuickCheck;
 import net.java.quickcheck.characteristic.AbstractCharacteristic;
 import org.junit.Assert;
@@ -125,11 +126,11 @@ public final class CatalogFileNodeTest
       .setPermissions(new HashSet<>())
       .setOwner("")
       .setGroup("root")
-      .setId(BigInteger.valueOf(2L))
+      .setIdValue(2L)
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
       .setModificationTime(c.instant())
-      .setSize(BigInteger.valueOf(130L))
+      .setSizeValue(130L)
       .setHash(Optional.empty())
       .build();
   }
@@ -146,11 +147,63 @@ public final class CatalogFileNodeTest
       .setPermissions(new HashSet<>())
       .setOwner("root")
       .setGroup("")
-      .setId(BigInteger.valueOf(2L))
+      .setIdValue(2L)
       .setAccessTime(c.instant())
       .setCreationTime(c.instant())
       .setModificationTime(c.instant())
-      .setSize(BigInteger.valueOf(130L))
+      .setSizeValue(130L)
+      .setHash(Optional.empty())
+      .build();
+  }
+
+  @Test
+  public void testLongValues()
+  {
+    final Clock c = new ConstantClock(Instant.ofEpochSecond(1000L));
+    final var big = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+
+    final var f0 = CatalogFileNode.builder()
+      .setPermissions(new HashSet<>())
+      .setOwner("root")
+      .setGroup("root")
+      .setIdValue(Long.MAX_VALUE)
+      .setIdLarge(CatalogNodeType.largeValue(BigInteger.valueOf(Long.MAX_VALUE)))
+      .setAccessTime(c.instant())
+      .setCreationTime(c.instant())
+      .setModificationTime(c.instant())
+      .setSizeValue(big.longValue())
+      .setSizeLarge(CatalogNodeType.largeValue(big))
+      .setHash(Optional.empty())
+      .build();
+
+    Assert.assertEquals(Optional.empty(), f0.idLarge());
+    Assert.assertEquals(Long.MAX_VALUE, f0.idLongExact());
+    Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE), f0.id());
+    Assert.assertEquals(Optional.of(big), f0.sizeLarge());
+    Assert.assertEquals(big, f0.size());
+
+    this.expected.expect(ArithmeticException.class);
+    f0.sizeLongExact();
+  }
+
+  @Test
+  public void testLargeValueFitsLong()
+  {
+    this.expected.expect(PreconditionViolationException.class);
+    this.expected.expectMessage("Large sizes must not fit into a long");
+
+    final Clock c = new ConstantClock(Instant.ofEpochSecond(1000L));
+
+    CatalogFileNode.builder()
+      .setPermissions(new HashSet<>())
+      .setOwner("root")
+      .setGroup("root")
+      .setIdValue(2L)
+      .setAccessTime(c.instant())
+      .setCreationTime(c.instant())
+      .setModificationTime(c.instant())
+      .setSizeValue(130L)
+      .setSizeLarge(BigInteger.valueOf(130L))
       .setHash(Optional.empty())
       .build();
   }
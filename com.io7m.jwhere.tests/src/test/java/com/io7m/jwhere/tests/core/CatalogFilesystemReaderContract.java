@@ -20,16 +20,30 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gs.collections.api.multimap.MutableMultimap;
 import com.gs.collections.impl.multimap.bag.HashBagMultimap;
+import com.io7m.jwhere.core.CatalogDirectoryNode;
 import com.io7m.jwhere.core.CatalogDisk;
 import com.io7m.jwhere.core.CatalogDiskID;
 import com.io7m.jwhere.core.CatalogDiskName;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
+import com.io7m.jwhere.core.CatalogFileHashes;
 import com.io7m.jwhere.core.CatalogFileNode;
 import com.io7m.jwhere.core.CatalogFilesystemReader;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogHashSampling;
+import com.io7m.jwhere.core.CatalogHashTree;
+import com.io7m.jwhere.core.CatalogIOThrottle;
 import com.io7m.jwhere.core.CatalogIgnoreAccessTime;
+import com.io7m.jwhere.core.CatalogJSONParser;
 import com.io7m.jwhere.core.CatalogJSONSerializer;
+import com.io7m.jwhere.core.CatalogJSONStreamWriter;
+import com.io7m.jwhere.core.CatalogNodeType;
+import com.io7m.jwhere.core.CatalogScanContext;
+import com.io7m.jwhere.core.CatalogScanProgress;
+import com.io7m.jwhere.core.CatalogScanSettings;
 import com.io7m.jwhere.core.CatalogVerificationChangedHash;
 import com.io7m.jwhere.core.CatalogVerificationChangedMetadata;
 import com.io7m.jwhere.core.CatalogVerificationChangedType;
+import com.io7m.jwhere.core.CatalogVerificationHashMode;
 import com.io7m.jwhere.core.CatalogVerificationListenerType;
 import com.io7m.jwhere.core.CatalogVerificationMetadataField;
 import com.io7m.jwhere.core.CatalogVerificationReportItemErrorType;
@@ -46,18 +60,22 @@ import org.junit.rules.ExpectedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public abstract class CatalogFilesystemReaderContract
@@ -137,6 +155,12 @@ public abstract class CatalogFilesystemReaderContract
     return isErrorWithField(x, v);
   }
 
+  private static boolean isSizeError(
+    final CatalogVerificationReportItemErrorType x)
+  {
+    return isErrorWithField(x, CatalogVerificationMetadataField.SIZE);
+  }
+
   private static boolean isAccessTimeError(
     final CatalogVerificationReportItemErrorType x)
   {
@@ -408,6 +432,447 @@ public abstract class CatalogFilesystemReaderContract
       });
   }
 
+  /*
+   * Hashing a file updates its access time, so two scans of the same
+   * filesystem cannot be expected to agree on access times.
+   */
+
+  private static List<String> flattenIgnoringAccessTimes(
+    final CatalogDisk disk)
+  {
+    final var results = new ArrayList<String>();
+    disk.forEachPath((node, path) -> {
+      final CatalogNodeType normalized;
+      if (node instanceof CatalogFileNode) {
+        normalized = ((CatalogFileNode) node).withAccessTime(Instant.EPOCH);
+      } else {
+        normalized =
+          ((CatalogDirectoryNode) node).withAccessTime(Instant.EPOCH);
+      }
+      results.add(path + " " + normalized);
+    });
+    return results;
+  }
+
+  @Test
+  public final void testParallelHashingIdentical()
+    throws Exception
+  {
+    final var fs_gen =
+      new CatalogTestFilesystemGenerator(this.getFilesystemProfile());
+
+    QuickCheck.forAll(
+      10, fs_gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogTestFilesystem tfs)
+          throws Throwable
+        {
+          try (tfs) {
+            final var fs = tfs.getFilesystem();
+            final var root = fs.getRootDirectories().iterator().next();
+
+            final var disk_seq = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root);
+
+            final var disk_par = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root,
+              CatalogScanSettings.builder()
+                .setHashThreads(4)
+                .setHashQueueCapacity(2)
+                .build(),
+              CatalogScanContext.builder().build());
+
+            Assert.assertEquals(disk_seq.getMeta(), disk_par.getMeta());
+            Assert.assertEquals(
+              flattenIgnoringAccessTimes(disk_seq),
+              flattenIgnoringAccessTimes(disk_par));
+          }
+        }
+      });
+  }
+
+  @Test
+  public final void testStreamDiskIdentical()
+    throws Exception
+  {
+    final var fs_gen =
+      new CatalogTestFilesystemGenerator(this.getFilesystemProfile());
+
+    final var parser = CatalogJSONParser.newParser();
+    final var settings_all = List.of(
+      CatalogScanSettings.builder()
+        .build(),
+      CatalogScanSettings.builder()
+        .setHashThreads(4)
+        .setHashQueueCapacity(2)
+        .build(),
+      CatalogScanSettings.builder()
+        .setTraversalThreads(4)
+        .build(),
+      CatalogScanSettings.builder()
+        .setTraversalThreads(4)
+        .setTraversalQueueCapacity(1)
+        .build());
+
+    QuickCheck.forAll(
+      10, fs_gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogTestFilesystem tfs)
+          throws Throwable
+        {
+          try (tfs) {
+            final var fs = tfs.getFilesystem();
+            final var root = fs.getRootDirectories().iterator().next();
+
+            final var disk_mem = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ONE),
+              root);
+
+            for (final var settings : settings_all) {
+              final var bytes = new ByteArrayOutputStream();
+              try (var writer = CatalogJSONStreamWriter.open(bytes)) {
+                CatalogFilesystemReader.streamDisk(
+                  CatalogDiskName.of("test"),
+                  CatalogDiskID.of(BigInteger.ONE),
+                  root,
+                  settings,
+                  CatalogScanContext.builder().build(),
+                  writer);
+              }
+
+              final var catalog =
+                parser.parseCatalogFromStream(
+                  new ByteArrayInputStream(bytes.toByteArray()));
+              final var disk_streamed =
+                catalog.getDisks().get(CatalogDiskID.of(BigInteger.ONE));
+
+              Assert.assertEquals(disk_mem.getMeta(), disk_streamed.getMeta());
+              Assert.assertEquals(
+                flattenIgnoringAccessTimes(disk_mem),
+                flattenIgnoringAccessTimes(disk_streamed));
+            }
+          }
+        }
+      });
+  }
+
+  @Test
+  public final void testParallelTraversalIdentical()
+    throws Exception
+  {
+    final var fs_gen =
+      new CatalogTestFilesystemGenerator(this.getFilesystemProfile());
+
+    QuickCheck.forAll(
+      10, fs_gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogTestFilesystem tfs)
+          throws Throwable
+        {
+          try (tfs) {
+            final var fs = tfs.getFilesystem();
+            final var root = fs.getRootDirectories().iterator().next();
+
+            final var disk_seq = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root);
+
+            final var disk_par = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root,
+              CatalogScanSettings.builder()
+                .setTraversalThreads(4)
+                .build(),
+              CatalogScanContext.builder().build());
+
+            final var disk_narrow = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root,
+              CatalogScanSettings.builder()
+                .setTraversalThreads(4)
+                .setTraversalQueueCapacity(1)
+                .build(),
+              CatalogScanContext.builder().build());
+
+            Assert.assertEquals(disk_seq.getMeta(), disk_par.getMeta());
+            Assert.assertEquals(
+              flattenIgnoringAccessTimes(disk_seq),
+              flattenIgnoringAccessTimes(disk_par));
+            Assert.assertEquals(
+              flattenIgnoringAccessTimes(disk_seq),
+              flattenIgnoringAccessTimes(disk_narrow));
+          }
+        }
+      });
+  }
+
+  @Test
+  public final void testThrottleAccountsForIO()
+    throws Exception
+  {
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+
+      Files.write(
+        root.resolve("file0.txt"),
+        "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(
+        root.resolve("file1.txt"),
+        "Hello file11".getBytes(StandardCharsets.UTF_8));
+      Files.write(
+        root.resolve("file2.txt"),
+        "Hello file222".getBytes(StandardCharsets.UTF_8));
+
+      /*
+       * One operation to read the attributes of the root, one to list it,
+       * and one for each file.
+       */
+
+      for (final var threads : new int[]{1, 4}) {
+        final var throttle = CatalogIOThrottle.unlimited();
+        final var disk = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          root,
+          CatalogScanSettings.builder()
+            .setTraversalThreads(threads)
+            .build(),
+          CatalogScanContext.builder().setThrottle(throttle).build());
+
+        final var scanned = throttle.throughput();
+        Assert.assertEquals(36L, scanned.bytes());
+        Assert.assertEquals(5L, scanned.operations());
+
+        CatalogFilesystemReader.verifyDisk(
+          disk,
+          CatalogVerificationReportSettings.builder()
+            .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+            .build(),
+          root,
+          new CheckedListener(),
+          CatalogScanContext.builder().setThrottle(throttle).build());
+
+        final var verified = throttle.throughput().since(scanned);
+        Assert.assertEquals(36L, verified.bytes());
+        Assert.assertEquals(5L, verified.operations());
+      }
+    }
+  }
+
+  @Test
+  public final void testProgressCountsScan()
+    throws Exception
+  {
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+
+      Files.write(
+        root.resolve("file0.txt"),
+        "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(
+        root.resolve("file1.txt"),
+        "Hello file11".getBytes(StandardCharsets.UTF_8));
+      Files.write(
+        root.resolve("file2.txt"),
+        "Hello file222".getBytes(StandardCharsets.UTF_8));
+
+      final var estimate_throttle = CatalogIOThrottle.unlimited();
+      final var estimate =
+        CatalogFilesystemReader.estimate(root, estimate_throttle);
+      Assert.assertEquals(1L, estimate.directories());
+      Assert.assertEquals(3L, estimate.files());
+      Assert.assertEquals(36L, estimate.bytes());
+
+      /*
+       * Counting is not part of any scan, so it is not recorded in the
+       * throughput of the throttle.
+       */
+
+      Assert.assertEquals(0L, estimate_throttle.throughput().operations());
+      Assert.assertEquals(0L, estimate_throttle.throughput().bytes());
+
+      for (final var threads : new int[]{1, 4}) {
+        final var scan_progress = CatalogScanProgress.create();
+        scan_progress.setEstimate(estimate);
+        Assert.assertEquals(
+          0.0, scan_progress.status().completed().getAsDouble(), 0.0);
+
+        final var disk = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          root,
+          CatalogScanSettings.builder()
+            .setTraversalThreads(threads)
+            .build(),
+          CatalogScanContext.builder().setProgress(scan_progress).build());
+
+        final var scanned = scan_progress.status();
+        Assert.assertEquals(1L, scanned.directories());
+        Assert.assertEquals(3L, scanned.files());
+        Assert.assertEquals(36L, scanned.fileBytes());
+        Assert.assertEquals(36L, scanned.bytesRead());
+        Assert.assertEquals(0L, scanned.queueDepth());
+        Assert.assertEquals(1.0, scanned.completed().getAsDouble(), 0.0);
+
+        final var verify_progress = CatalogScanProgress.create();
+        CatalogFilesystemReader.verifyDisk(
+          disk,
+          CatalogVerificationReportSettings.builder()
+            .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+            .build(),
+          root,
+          new CheckedListener(),
+          CatalogScanContext.builder().setProgress(verify_progress).build());
+
+        final var verified = verify_progress.status();
+        Assert.assertEquals(1L, verified.directories());
+        Assert.assertEquals(3L, verified.files());
+        Assert.assertEquals(36L, verified.bytesRead());
+        Assert.assertEquals(0L, verified.queueDepth());
+        Assert.assertFalse(verified.completed().isPresent());
+      }
+    }
+  }
+
+  @Test
+  public final void testJournalResumesScan()
+    throws Exception
+  {
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var disk_root = root.resolve("disk");
+      final var journal = root.resolve("journal");
+
+      Files.createDirectory(disk_root);
+      final var file0 = disk_root.resolve("file0.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.createDirectory(disk_root.resolve("dir"));
+      Files.write(
+        disk_root.resolve("dir").resolve("file1.txt"),
+        "Hello file11".getBytes(StandardCharsets.UTF_8));
+
+      for (final var threads : new int[]{1, 4}) {
+        final var settings =
+          CatalogScanSettings.builder()
+            .setTraversalThreads(threads)
+            .setJournal(journal)
+            .build();
+
+        final var throttle0 = CatalogIOThrottle.unlimited();
+        final var disk0 = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          disk_root,
+          settings,
+          CatalogScanContext.builder().setThrottle(throttle0).build());
+        Assert.assertEquals(23L, throttle0.throughput().bytes());
+
+        /*
+         * Simulate a scan that stopped while writing a record.
+         */
+
+        Files.write(
+          journal,
+          "{\"path\":[\"fi".getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.APPEND);
+
+        final var resumed =
+          CatalogScanSettings.builder()
+            .from(settings)
+            .setResume(true)
+            .build();
+
+        final var throttle1 = CatalogIOThrottle.unlimited();
+        final var disk1 = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          disk_root,
+          resumed,
+          CatalogScanContext.builder().setThrottle(throttle1).build());
+        Assert.assertEquals(0L, throttle1.throughput().bytes());
+        Assert.assertEquals(
+          flattenIgnoringAccessTimes(disk0),
+          flattenIgnoringAccessTimes(disk1));
+
+        /*
+         * A file changed since it was journaled is hashed again.
+         */
+
+        Files.write(file0, "Hello file0 again".getBytes(StandardCharsets.UTF_8));
+
+        final var throttle2 = CatalogIOThrottle.unlimited();
+        final var disk2 = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          disk_root,
+          resumed,
+          CatalogScanContext.builder().setThrottle(throttle2).build());
+        Assert.assertEquals(17L, throttle2.throughput().bytes());
+
+        final var disk3 = CatalogFilesystemReader.newDisk(
+          CatalogDiskName.of("test"),
+          CatalogDiskID.of(BigInteger.ZERO),
+          disk_root);
+        Assert.assertEquals(
+          flattenIgnoringAccessTimes(disk3),
+          flattenIgnoringAccessTimes(disk2));
+
+        Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  @Test
+  public final void testUpdateDiskReusesHashes()
+    throws Exception
+  {
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+
+      final var file0 = root.resolve("file0.txt");
+      final var file1 = root.resolve("file1.txt");
+      final var file2 = root.resolve("file2.txt");
+      final var file3 = root.resolve("file3.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(file1, "Hello file1".getBytes(StandardCharsets.UTF_8));
+      Files.write(file3, "Hello file3".getBytes(StandardCharsets.UTF_8));
+
+      final var disk0 = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      Files.write(file1, "Hello file1 again".getBytes(StandardCharsets.UTF_8));
+      Files.write(file2, "Hello file2".getBytes(StandardCharsets.UTF_8));
+      Files.delete(file3);
+      Files.createDirectory(file3);
+      Files.write(
+        file3.resolve("file4.txt"),
+        "Hello file4".getBytes(StandardCharsets.UTF_8));
+
+      final var update = CatalogFilesystemReader.updateDisk(disk0, root);
+      Assert.assertEquals(1L, update.hashesReused());
+      Assert.assertEquals(3L, update.hashesComputed());
+
+      final var disk1 = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      Assert.assertEquals(disk1.getMeta(), update.disk().getMeta());
+      Assert.assertEquals(
+        flattenIgnoringAccessTimes(disk1),
+        flattenIgnoringAccessTimes(update.disk()));
+    }
+  }
+
   @Test
   public final void testVerification()
     throws Exception
@@ -453,6 +918,117 @@ public abstract class CatalogFilesystemReaderContract
       });
   }
 
+  @Test
+  public final void testVerificationParallel()
+    throws Exception
+  {
+    final var fs_gen =
+      new CatalogTestFilesystemGenerator(this.getFilesystemProfile());
+
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .setVerificationThreads(4)
+        .setVerificationQueueCapacity(2)
+        .build();
+
+    QuickCheck.forAll(
+      20, fs_gen, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final CatalogTestFilesystem tfs)
+          throws Throwable
+        {
+          try (tfs) {
+            final var fs = tfs.getFilesystem();
+            final var hashes = tfs.getHashes();
+            final var directories = tfs.getDirectories();
+
+            final var root = fs.getRootDirectories().iterator().next();
+            final var disk = CatalogFilesystemReader.newDisk(
+              CatalogDiskName.of("test"),
+              CatalogDiskID.of(BigInteger.ZERO),
+              root);
+
+            final var listener = new CheckedListener();
+
+            CatalogFilesystemReader.verifyDisk(
+              disk, settings, root, listener);
+
+            final var expected_size = hashes.size() + directories.size();
+            Assert.assertTrue(listener.errors.isEmpty());
+            Assert.assertEquals(
+              (long) expected_size, (long) listener.valids.size());
+            Assert.assertFalse(listener.overlapped);
+            Assert.assertTrue(listener.completed);
+          }
+        }
+      });
+  }
+
+  @Test
+  public final void testVerificationParallelChanged()
+    throws Exception
+  {
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var dir = root.resolve("dir");
+      Files.createDirectories(dir);
+      for (var index = 0; index < 20; ++index) {
+        Files.write(
+          dir.resolve("file" + index + ".txt"),
+          ("Hello file" + index).getBytes(StandardCharsets.UTF_8));
+      }
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      final var file3 = dir.resolve("file3.txt");
+      final var file5 = dir.resolve("file5.txt");
+      final var file_new = dir.resolve("file_new.txt");
+      Files.write(file3, "Changed".getBytes(StandardCharsets.UTF_8));
+      Files.delete(file5);
+      Files.write(file_new, "New".getBytes(StandardCharsets.UTF_8));
+
+      final var settings_sequential =
+        CatalogVerificationReportSettings.builder()
+          .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+          .build();
+      final var settings_parallel =
+        CatalogVerificationReportSettings.builder()
+          .from(settings_sequential)
+          .setVerificationThreads(4)
+          .setVerificationQueueCapacity(3)
+          .build();
+
+      final var sequential = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(
+        disk, settings_sequential, root, sequential);
+      final var parallel = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(
+        disk, settings_parallel, root, parallel);
+
+      Assert.assertFalse(parallel.overlapped);
+      Assert.assertEquals(sequential.valids.keySet(), parallel.valids.keySet());
+      Assert.assertEquals(sequential.errors.keySet(), parallel.errors.keySet());
+      Assert.assertEquals(
+        (long) sequential.errors.size(), (long) parallel.errors.size());
+
+      Assert.assertTrue(
+        parallel.errors.get(root.relativize(file3))
+          .stream()
+          .anyMatch(x -> x instanceof CatalogVerificationChangedHash));
+      Assert.assertTrue(
+        parallel.errors.get(root.relativize(file5))
+          .stream()
+          .anyMatch(CatalogFilesystemReaderContract::isFileVanishedError));
+      Assert.assertTrue(
+        parallel.errors.get(root.relativize(file_new))
+          .stream()
+          .anyMatch(x -> x instanceof CatalogVerificationUncataloguedItem));
+    }
+  }
+
   @Test
   public final void testVerificationEmpty()
     throws Exception
@@ -477,6 +1053,43 @@ public abstract class CatalogFilesystemReaderContract
     }
   }
 
+  @Test
+  public final void testVerificationHashEngineSettings()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .setHashEngine(
+          CatalogFileHashEngineSettings.builder()
+            .setBufferSize(3)
+            .setMapThreshold(8L)
+            .setMapWindowSize(5L)
+            .build())
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      Files.write(
+        root.resolve("small.txt"),
+        "Hello".getBytes(StandardCharsets.UTF_8));
+      Files.write(
+        root.resolve("large.txt"),
+        "Hello, larger file".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      final var listener = new CheckedListener();
+
+      CatalogFilesystemReader.verifyDisk(
+        disk, settings, root, listener);
+
+      Assert.assertTrue(listener.errors.isEmpty());
+      Assert.assertEquals(3L, (long) listener.valids.size());
+    }
+  }
+
   @Test
   public final void testVerificationTimeAccessChanged()
     throws Exception
@@ -638,6 +1251,95 @@ public abstract class CatalogFilesystemReaderContract
     }
   }
 
+  @Test
+  public final void testVerificationDirectoryVanished()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var dir = root.resolve("dir");
+      final var file0 = dir.resolve("file0.txt");
+      final var file1 = dir.resolve("file1.txt");
+      final var file2 = root.resolve("file2.txt");
+      Files.createDirectories(dir);
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(file1, "Hello file1".getBytes(StandardCharsets.UTF_8));
+      Files.write(file2, "Hello file2".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      Files.delete(file0);
+      Files.delete(file1);
+      Files.delete(dir);
+
+      final var listener = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener);
+
+      for (final var path : List.of(dir, file0, file1)) {
+        Assert.assertTrue(
+          listener.errors.get(root.relativize(path))
+            .stream()
+            .anyMatch(CatalogFilesystemReaderContract::isFileVanishedError));
+      }
+
+      Assert.assertFalse(
+        listener.errors.get(root.relativize(file2))
+          .stream()
+          .anyMatch(CatalogFilesystemReaderContract::isFileVanishedError));
+      Assert.assertTrue(listener.valids.containsKey(root.relativize(file2)));
+    }
+  }
+
+  @Test
+  public final void testVerificationDirectoryUncatalogued()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      final var dir = root.resolve("dir");
+      final var sub = dir.resolve("sub");
+      Files.createDirectories(sub);
+      Files.write(dir.resolve("file1.txt"), "Hello".getBytes(StandardCharsets.UTF_8));
+      Files.write(sub.resolve("file2.txt"), "Hello".getBytes(StandardCharsets.UTF_8));
+
+      final var listener = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener);
+
+      /*
+       * The uncatalogued directory is reported once, and its contents are
+       * not examined.
+       */
+
+      final var dir_rel = root.relativize(dir);
+      Assert.assertTrue(
+        listener.errors.get(dir_rel)
+          .stream()
+          .anyMatch(CatalogFilesystemReaderContract::isFileUncataloguedError));
+      for (final var path : listener.errors.keySet()) {
+        Assert.assertFalse(
+          path.toString(), !path.equals(dir_rel) && path.startsWith(dir_rel));
+      }
+      Assert.assertTrue(listener.valids.containsKey(root.relativize(file0)));
+    }
+  }
+
   @Test
   public final void testVerificationFileUncatalogued()
     throws Exception
@@ -759,34 +1461,326 @@ public abstract class CatalogFilesystemReaderContract
     }
   }
 
+  @Test
+  public final void testVerificationHashChangedAlgorithm()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      final var file1 = root.resolve("file1.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(file1, "Hello file1".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"),
+        CatalogDiskID.of(BigInteger.ZERO),
+        root,
+        CatalogScanSettings.builder()
+          .setHashAlgorithm(CatalogHashAlgorithms.CRC32C.name())
+          .build(),
+        CatalogScanContext.builder().build());
+
+      final var node = (CatalogFileNode) disk.getNodeForPath(
+        List.of("file0.txt")).get();
+      Assert.assertEquals(
+        CatalogHashAlgorithms.CRC32C.name(), node.hash().get().algorithm());
+
+      Files.write(file1, "Hello file1 again".getBytes(StandardCharsets.UTF_8));
+
+      final var listener = new CheckedListener();
+
+      CatalogFilesystemReader.verifyDisk(
+        disk, settings, root, listener);
+
+      final var file1_rel = root.relativize(file1);
+      Assert.assertTrue(listener.errors.containsKey(file1_rel));
+      Assert.assertFalse(listener.errors.containsKey(root.relativize(file0)));
+
+      final var file_wanted_errors =
+        listener.errors.get(file1_rel)
+          .stream()
+          .filter(x -> x instanceof CatalogVerificationChangedHash)
+          .collect(Collectors.toSet());
+
+      Assert.assertEquals(1L, (long) file_wanted_errors.size());
+    }
+  }
+
+  @Test
+  public final void testVerificationHashChangedCheapest()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"),
+        CatalogDiskID.of(BigInteger.ZERO),
+        root,
+        CatalogScanSettings.builder()
+          .addAdditionalHashAlgorithms(CatalogHashAlgorithms.XXH64.name())
+          .addAdditionalHashAlgorithms(CatalogHashAlgorithms.CRC32C.name())
+          .build(),
+        CatalogScanContext.builder().build());
+
+      final var node = (CatalogFileNode) disk.getNodeForPath(
+        List.of("file0.txt")).get();
+      Assert.assertEquals(
+        List.of(
+          CatalogFileHashes.fromFile(CatalogHashAlgorithms.SHA_256, file0),
+          CatalogFileHashes.fromFile(CatalogHashAlgorithms.XXH64, file0),
+          CatalogFileHashes.fromFile(CatalogHashAlgorithms.CRC32C, file0)),
+        node.hashes());
+
+      Files.write(file0, "Hello file0 again".getBytes(StandardCharsets.UTF_8));
+
+      final var listener = new CheckedListener();
+
+      CatalogFilesystemReader.verifyDisk(
+        disk, settings, root, listener);
+
+      final var changed =
+        listener.errors.get(root.relativize(file0))
+          .stream()
+          .filter(x -> x instanceof CatalogVerificationChangedHash)
+          .map(x -> (CatalogVerificationChangedHash) x)
+          .collect(Collectors.toList());
+
+      Assert.assertEquals(1L, (long) changed.size());
+      Assert.assertEquals(
+        CatalogHashAlgorithms.CRC32C.name(),
+        changed.get(0).hashNow().algorithm());
+      Assert.assertEquals(
+        CatalogHashAlgorithms.CRC32C.name(),
+        changed.get(0).hashThen().algorithm());
+    }
+  }
+
+  @Test
+  public final void testVerificationHashChangedSampled()
+    throws Exception
+  {
+    final var sampled =
+      CatalogHashAlgorithms.sampled(
+        CatalogHashAlgorithms.CRC32C,
+        CatalogHashSampling.builder()
+          .setBlockSize(4L)
+          .setInteriorBlocks(0)
+          .build());
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"),
+        CatalogDiskID.of(BigInteger.ZERO),
+        root,
+        CatalogScanSettings.builder()
+          .addAdditionalHashAlgorithms(sampled.name())
+          .build(),
+        CatalogScanContext.builder().build());
+
+      /*
+       * Only the first and last four bytes of the file are sampled, so
+       * changing the middle of the file is detected only by the full hash.
+       */
+
+      Files.write(file0, "Hello_file0".getBytes(StandardCharsets.UTF_8));
+
+      final var listener_sampled = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(
+        disk,
+        CatalogVerificationReportSettings.builder()
+          .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+          .setHashMode(CatalogVerificationHashMode.PREFER_SAMPLED_HASH)
+          .build(),
+        root,
+        listener_sampled);
+
+      Assert.assertFalse(
+        listener_sampled.errors.get(root.relativize(file0))
+          .stream()
+          .anyMatch(x -> x instanceof CatalogVerificationChangedHash));
+
+      final var listener_full = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(
+        disk,
+        CatalogVerificationReportSettings.builder()
+          .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+          .setHashMode(CatalogVerificationHashMode.PREFER_FULL_HASH)
+          .build(),
+        root,
+        listener_full);
+
+      Assert.assertTrue(
+        listener_full.errors.get(root.relativize(file0))
+          .stream()
+          .anyMatch(x -> x instanceof CatalogVerificationChangedHash));
+    }
+  }
+
+  @Test
+  public final void testVerificationHashChangedTree()
+    throws Exception
+  {
+    final var tree =
+      CatalogHashAlgorithms.tree(
+        CatalogHashAlgorithms.SHA_256,
+        CatalogHashTree.builder()
+          .setChunkSize(4L)
+          .build());
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"),
+        CatalogDiskID.of(BigInteger.ZERO),
+        root,
+        CatalogScanSettings.builder()
+          .setHashAlgorithm(tree.name())
+          .build(),
+        CatalogScanContext.builder().build());
+
+      final var settings =
+        CatalogVerificationReportSettings.builder()
+          .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+          .build();
+
+      final var listener_same = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener_same);
+      Assert.assertTrue(listener_same.errors.isEmpty());
+
+      Files.write(file0, "Hello_file0".getBytes(StandardCharsets.UTF_8));
+
+      final var listener_changed = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener_changed);
+      Assert.assertTrue(
+        listener_changed.errors.get(root.relativize(file0))
+          .stream()
+          .anyMatch(x -> x instanceof CatalogVerificationChangedHash));
+    }
+  }
+
+  @Test
+  public final void testVerificationMetadataOnly()
+    throws Exception
+  {
+    final var settings =
+      CatalogVerificationReportSettings.builder()
+        .setIgnoreAccessTime(CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME)
+        .setHashMode(CatalogVerificationHashMode.METADATA_ONLY)
+        .build();
+
+    try (final var fs = this.getFileSystem()) {
+      final var root = fs.getRootDirectories().iterator().next();
+      final var file0 = root.resolve("file0.txt");
+      final var file1 = root.resolve("file1.txt");
+      Files.write(file0, "Hello file0".getBytes(StandardCharsets.UTF_8));
+      Files.write(file1, "Hello file1".getBytes(StandardCharsets.UTF_8));
+
+      final var disk = CatalogFilesystemReader.newDisk(
+        CatalogDiskName.of("test"), CatalogDiskID.of(BigInteger.ZERO), root);
+
+      final var listener_same = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener_same);
+      Assert.assertTrue(listener_same.errors.isEmpty());
+      Assert.assertEquals(3L, (long) listener_same.valids.size());
+
+      /*
+       * Changing the contents of a file without changing its size or
+       * timestamps is not detected; changing its size is.
+       */
+
+      final var time0 = Files.getLastModifiedTime(file0);
+      Files.write(file0, "Hello_file0".getBytes(StandardCharsets.UTF_8));
+      Files.setLastModifiedTime(file0, time0);
+      Files.write(file1, "Hello file1 again".getBytes(StandardCharsets.UTF_8));
+
+      final var listener = new CheckedListener();
+      CatalogFilesystemReader.verifyDisk(disk, settings, root, listener);
+
+      Assert.assertFalse(listener.errors.containsKey(root.relativize(file0)));
+      final var file1_errors = listener.errors.get(root.relativize(file1));
+      Assert.assertTrue(
+        file1_errors.stream()
+          .anyMatch(CatalogFilesystemReaderContract::isSizeError));
+      Assert.assertFalse(
+        file1_errors.stream()
+          .anyMatch(x -> x instanceof CatalogVerificationChangedHash));
+    }
+  }
+
   private static final class CheckedListener
     implements CatalogVerificationListenerType
   {
     final MutableMultimap<Path, CatalogVerificationReportItemErrorType> errors;
     final MutableMultimap<Path, CatalogVerificationReportItemOKType> valids;
+    final AtomicInteger active;
     boolean completed;
+    volatile boolean overlapped;
 
     CheckedListener()
     {
       this.errors = new HashBagMultimap<>();
       this.valids = new HashBagMultimap<>();
+      this.active = new AtomicInteger(0);
+    }
+
+    private void enter()
+    {
+      if (this.active.incrementAndGet() != 1) {
+        this.overlapped = true;
+      }
+    }
+
+    private void leave()
+    {
+      this.active.decrementAndGet();
     }
 
     @Override
     public void onItemVerified(final CatalogVerificationReportItemOKType ok)
     {
-      LOG.info(
-        "ok: {} | {}", ok.path(), ok.show());
-      this.valids.put(ok.path(), ok);
+      this.enter();
+      try {
+        LOG.info(
+          "ok: {} | {}", ok.path(), ok.show());
+        this.valids.put(ok.path(), ok);
+      } finally {
+        this.leave();
+      }
     }
 
     @Override
     public void onItemError(
       final CatalogVerificationReportItemErrorType error)
     {
-      LOG.error(
-        "error: {} | {}", error.path(), error.show());
-      this.errors.put(error.path(), error);
+      this.enter();
+      try {
+        LOG.error(
+          "error: {} | {}", error.path(), error.show());
+        this.errors.put(error.path(), error);
+      } finally {
+        this.leave();
+      }
     }
 
     @Override
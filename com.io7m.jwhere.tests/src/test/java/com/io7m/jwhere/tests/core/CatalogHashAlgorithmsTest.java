@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogFileHash;
+import com.io7m.jwhere.core.CatalogFileHashEngine;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
+import com.io7m.jwhere.core.CatalogFileHashes;
+import com.io7m.jwhere.core.CatalogHashAlgorithmType;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogHashSampling;
+import com.io7m.jwhere.core.CatalogHashTree;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+public final class CatalogHashAlgorithmsTest
+{
+  private static String hash(
+    final CatalogHashAlgorithmType algorithm,
+    final byte[] data,
+    final int chunk)
+  {
+    final var function = algorithm.create();
+    for (var offset = 0; offset < data.length; offset += chunk) {
+      function.update(
+        ByteBuffer.wrap(data, offset, Math.min(chunk, data.length - offset)));
+    }
+
+    return CatalogFileHash.builder()
+      .setAlgorithm(algorithm.name())
+      .setBytes(function.digest())
+      .build()
+      .value();
+  }
+
+  private static String hashText(
+    final CatalogHashAlgorithmType algorithm,
+    final String text)
+  {
+    final var data = text.getBytes(StandardCharsets.US_ASCII);
+    return hash(algorithm, data, Math.max(1, data.length));
+  }
+
+  @Test
+  public void testCRC32CKnown()
+  {
+    Assert.assertEquals(
+      "E3069283", hashText(CatalogHashAlgorithms.CRC32C, "123456789"));
+    Assert.assertEquals(
+      "00000000", hashText(CatalogHashAlgorithms.CRC32C, ""));
+  }
+
+  @Test
+  public void testXXH64Known()
+  {
+    Assert.assertEquals(
+      "EF46DB3751D8E999", hashText(CatalogHashAlgorithms.XXH64, ""));
+    Assert.assertEquals(
+      "D24EC4F1A98C6E5B", hashText(CatalogHashAlgorithms.XXH64, "a"));
+    Assert.assertEquals(
+      "44BC2CF5AD770999", hashText(CatalogHashAlgorithms.XXH64, "abc"));
+  }
+
+  @Test
+  public void testChunkingIrrelevant()
+  {
+    final var data = new byte[1000];
+    new Random(1L).nextBytes(data);
+
+    for (final var name : CatalogHashAlgorithms.names()) {
+      final var algorithm = CatalogHashAlgorithms.forName(name).get();
+      final var expected = hash(algorithm, data, data.length);
+      for (final var chunk : new int[]{1, 7, 31, 32, 33, 500}) {
+        Assert.assertEquals(name, expected, hash(algorithm, data, chunk));
+      }
+    }
+  }
+
+  @Test
+  public void testReusable()
+  {
+    final var data = new byte[100];
+    new Random(2L).nextBytes(data);
+
+    for (final var name : CatalogHashAlgorithms.names()) {
+      final var function = CatalogHashAlgorithms.forName(name).get().create();
+      function.update(ByteBuffer.wrap(data));
+      final var first = function.digest();
+      function.update(ByteBuffer.wrap(data));
+      Assert.assertArrayEquals(name, first, function.digest());
+    }
+  }
+
+  @Test
+  public void testForName()
+  {
+    Assert.assertSame(
+      CatalogHashAlgorithms.SHA_256,
+      CatalogHashAlgorithms.forName("SHA-256").get());
+    Assert.assertSame(
+      CatalogHashAlgorithms.CRC32C,
+      CatalogHashAlgorithms.forName("CRC32C").get());
+    Assert.assertSame(
+      CatalogHashAlgorithms.XXH64,
+      CatalogHashAlgorithms.forName("XXH64").get());
+    Assert.assertEquals(
+      "SHA-512",
+      CatalogHashAlgorithms.forName("SHA-512").get().name());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("nonexistent").isPresent());
+  }
+
+  @Test
+  public void testSampledNames()
+  {
+    final var sampling =
+      CatalogHashSampling.builder()
+        .setBlockSize(4096L)
+        .setInteriorBlocks(3)
+        .build();
+
+    final var sampled =
+      CatalogHashAlgorithms.sampled(CatalogHashAlgorithms.SHA_256, sampling);
+
+    Assert.assertEquals("SAMPLED-4096-3-SHA-256", sampled.name());
+    Assert.assertEquals(Optional.of(sampling), sampled.sampling());
+    Assert.assertEquals(Optional.empty(), CatalogHashAlgorithms.SHA_256.sampling());
+
+    final var parsed = CatalogHashAlgorithms.forName(sampled.name()).get();
+    Assert.assertEquals(sampled.name(), parsed.name());
+    Assert.assertEquals(Optional.of(sampling), parsed.sampling());
+
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-4096-3-nonexistent").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-0-3-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-04096-3-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-x-3-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-4096-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-1-1-SAMPLED-1-1-XXH64").isPresent());
+  }
+
+  @Test
+  public void testTreeNames()
+  {
+    final var tree =
+      CatalogHashTree.builder()
+        .setChunkSize(65536L)
+        .build();
+
+    final var algorithm =
+      CatalogHashAlgorithms.tree(CatalogHashAlgorithms.SHA_256, tree);
+
+    Assert.assertEquals("TREE-65536-SHA-256", algorithm.name());
+    Assert.assertEquals(Optional.of(tree), algorithm.tree());
+    Assert.assertEquals(Optional.empty(), algorithm.sampling());
+    Assert.assertEquals(Optional.empty(), CatalogHashAlgorithms.SHA_256.tree());
+
+    final var parsed = CatalogHashAlgorithms.forName(algorithm.name()).get();
+    Assert.assertEquals(algorithm.name(), parsed.name());
+    Assert.assertEquals(Optional.of(tree), parsed.tree());
+
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-65536-nonexistent").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-0-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-065536-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-x-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-65536").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-1-TREE-1-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("TREE-1-SAMPLED-1-1-XXH64").isPresent());
+    Assert.assertFalse(
+      CatalogHashAlgorithms.forName("SAMPLED-1-1-TREE-1-XXH64").isPresent());
+  }
+
+  @Test
+  public void testCheapest()
+  {
+    final var sha = CatalogFileHashes.fromHex("SHA-256", "00");
+    final var crc = CatalogFileHashes.fromHex("CRC32C", "00");
+    final var xxh = CatalogFileHashes.fromHex("XXH64", "00");
+    final var unknown = CatalogFileHashes.fromHex("nonexistent", "00");
+
+    Assert.assertEquals(
+      Optional.of(crc),
+      CatalogHashAlgorithms.cheapest(List.of(sha, xxh, crc)));
+    Assert.assertEquals(
+      Optional.of(xxh),
+      CatalogHashAlgorithms.cheapest(List.of(unknown, sha, xxh)));
+    Assert.assertEquals(
+      Optional.of(sha),
+      CatalogHashAlgorithms.cheapest(List.of(unknown, sha)));
+    Assert.assertEquals(
+      Optional.empty(),
+      CatalogHashAlgorithms.cheapest(List.of(unknown)));
+  }
+
+  @Test
+  public void testEngine()
+    throws Exception
+  {
+    final var engine = CatalogFileHashEngine.create(
+      CatalogFileHashEngineSettings.builder()
+        .setBufferSize(16)
+        .setMapThreshold(1L)
+        .setMapWindowSize(32L)
+        .build());
+
+    final var data = new byte[100];
+    new Random(3L).nextBytes(data);
+    final var file = Files.createTempFile("jwhere-", ".bin");
+    try {
+      Files.write(file, data);
+      for (final var name : CatalogHashAlgorithms.names()) {
+        final var algorithm = CatalogHashAlgorithms.forName(name).get();
+        final var hash = engine.hash(algorithm, file);
+        Assert.assertEquals(name, hash.algorithm());
+        Assert.assertEquals(hash(algorithm, data, data.length), hash.value());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogFileHashEngine;
+import com.io7m.jwhere.core.CatalogFileHashEngineSettings;
+import com.io7m.jwhere.core.CatalogHashAlgorithms;
+import com.io7m.jwhere.core.CatalogIOThrottle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class CatalogIOThrottleTest
+{
+  @Test
+  public void testUnlimited()
+    throws Exception
+  {
+    final var throttle = CatalogIOThrottle.unlimited();
+    final var time_then = System.nanoTime();
+    for (var index = 0; index < 1000; ++index) {
+      throttle.acquireBytes(1024L * 1024L);
+      throttle.acquireOperations(1L);
+    }
+    final var elapsed = System.nanoTime() - time_then;
+
+    Assert.assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1L));
+    final var throughput = throttle.throughput();
+    Assert.assertEquals(1000L * 1024L * 1024L, throughput.bytes());
+    Assert.assertEquals(1000L, throughput.operations());
+  }
+
+  @Test
+  public void testOperationsLimited()
+    throws Exception
+  {
+    final var throttle = CatalogIOThrottle.create(0L, 100L);
+    final var time_then = System.nanoTime();
+    for (var index = 0; index <= 20; ++index) {
+      throttle.acquireOperations(1L);
+    }
+    final var elapsed = System.nanoTime() - time_then;
+
+    Assert.assertTrue(
+      "Elapsed " + elapsed,
+      elapsed >= TimeUnit.MILLISECONDS.toNanos(190L));
+    Assert.assertTrue(throttle.throughput().throttled().toMillis() >= 190L);
+  }
+
+  @Test
+  public void testThrottledOnlyCountsWaits()
+    throws Exception
+  {
+    final var throttle = CatalogIOThrottle.create(0L, 100L);
+    throttle.acquireOperations(1L);
+    Assert.assertEquals(Duration.ZERO, throttle.throughput().throttled());
+  }
+
+  @Test
+  public void testBytesLimited()
+    throws Exception
+  {
+    final var throttle = CatalogIOThrottle.create(1024L * 1024L, 0L);
+    final var time_then = System.nanoTime();
+    for (var index = 0; index <= 4; ++index) {
+      throttle.acquireBytes(64L * 1024L);
+    }
+    final var elapsed = System.nanoTime() - time_then;
+
+    Assert.assertTrue(
+      "Elapsed " + elapsed,
+      elapsed >= TimeUnit.MILLISECONDS.toNanos(240L));
+  }
+
+  @Test
+  public void testRaiseLimitWhileWaiting()
+    throws Exception
+  {
+    final var throttle = CatalogIOThrottle.create(1L, 0L);
+    throttle.acquireBytes(1000L);
+
+    final var waiting = CompletableFuture.runAsync(() -> {
+      try {
+        throttle.acquireBytes(1L);
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    Thread.sleep(100L);
+    Assert.assertFalse(waiting.isDone());
+    throttle.setBytesPerSecond(0L);
+    waiting.get(10L, TimeUnit.SECONDS);
+    Assert.assertEquals(0L, throttle.bytesPerSecond());
+  }
+
+  @Test
+  public void testEngineAccountsForReads()
+    throws Exception
+  {
+    final var data = new byte[1000];
+    new Random(4L).nextBytes(data);
+    final var file = Files.createTempFile("jwhere-", ".bin");
+    try {
+      Files.write(file, data);
+
+      for (final var threshold : new long[]{1L, 1L << 30}) {
+        final var throttle = CatalogIOThrottle.unlimited();
+        final var engine = CatalogFileHashEngine.create(
+          CatalogFileHashEngineSettings.builder()
+            .setBufferSize(64)
+            .setMapThreshold(threshold)
+            .setMapWindowSize(256L)
+            .build(),
+          throttle);
+
+        final var expected =
+          CatalogFileHashEngine.create().hash(CatalogHashAlgorithms.XXH64, file);
+        Assert.assertEquals(
+          expected,
+          engine.hashAll(List.of(CatalogHashAlgorithms.XXH64), file).get(0));
+        Assert.assertEquals(1000L, throttle.throughput().bytes());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -18,9 +18,13 @@ package com.io7m.jwhere.tests.core;
 
 import com.io7m.jwhere.core.Catalog;
 import com.io7m.jwhere.core.CatalogCompress;
+import com.io7m.jwhere.core.CatalogDirectoryNode;
 import com.io7m.jwhere.core.CatalogDisk;
+import com.io7m.jwhere.core.CatalogDiskReceiverType;
+import com.io7m.jwhere.core.CatalogFileNode;
 import com.io7m.jwhere.core.CatalogJSONParserType;
 import com.io7m.jwhere.core.CatalogJSONSerializerType;
+import com.io7m.jwhere.core.CatalogJSONStreamWriter;
 import com.io7m.jwhere.core.CatalogSaveSpecification;
 import net.java.quickcheck.Generator;
 import net.java.quickcheck.QuickCheck;
@@ -30,6 +34,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 public abstract class CatalogJSONSerializationContract<S extends
   CatalogJSONSerializerType, P extends CatalogJSONParserType>
 {
@@ -185,4 +194,74 @@ public abstract class CatalogJSONSerializationContract<S extends
         });
     }
   }
+
+  private static void replay(
+    final CatalogDisk d,
+    final CatalogDirectoryNode directory,
+    final String name,
+    final CatalogDiskReceiverType receiver)
+    throws IOException
+  {
+    receiver.onDirectoryEntered(name, directory);
+    for (final var edge : d.getFilesystemGraph().outgoingEdgesOf(directory)) {
+      final var target = edge.getTarget();
+      if (target instanceof CatalogDirectoryNode) {
+        replay(d, (CatalogDirectoryNode) target, edge.getName(), receiver);
+      } else {
+        receiver.onFile(edge.getName(), (CatalogFileNode) target);
+      }
+    }
+    receiver.onDirectoryLeft(directory);
+  }
+
+  @Test
+  public final void testStreamWriterMatchesSerializer()
+    throws Exception
+  {
+    final var s = this.getSerializer();
+    final var p = this.getParser();
+    final Generator<Catalog> g = CatalogGenerator.getDefault();
+
+    QuickCheck.forAll(
+      3, g, new AbstractCharacteristic<>()
+      {
+        @Override
+        protected void doSpecify(final Catalog c0)
+          throws Throwable
+        {
+          final var expected = new ByteArrayOutputStream();
+          s.serializeCatalogToStream(c0, expected);
+
+          /*
+           * Alternate between writing complete disks and delivering disks
+           * as a stream of events.
+           */
+
+          final var received = new ByteArrayOutputStream();
+          try (var writer = CatalogJSONStreamWriter.open(received)) {
+            var streamed = false;
+            for (final var d : c0.getDisks().values()) {
+              if (streamed) {
+                writer.onDiskStarted(d.getMeta());
+                replay(d, d.getFilesystemRoot(), "/", writer);
+                writer.onDiskFinished();
+              } else {
+                writer.writeDisk(d);
+              }
+              streamed = !streamed;
+            }
+            Assert.assertEquals(
+              (long) c0.getDisks().size(), writer.diskCount());
+          }
+
+          Assert.assertEquals(
+            expected.toString(StandardCharsets.UTF_8),
+            received.toString(StandardCharsets.UTF_8));
+          Assert.assertEquals(
+            c0,
+            p.parseCatalogFromStream(
+              new ByteArrayInputStream(received.toByteArray())));
+        }
+      });
+  }
 }
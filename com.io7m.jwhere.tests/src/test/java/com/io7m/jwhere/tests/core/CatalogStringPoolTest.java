@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogDirectoryNode;
+import com.io7m.jwhere.core.CatalogDisk;
+import com.io7m.jwhere.core.CatalogDiskID;
+import com.io7m.jwhere.core.CatalogDiskName;
+import com.io7m.jwhere.core.CatalogJSONParser;
+import com.io7m.jwhere.core.CatalogJSONSerializer;
+import com.io7m.jwhere.core.CatalogStringPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public final class CatalogStringPoolTest
+{
+  @Test
+  public void testIntern()
+  {
+    final var pool = CatalogStringPool.create();
+    final var s0 = new String(new char[]{'r', 'o', 'o', 't'});
+    final var s1 = new String(new char[]{'r', 'o', 'o', 't'});
+    Assert.assertNotSame(s0, s1);
+
+    Assert.assertSame(s0, pool.intern(s0));
+    Assert.assertSame(s0, pool.intern(s1));
+    Assert.assertSame(s0, pool.intern(s0));
+
+    final var stats = pool.statistics();
+    Assert.assertEquals(3L, stats.lookups());
+    Assert.assertEquals(2L, stats.hits());
+    Assert.assertEquals(1L, stats.distinct());
+    Assert.assertTrue(stats.bytesSaved() > 0L);
+  }
+
+  @Test
+  public void testParserSharesStrings()
+    throws Exception
+  {
+    final var root = CatalogTreeGraphTest.directory(0L);
+    final var db = CatalogDisk.newDiskBuilder(
+      root,
+      CatalogDiskName.of("example"),
+      "iso9660",
+      CatalogDiskID.of(BigInteger.ZERO),
+      BigInteger.ONE);
+
+    final var dir = CatalogTreeGraphTest.directory(1L);
+    db.addNode(root, "d", dir);
+    db.addNode(root, "a", CatalogTreeGraphTest.file(2L));
+    db.addNode(dir, "a", CatalogTreeGraphTest.file(3L));
+    final var disk = db.build();
+
+    final var pool = CatalogStringPool.create();
+    final var parser = CatalogJSONParser.newParser(pool);
+    final var serial = CatalogJSONSerializer.newSerializer().serializeDisk(disk);
+    final var parsed = parser.parseDisk(serial);
+    Assert.assertEquals(disk, parsed);
+
+    final var node_root = parsed.getFilesystemRoot();
+    final var node_dir =
+      (CatalogDirectoryNode) parsed.getNodeForPath(List.of("d")).get();
+    Assert.assertSame(node_root.owner(), node_dir.owner());
+    Assert.assertSame(node_root.owner(), node_root.group());
+
+    final var stats = pool.statistics();
+    Assert.assertEquals(3L, stats.distinct());
+    Assert.assertEquals(11L, stats.lookups());
+    Assert.assertEquals(8L, stats.hits());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogDirectoryEntry;
+import com.io7m.jwhere.core.CatalogDirectoryNode;
+import com.io7m.jwhere.core.CatalogNodeType;
+import com.io7m.jwhere.core.CatalogTreeGraph;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <p>A simple benchmark comparing the insertion throughput of
+ * {@link CatalogTreeGraph} against the {@link DirectedAcyclicGraph} formerly
+ * used by disk builders.</p>
+ *
+ * <p>Run with {@code java ... CatalogTreeGraphBenchmark [nodes] [iterations]}.
+ * Each iteration inserts a tree of {@code nodes} nodes with a fan-out of
+ * sixteen, in the same top-down order as the filesystem reader.</p>
+ */
+
+public final class CatalogTreeGraphBenchmark
+{
+  private static final int FAN_OUT = 16;
+
+  private CatalogTreeGraphBenchmark()
+  {
+
+  }
+
+  private static List<CatalogDirectoryEntry> makeEntries(
+    final CatalogDirectoryNode root,
+    final int count)
+  {
+    final var entries = new ArrayList<CatalogDirectoryEntry>(count);
+    final var dirs = new ArrayList<CatalogDirectoryNode>(count / FAN_OUT + 1);
+    dirs.add(root);
+
+    var dir_index = 0;
+    for (var index = 1; index < count; ++index) {
+      final var parent = dirs.get(dir_index);
+      final CatalogNodeType node;
+      if (index % 4 == 0) {
+        final var d = CatalogTreeGraphTest.directory((long) index);
+        dirs.add(d);
+        node = d;
+      } else {
+        node = CatalogTreeGraphTest.file((long) index);
+      }
+      entries.add(new CatalogDirectoryEntry(parent, node, "n" + index));
+      if (index % FAN_OUT == 0) {
+        dir_index = Math.min(dir_index + 1, dirs.size() - 1);
+      }
+    }
+    return entries;
+  }
+
+  private static long run(
+    final Supplier<Graph<CatalogNodeType, CatalogDirectoryEntry>> make,
+    final CatalogDirectoryNode root,
+    final List<CatalogDirectoryEntry> entries)
+  {
+    final var time_then = System.nanoTime();
+    final var g = make.get();
+    g.addVertex(root);
+    for (final var e : entries) {
+      g.addVertex(e.getTarget());
+      g.addEdge(e.getSource(), e.getTarget(), e);
+    }
+    final var time_now = System.nanoTime();
+    if (g.edgeSet().size() != entries.size()) {
+      throw new IllegalStateException("Edge count mismatch");
+    }
+    return time_now - time_then;
+  }
+
+  private static void report(
+    final String name,
+    final int count,
+    final long nanos)
+  {
+    final var per_second = (double) count / ((double) nanos / 1.0e9);
+    System.out.printf(
+      "%-24s %10d inserts %12.3f ms %14.0f inserts/s%n",
+      name,
+      Integer.valueOf(count),
+      Double.valueOf((double) nanos / 1.0e6),
+      Double.valueOf(per_second));
+  }
+
+  /**
+   * Command-line entry point.
+   *
+   * @param args Command-line arguments
+   */
+
+  public static void main(final String[] args)
+  {
+    final var count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    final var iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    final var root = CatalogTreeGraphTest.directory(0L);
+    final var entries = makeEntries(root, count);
+
+    final Supplier<Graph<CatalogNodeType, CatalogDirectoryEntry>> dag =
+      () -> new DirectedAcyclicGraph<>(CatalogDirectoryEntry.class);
+    final Supplier<Graph<CatalogNodeType, CatalogDirectoryEntry>> tree =
+      CatalogTreeGraph::new;
+
+    for (var index = 0; index < iterations; ++index) {
+      run(dag, root, entries);
+      run(tree, root, entries);
+    }
+
+    var dag_best = Long.MAX_VALUE;
+    var tree_best = Long.MAX_VALUE;
+    for (var index = 0; index < iterations; ++index) {
+      dag_best = Math.min(dag_best, run(dag, root, entries));
+      tree_best = Math.min(tree_best, run(tree, root, entries));
+    }
+
+    report("DirectedAcyclicGraph", entries.size(), dag_best);
+    report("CatalogTreeGraph", entries.size(), tree_best);
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogDirectoryEntry;
+import com.io7m.jwhere.core.CatalogDirectoryNode;
+import com.io7m.jwhere.core.CatalogFileNode;
+import com.io7m.jwhere.core.CatalogNodeType;
+import com.io7m.jwhere.core.CatalogTreeGraph;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public final class CatalogTreeGraphTest
+{
+  @Rule public ExpectedException expected = ExpectedException.none();
+
+  static CatalogDirectoryNode directory(final long id)
+  {
+    final var t = Instant.ofEpochSecond(1000L);
+    return CatalogDirectoryNode.builder()
+      .setPermissions(new HashSet<>())
+      .setGroup("root")
+      .setOwner("root")
+      .setIdValue(id)
+      .setModificationTime(t)
+      .setAccessTime(t)
+      .setCreationTime(t)
+      .build();
+  }
+
+  static CatalogFileNode file(final long id)
+  {
+    final var t = Instant.ofEpochSecond(1000L);
+    return CatalogFileNode.builder()
+      .setPermissions(new HashSet<>())
+      .setOwner("root")
+      .setGroup("root")
+      .setIdValue(id)
+      .setAccessTime(t)
+      .setCreationTime(t)
+      .setModificationTime(t)
+      .setSizeValue(100L)
+      .setHash(Optional.empty())
+      .build();
+  }
+
+  private static CatalogDirectoryEntry link(
+    final CatalogTreeGraph g,
+    final CatalogDirectoryNode parent,
+    final CatalogNodeType child,
+    final String name)
+  {
+    final var e = new CatalogDirectoryEntry(parent, child, name);
+    g.addVertex(parent);
+    g.addVertex(child);
+    Assert.assertTrue(g.addEdge(parent, child, e));
+    return e;
+  }
+
+  @Test
+  public void testStructure()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var d = directory(1L);
+    final var e0 = link(g, root, d, "d");
+    final var e1 = link(g, d, file(2L), "z");
+    final var e2 = link(g, d, file(3L), "a");
+    final var e3 = link(g, root, file(4L), "f");
+
+    Assert.assertEquals(5L, (long) g.vertexSet().size());
+    Assert.assertEquals(Set.of(e0, e1, e2, e3), g.edgeSet());
+    Assert.assertEquals(4L, (long) g.edgeSet().size());
+
+    Assert.assertEquals(0L, (long) g.inDegreeOf(root));
+    Assert.assertEquals(1L, (long) g.inDegreeOf(d));
+    Assert.assertEquals(2L, (long) g.outDegreeOf(d));
+    Assert.assertEquals(3L, (long) g.degreeOf(d));
+    Assert.assertEquals(Set.of(e0), g.incomingEdgesOf(d));
+    Assert.assertEquals(
+      List.of(e1, e2), new ArrayList<>(g.outgoingEdgesOf(d)));
+
+    Assert.assertEquals(e0, g.getEdge(root, d));
+    Assert.assertNull(g.getEdge(d, root));
+    Assert.assertTrue(g.containsEdge(root, d));
+    Assert.assertTrue(g.containsEdge(e1));
+    Assert.assertEquals(d, g.getEdgeSource(e1));
+
+    Assert.assertFalse(g.addEdge(root, d, e0));
+  }
+
+  @Test
+  public void testRemove()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var d = directory(1L);
+    final var f = file(2L);
+    final var e0 = link(g, root, d, "d");
+    final var e1 = link(g, d, f, "f");
+
+    Assert.assertTrue(g.removeVertex(d));
+    Assert.assertFalse(g.containsEdge(e0));
+    Assert.assertFalse(g.containsEdge(e1));
+    Assert.assertEquals(0L, (long) g.edgeSet().size());
+    Assert.assertEquals(0L, (long) g.inDegreeOf(f));
+    Assert.assertEquals(0L, (long) g.outDegreeOf(root));
+
+    final var e2 = new CatalogDirectoryEntry(root, f, "f");
+    Assert.assertTrue(g.addEdge(root, f, e2));
+    Assert.assertEquals(e2, g.removeEdge(root, f));
+    Assert.assertTrue(g.edgeSet().isEmpty());
+  }
+
+  @Test
+  public void testEquality()
+  {
+    final var g0 = new CatalogTreeGraph();
+    final var g1 = new CatalogTreeGraph();
+    final var root = directory(0L);
+    link(g0, root, file(1L), "a");
+    link(g1, root, file(1L), "a");
+
+    Assert.assertEquals(g0, g1);
+    Assert.assertEquals((long) g0.hashCode(), (long) g1.hashCode());
+  }
+
+  @Test
+  public void testSecondParent()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var d = directory(1L);
+    final var f = file(2L);
+    link(g, root, d, "d");
+    link(g, root, f, "f");
+
+    this.expected.expect(IllegalArgumentException.class);
+    link(g, d, f, "f");
+  }
+
+  @Test
+  public void testCycle()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var d = directory(1L);
+    link(g, root, d, "d");
+
+    this.expected.expect(IllegalArgumentException.class);
+    link(g, d, root, "r");
+  }
+
+  @Test
+  public void testMismatchedEndpoints()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var f = file(1L);
+    g.addVertex(root);
+    g.addVertex(f);
+
+    this.expected.expect(IllegalArgumentException.class);
+    g.addEdge(root, f, new CatalogDirectoryEntry(directory(2L), f, "f"));
+  }
+
+  @Test
+  public void testNoEdgeSupplier()
+  {
+    final var g = new CatalogTreeGraph();
+    final var root = directory(0L);
+    final var f = file(1L);
+    g.addVertex(root);
+    g.addVertex(f);
+
+    this.expected.expect(UnsupportedOperationException.class);
+    g.addEdge(root, f);
+  }
+}
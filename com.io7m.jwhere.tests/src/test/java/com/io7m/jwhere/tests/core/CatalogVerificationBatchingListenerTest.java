@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogVerificationBatchListenerType;
+import com.io7m.jwhere.core.CatalogVerificationBatchSettings;
+import com.io7m.jwhere.core.CatalogVerificationBatchingListener;
+import com.io7m.jwhere.core.CatalogVerificationListenerType;
+import com.io7m.jwhere.core.CatalogVerificationOKItem;
+import com.io7m.jwhere.core.CatalogVerificationReportItemErrorType;
+import com.io7m.jwhere.core.CatalogVerificationReportItemOKType;
+import com.io7m.jwhere.core.CatalogVerificationReportItemType;
+import com.io7m.jwhere.core.CatalogVerificationVanishedItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CatalogVerificationBatchingListenerTest
+{
+  private static CatalogVerificationReportItemType item(final int index)
+  {
+    final var path = Path.of("file" + index);
+    if (index % 3 == 0) {
+      return CatalogVerificationVanishedItem.builder()
+        .setPath(path)
+        .build();
+    }
+    return CatalogVerificationOKItem.builder()
+      .setPath(path)
+      .build();
+  }
+
+  private static void report(
+    final CatalogVerificationListenerType listener,
+    final int count)
+  {
+    for (var index = 0; index < count; ++index) {
+      final var item = item(index);
+      if (item instanceof CatalogVerificationReportItemErrorType) {
+        listener.onItemError((CatalogVerificationReportItemErrorType) item);
+      } else {
+        listener.onItemVerified((CatalogVerificationReportItemOKType) item);
+      }
+    }
+  }
+
+  private static void checkBatches(final boolean asynchronous)
+  {
+    final var settings =
+      CatalogVerificationBatchSettings.builder()
+        .setBatchSize(10)
+        .setQueueCapacity(2)
+        .setAsynchronous(asynchronous)
+        .build();
+
+    final var batches = new CollectingListener();
+    try (var listener = CatalogVerificationBatchingListener.create(settings, batches)) {
+      report(listener, 95);
+      listener.onCompleted();
+    }
+
+    Assert.assertTrue(batches.completed);
+    Assert.assertEquals(10, batches.batches.size());
+    for (var index = 0; index < 9; ++index) {
+      Assert.assertEquals(10, batches.batches.get(index).size());
+    }
+    Assert.assertEquals(5, batches.batches.get(9).size());
+
+    final var items = new ArrayList<CatalogVerificationReportItemType>();
+    batches.batches.forEach(items::addAll);
+    Assert.assertEquals(95, items.size());
+    for (var index = 0; index < 95; ++index) {
+      Assert.assertEquals(item(index), items.get(index));
+    }
+
+    if (asynchronous) {
+      Assert.assertNotEquals(Thread.currentThread(), batches.thread);
+    } else {
+      Assert.assertEquals(Thread.currentThread(), batches.thread);
+    }
+  }
+
+  @Test
+  public void testBatchesSynchronous()
+  {
+    checkBatches(false);
+  }
+
+  @Test
+  public void testBatchesAsynchronous()
+  {
+    checkBatches(true);
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final var batches = new CollectingListener();
+    try (var listener = CatalogVerificationBatchingListener.create(
+      CatalogVerificationBatchSettings.builder().build(), batches)) {
+      listener.onCompleted();
+      listener.onCompleted();
+    }
+
+    Assert.assertTrue(batches.completed);
+    Assert.assertEquals(0, batches.batches.size());
+  }
+
+  @Test
+  public void testFailureRethrown()
+  {
+    final var settings =
+      CatalogVerificationBatchSettings.builder()
+        .setBatchSize(1)
+        .setQueueCapacity(1)
+        .build();
+
+    final var failing = new CatalogVerificationBatchListenerType()
+    {
+      @Override
+      public void onItems(final List<CatalogVerificationReportItemType> items)
+      {
+        throw new IllegalStateException("failed");
+      }
+
+      @Override
+      public void onCompleted()
+      {
+        Assert.fail("onCompleted must not be called");
+      }
+    };
+
+    try (var listener = CatalogVerificationBatchingListener.create(settings, failing)) {
+      report(listener, 1);
+      try {
+        report(listener, 100);
+        listener.onCompleted();
+        Assert.fail("Expected an exception");
+      } catch (final IllegalStateException e) {
+        Assert.assertEquals("failed", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testUnbatched()
+  {
+    final var ok = new ArrayList<CatalogVerificationReportItemType>();
+    final var errors = new ArrayList<CatalogVerificationReportItemType>();
+    final var completed = new boolean[1];
+
+    final var delegate = new CatalogVerificationListenerType()
+    {
+      @Override
+      public void onItemVerified(final CatalogVerificationReportItemOKType item)
+      {
+        ok.add(item);
+      }
+
+      @Override
+      public void onItemError(final CatalogVerificationReportItemErrorType item)
+      {
+        errors.add(item);
+      }
+
+      @Override
+      public void onCompleted()
+      {
+        completed[0] = true;
+      }
+    };
+
+    try (var listener = CatalogVerificationBatchingListener.create(
+      CatalogVerificationBatchSettings.builder().setBatchSize(4).build(),
+      CatalogVerificationBatchingListener.unbatched(delegate))) {
+      report(listener, 30);
+      listener.onCompleted();
+    }
+
+    Assert.assertTrue(completed[0]);
+    Assert.assertEquals(10, errors.size());
+    Assert.assertEquals(20, ok.size());
+  }
+
+  private static final class CollectingListener
+    implements CatalogVerificationBatchListenerType
+  {
+    private final List<List<CatalogVerificationReportItemType>> batches;
+    private Thread thread;
+    private boolean completed;
+
+    CollectingListener()
+    {
+      this.batches = new ArrayList<>();
+    }
+
+    @Override
+    public void onItems(final List<CatalogVerificationReportItemType> items)
+    {
+      Assert.assertFalse(this.completed);
+      this.thread = Thread.currentThread();
+      this.batches.add(new ArrayList<>(items));
+    }
+
+    @Override
+    public void onCompleted()
+    {
+      this.completed = true;
+    }
+  }
+}
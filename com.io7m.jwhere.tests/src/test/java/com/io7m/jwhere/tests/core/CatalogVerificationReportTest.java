@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.jwhere.tests.core;
+
+import com.io7m.jwhere.core.CatalogFileHashes;
+import com.io7m.jwhere.core.CatalogVerificationChangedHash;
+import com.io7m.jwhere.core.CatalogVerificationChangedMetadata;
+import com.io7m.jwhere.core.CatalogVerificationMetadataField;
+import com.io7m.jwhere.core.CatalogVerificationOKItem;
+import com.io7m.jwhere.core.CatalogVerificationReportItemErrorType;
+import com.io7m.jwhere.core.CatalogVerificationReportItemType;
+import com.io7m.jwhere.core.CatalogVerificationReportReader;
+import com.io7m.jwhere.core.CatalogVerificationReportRecord;
+import com.io7m.jwhere.core.CatalogVerificationReportWriter;
+import com.io7m.jwhere.core.CatalogVerificationVanishedItem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CatalogVerificationReportTest
+{
+  private Path file;
+
+  private static CatalogVerificationReportItemType item(final int index)
+  {
+    final var path = Path.of("dir" + (index % 7), "file \"" + index + "\"\n");
+    switch (index % 4) {
+      case 0:
+        return CatalogVerificationOKItem.builder()
+          .setPath(path)
+          .build();
+      case 1:
+        return CatalogVerificationVanishedItem.builder()
+          .setPath(path)
+          .build();
+      case 2:
+        return CatalogVerificationChangedHash.builder()
+          .setPath(path)
+          .setHashThen(CatalogFileHashes.fromHex("SHA-256", "00"))
+          .setHashNow(CatalogFileHashes.fromHex("SHA-256", "01"))
+          .build();
+      default:
+        return CatalogVerificationChangedMetadata.builder()
+          .setPath(path)
+          .setField(CatalogVerificationMetadataField.SIZE)
+          .setValueThen("1")
+          .setValueNow("2")
+          .build();
+    }
+  }
+
+  @Before
+  public void setUp()
+    throws IOException
+  {
+    this.file = Files.createTempFile("jwhere-report-", ".ndjson");
+  }
+
+  @After
+  public void tearDown()
+    throws IOException
+  {
+    Files.deleteIfExists(this.file);
+  }
+
+  @Test
+  public void testRoundTrip()
+    throws Exception
+  {
+    final var count = 2500;
+    final var items = new ArrayList<CatalogVerificationReportItemType>(count);
+    try (var writer = CatalogVerificationReportWriter.open(this.file)) {
+      for (var index = 0; index < count; ++index) {
+        final var item = item(index);
+        items.add(item);
+        if (index % 4 == 0) {
+          writer.onItemVerified((CatalogVerificationOKItem) item);
+        } else {
+          writer.onItemError((CatalogVerificationReportItemErrorType) item);
+        }
+      }
+      writer.onCompleted();
+
+      Assert.assertEquals((long) count, writer.itemCount());
+      Assert.assertEquals((long) (count - 625), writer.errorCount());
+    }
+
+    try (var reader = CatalogVerificationReportReader.open(this.file, 1000)) {
+      Assert.assertEquals((long) count, reader.itemCount());
+      Assert.assertEquals(3L, (long) reader.pageCount());
+
+      final var read = new ArrayList<CatalogVerificationReportRecord>(count);
+      for (final var page : List.of(2, 0, 1)) {
+        final var records = reader.page(page.intValue());
+        Assert.assertEquals(
+          page.intValue() == 2 ? 500L : 1000L, (long) records.size());
+      }
+      for (var page = 0; page < reader.pageCount(); ++page) {
+        read.addAll(reader.page(page));
+      }
+
+      Assert.assertEquals((long) count, (long) read.size());
+      for (var index = 0; index < count; ++index) {
+        final var expected = items.get(index);
+        final var record = read.get(index);
+        Assert.assertEquals(expected.path(), record.path());
+        Assert.assertEquals(expected.show(), record.show());
+        Assert.assertEquals(
+          CatalogVerificationReportWriter.kindOf(expected), record.kind());
+        Assert.assertEquals(index % 4 != 0, record.error());
+      }
+    }
+  }
+
+  @Test
+  public void testGrowing()
+    throws Exception
+  {
+    try (var writer = CatalogVerificationReportWriter.open(this.file)) {
+      for (var index = 0; index < 5; ++index) {
+        writer.onItemVerified(CatalogVerificationOKItem.builder()
+          .setPath(Path.of("file" + index))
+          .build());
+      }
+      writer.flush();
+
+      try (var reader = CatalogVerificationReportReader.open(this.file, 3)) {
+        Assert.assertEquals(5L, reader.itemCount());
+        Assert.assertEquals(2L, (long) reader.pageCount());
+        Assert.assertEquals(2L, (long) reader.page(1).size());
+
+        for (var index = 5; index < 9; ++index) {
+          writer.onItemVerified(CatalogVerificationOKItem.builder()
+            .setPath(Path.of("file" + index))
+            .build());
+        }
+        Assert.assertEquals(5L, reader.refresh());
+        writer.flush();
+
+        Assert.assertEquals(9L, reader.refresh());
+        Assert.assertEquals(3L, (long) reader.pageCount());
+        Assert.assertEquals(3L, (long) reader.page(1).size());
+        Assert.assertEquals(
+          Path.of("file8"), reader.page(2).get(2).path());
+
+        /*
+         * A line that has only been partly written is not a result yet.
+         */
+
+        Files.write(
+          this.file,
+          "{\"path\":[\"file9\"],".getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.APPEND);
+        Assert.assertEquals(9L, reader.refresh());
+        Assert.assertEquals(3L, (long) reader.pageCount());
+
+        Files.write(
+          this.file,
+          "\"kind\":\"verified\",\"error\":false,\"show\":\"OK\"}\n"
+            .getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.APPEND);
+        Assert.assertEquals(10L, reader.refresh());
+        Assert.assertEquals(4L, (long) reader.pageCount());
+        Assert.assertEquals(
+          Path.of("file9"), reader.page(3).get(0).path());
+      }
+    }
+  }
+
+  @Test
+  public void testEmpty()
+    throws Exception
+  {
+    try (var writer = CatalogVerificationReportWriter.open(this.file)) {
+      writer.onCompleted();
+    }
+
+    try (var reader = CatalogVerificationReportReader.open(this.file, 10)) {
+      Assert.assertEquals(0L, reader.itemCount());
+      Assert.assertEquals(0L, (long) reader.pageCount());
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.io7m.jwhere.core.CatalogDirectoryEntry;
 import com.io7m.jwhere.core.CatalogDiskMetadata;
 import com.io7m.jwhere.core.CatalogFileHash;
 import com.io7m.jwhere.core.CatalogIgnoreAccessTime;
+import com.io7m.jwhere.core.CatalogVerificationHashMode;
 import com.io7m.jwhere.core.CatalogVerificationMetadataField;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Assertions;
@@ -36,6 +37,7 @@ import java.math.BigInteger;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -49,10 +51,15 @@ public final class JWBruteForceEqualityTest
     com.io7m.jwhere.core.CatalogDiskName.class,
     com.io7m.jwhere.core.CatalogFileHash.class,
     com.io7m.jwhere.core.CatalogFileNode.class,
+    com.io7m.jwhere.core.CatalogIOThroughput.class,
     com.io7m.jwhere.core.CatalogSaveSpecification.class,
+    com.io7m.jwhere.core.CatalogScanEstimate.class,
+    com.io7m.jwhere.core.CatalogScanStatus.class,
+    com.io7m.jwhere.core.CatalogVerificationBatchSettings.class,
     com.io7m.jwhere.core.CatalogVerificationChangedHash.class,
     com.io7m.jwhere.core.CatalogVerificationChangedMetadata.class,
     com.io7m.jwhere.core.CatalogVerificationOKItem.class,
+    com.io7m.jwhere.core.CatalogVerificationReportRecord.class,
     com.io7m.jwhere.core.CatalogVerificationReportSettings.class,
     com.io7m.jwhere.core.CatalogVerificationUncataloguedItem.class,
     com.io7m.jwhere.core.CatalogVerificationVanishedItem.class,
@@ -94,18 +101,24 @@ public final class JWBruteForceEqualityTest
       if (return_type.equals(BigInteger.class)) {
         return BigInteger.valueOf(23L);
       }
+      if (return_type.equals(byte[].class)) {
+        return new byte[]{(byte) 0xab, (byte) 0xcd};
+      }
       if (return_type.equals(Path.class)) {
         return Paths.get("/tmp");
       }
       if (return_type.equals(Instant.class)) {
         return Instant.now();
       }
+      if (return_type.equals(Duration.class)) {
+        return Duration.ofSeconds(23L);
+      }
       if (return_type.equals(CatalogCompress.class)) {
         return CatalogCompress.COMPRESS_GZIP;
       }
       if (return_type.equals(CatalogFileHash.class)) {
         return CatalogFileHash.builder()
-          .setValue("ABCD")
+          .setBytes(new byte[]{(byte) 0xab, (byte) 0xcd})
           .setAlgorithm("SHA-512")
           .build();
       }
@@ -115,6 +128,12 @@ public final class JWBruteForceEqualityTest
       if (return_type.equals(CatalogIgnoreAccessTime.class)) {
         return CatalogIgnoreAccessTime.IGNORE_ACCESS_TIME;
       }
+      if (return_type.equals(CatalogVerificationHashMode.class)) {
+        return CatalogVerificationHashMode.PREFER_FULL_HASH;
+      }
+      if (return_type.equals(int.class)) {
+        return Integer.valueOf(1);
+      }
 
       return Mockito.RETURNS_DEFAULTS.answer(invocation);
     }